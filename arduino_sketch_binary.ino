@@ -0,0 +1,95 @@
+/*
+ * Arduino Sketch for Radar Dashboard - Binary Framing
+ * Same HC-SR04 wiring as arduino_sketch.ino, but each reading is sent as a
+ * 10-byte frame instead of a text line:
+ *
+ *   0xA5 | angle (uint16) | distance (uint16) | millis (uint32) | CRC-8
+ *
+ * Multi-byte fields are little-endian. The CRC-8 (polynomial 0x07, init 0)
+ * covers the 8 bytes between the sync byte and the CRC.
+ * Select "Binary" in the Java dashboard (or pass "binary" on the command line)
+ * to decode this format.
+ */
+
+// Pin definitions (adjust based on your actual setup)
+const int TRIG_PIN = 9;
+const int ECHO_PIN = 10;
+
+// Fixed mount; replace with the servo position for a sweeping setup
+const int SENSOR_ANGLE = 90;
+
+const byte SYNC_BYTE = 0xA5;
+const int FRAME_SIZE = 10;
+
+byte frame[FRAME_SIZE];
+
+void setup() {
+  // Initialize serial communication
+  Serial.begin(9600);
+
+  // Initialize ultrasonic sensor pins
+  pinMode(TRIG_PIN, OUTPUT);
+  pinMode(ECHO_PIN, INPUT);
+
+  // No text banner: the Java decoder resyncs on the sync byte
+}
+
+void loop() {
+  // Get distance from sensor
+  long distance = getDistance();
+
+  // Send binary frame to Java application
+  sendFrame(SENSOR_ANGLE, distance, millis());
+
+  // HC-SR04 needs about 60 ms between pings for echoes to die out
+  delay(60);
+}
+
+void sendFrame(unsigned int angle, unsigned int distance, unsigned long timestamp) {
+  frame[0] = SYNC_BYTE;
+  frame[1] = angle & 0xFF;
+  frame[2] = (angle >> 8) & 0xFF;
+  frame[3] = distance & 0xFF;
+  frame[4] = (distance >> 8) & 0xFF;
+  frame[5] = timestamp & 0xFF;
+  frame[6] = (timestamp >> 8) & 0xFF;
+  frame[7] = (timestamp >> 16) & 0xFF;
+  frame[8] = (timestamp >> 24) & 0xFF;
+  frame[9] = crc8(frame + 1, 8);
+
+  Serial.write(frame, FRAME_SIZE);
+}
+
+byte crc8(const byte *data, int length) {
+  byte crc = 0;
+  for (int i = 0; i < length; i++) {
+    crc ^= data[i];
+    for (int bit = 0; bit < 8; bit++) {
+      crc = (crc & 0x80) ? (crc << 1) ^ 0x07 : (crc << 1);
+    }
+  }
+  return crc;
+}
+
+long getDistance() {
+  // Clear the trigger pin
+  digitalWrite(TRIG_PIN, LOW);
+  delayMicroseconds(2);
+
+  // Send trigger pulse
+  digitalWrite(TRIG_PIN, HIGH);
+  delayMicroseconds(10);
+  digitalWrite(TRIG_PIN, LOW);
+
+  // Read echo pulse
+  long duration = pulseIn(ECHO_PIN, HIGH);
+
+  // Calculate distance in cm
+  long distance = duration * 0.034 / 2;
+
+  // Return distance (limit to reasonable range)
+  if (distance > 400) distance = 400; // Max 4 meters
+  if (distance < 2) distance = 2;     // Min 2 cm
+
+  return distance;
+}
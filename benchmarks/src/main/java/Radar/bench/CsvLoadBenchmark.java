@@ -0,0 +1,125 @@
+package Radar.bench;
+
+import Radar.core.SampleColumns;
+import Radar.io.CsvSampleLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a radar CSV log: the original loadCsvFile loop (readLine, split,
+ * boxed lists) against {@link CsvSampleLoader}, sequential and parallel. The
+ * file is written once per trial in the layout the dashboards log.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvLoadBenchmark {
+
+    private static final int DETECTION_THRESHOLD = 50;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private File file;
+    private CsvSampleLoader loader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = File.createTempFile("radar_bench_", ".csv");
+        Random random = new Random(42);
+        long timestamp = 1_700_000_000_000L;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write("Degree,Distance,Timestamp,Detection\n");
+            for (int i = 0; i < rows; i++) {
+                int distance = 5 + random.nextInt(395);
+                timestamp += 60;
+                writer.write(random.nextInt(181) + "," + distance + "," + timestamp + ","
+                        + (distance < DETECTION_THRESHOLD ? "YES" : "NO") + "\n");
+            }
+        }
+        loader = new CsvSampleLoader(DETECTION_THRESHOLD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int loadCsvFile() throws IOException {
+        List<Integer> degreeHistory = new ArrayList<>();
+        List<Integer> distanceHistory = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            boolean firstLine = true;
+            while ((line = reader.readLine()) != null) {
+                if (firstLine) {
+                    firstLine = false; // Skip header
+                    continue;
+                }
+                String[] parts = line.split(",");
+                if (parts.length >= 2) {
+                    try {
+                        degreeHistory.add(Integer.parseInt(parts[0].trim()));
+                        distanceHistory.add(Integer.parseInt(parts[1].trim()));
+                    } catch (NumberFormatException e) {
+                        // skipped, as before
+                    }
+                }
+            }
+        }
+        return distanceHistory.size();
+    }
+
+    @Benchmark
+    public int sampleLoader() throws Exception {
+        return load(false);
+    }
+
+    @Benchmark
+    public int sampleLoaderParallel() throws Exception {
+        return load(true);
+    }
+
+    private int load(boolean parallel) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        SampleColumns loaded = new SampleColumns(rows, DETECTION_THRESHOLD);
+        Exception[] failure = new Exception[1];
+        loader.load(file, new CsvSampleLoader.Listener() {
+            @Override
+            public void onChunk(SampleColumns chunk, long bytesDone, long totalBytes) {
+                loaded.addAll(chunk);
+            }
+
+            @Override
+            public void onComplete(int rows, int skippedRows) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failure[0] = e;
+                done.countDown();
+            }
+        }, parallel);
+        done.await();
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return loaded.size();
+    }
+}
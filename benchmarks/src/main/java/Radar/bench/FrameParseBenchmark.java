@@ -0,0 +1,87 @@
+package Radar.bench;
+
+import Radar.serial.BinaryFrameDecoder;
+import Radar.serial.FrameDecoder;
+import Radar.serial.SerialFrameParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serial frame parsing, per frame: the original readLine + split + parseInt
+ * loop against the byte-level text parser and the binary decoder, each fed
+ * the same frames as they would arrive from the port.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(FrameParseBenchmark.FRAMES)
+public class FrameParseBenchmark {
+
+    static final int FRAMES = 4096;
+
+    private byte[] text;
+    private byte[] binary;
+    private SerialFrameParser textParser;
+    private BinaryFrameDecoder binaryDecoder;
+    private long checksum;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder lines = new StringBuilder();
+        binary = new byte[FRAMES * BinaryFrameDecoder.FRAME_SIZE];
+        long millis = 100_000;
+        for (int i = 0; i < FRAMES; i++) {
+            int degree = random.nextInt(181);
+            int distance = 5 + random.nextInt(395);
+            millis += 60;
+            lines.append(degree).append(',').append(distance).append(',').append(millis).append("\r\n");
+            BinaryFrameDecoder.encode(degree, distance, millis, binary, i * BinaryFrameDecoder.FRAME_SIZE);
+        }
+        text = lines.toString().getBytes(StandardCharsets.US_ASCII);
+
+        FrameDecoder.FrameListener listener = (degree, distance, timestamp) -> checksum += degree + distance;
+        textParser = new SerialFrameParser(listener);
+        binaryDecoder = new BinaryFrameDecoder(listener);
+    }
+
+    // The loop the dashboards used to run on every line read from the port
+    @Benchmark
+    public void splitParseInt(Blackhole blackhole) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(text)));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.trim().isEmpty() && line.contains(",") && line.split(",").length >= 2) {
+                String[] parts = line.split(",");
+                int degree = Integer.parseInt(parts[0].trim());
+                int distance = Integer.parseInt(parts[1].trim());
+                blackhole.consume(degree + distance);
+            }
+        }
+    }
+
+    @Benchmark
+    public long textParser() {
+        checksum = 0;
+        textParser.feed(text, 0, text.length);
+        return checksum;
+    }
+
+    @Benchmark
+    public long binaryDecoder() {
+        checksum = 0;
+        binaryDecoder.feed(binary, 0, binary.length);
+        return checksum;
+    }
+}
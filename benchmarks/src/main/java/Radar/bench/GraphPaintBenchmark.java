@@ -0,0 +1,78 @@
+package Radar.bench;
+
+import Radar.core.SampleRingBuffer;
+import Radar.render.HistoryPanel;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One frame of the distance-over-time graph painted into an off-screen image
+ * the size of the dashboard panel. {@code frame} appends a sample and paints,
+ * as the dashboards do per batch; {@code fullRepaint} drops the cached layers
+ * first, which is the cost of a resize and of the original panel, which
+ * redrew everything on every sample.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GraphPaintBenchmark {
+
+    private static final int WIDTH = 1100;
+    private static final int HEIGHT = 400;
+
+    @Param({"100", "5000"})
+    public int historySize;
+
+    private SampleRingBuffer history;
+    private HistoryPanel panel;
+    private BufferedImage image;
+    private long timestamp;
+
+    @Setup
+    public void setUp() {
+        history = new SampleRingBuffer(historySize);
+        for (int i = 0; i < historySize; i++) {
+            append();
+        }
+        panel = new HistoryPanel("Benchmark Distance Over Time", history);
+        panel.setSize(WIDTH, HEIGHT);
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        paint();
+    }
+
+    @Benchmark
+    public BufferedImage frame() {
+        append();
+        return paint();
+    }
+
+    @Benchmark
+    public BufferedImage fullRepaint() {
+        append();
+        panel.reset();
+        return paint();
+    }
+
+    private void append() {
+        long now = timestamp;
+        timestamp += 60;
+        int distance = 20 + (int) ((now / 60) * 7 % 360);
+        history.append(now, distance, distance < 50);
+    }
+
+    private BufferedImage paint() {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            panel.paint(g2d);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+}
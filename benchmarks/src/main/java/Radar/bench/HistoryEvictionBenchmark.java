@@ -0,0 +1,71 @@
+package Radar.bench;
+
+import Radar.core.SampleRingBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appending one sample to a full history: the original ArrayList of boxed
+ * points trimmed with remove(0) against {@link SampleRingBuffer}. The lists
+ * shift every element on each eviction, so their cost grows with the size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HistoryEvictionBenchmark {
+
+    private static class DataPoint {
+        final long timestamp;
+        final int distance;
+        final boolean detected;
+
+        DataPoint(long timestamp, int distance, boolean detected) {
+            this.timestamp = timestamp;
+            this.distance = distance;
+            this.detected = detected;
+        }
+    }
+
+    @Param({"100", "10000"})
+    public int historySize;
+
+    private List<DataPoint> list;
+    private SampleRingBuffer ring;
+    private long timestamp;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>();
+        ring = new SampleRingBuffer(historySize);
+        for (int i = 0; i < historySize; i++) {
+            list.add(new DataPoint(i, i % 400, false));
+            ring.append(i, i % 400, false);
+        }
+        timestamp = historySize;
+    }
+
+    @Benchmark
+    public int arrayListRemoveFirst() {
+        long now = timestamp++;
+        int distance = (int) (now % 400);
+        list.add(new DataPoint(now, distance, distance < 50));
+        if (list.size() > historySize) {
+            list.remove(0);
+        }
+        return list.size();
+    }
+
+    @Benchmark
+    public int ringBuffer() {
+        long now = timestamp++;
+        int distance = (int) (now % 400);
+        ring.append(now, distance, distance < 50);
+        return ring.size();
+    }
+}
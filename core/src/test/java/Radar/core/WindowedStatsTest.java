@@ -0,0 +1,111 @@
+package Radar.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WindowedStatsTest {
+
+    private static final long WINDOW_MS = 1000;
+
+    @Test
+    void matchesABruteForceSlidingWindow() {
+        WindowedStats stats = new WindowedStats(WINDOW_MS);
+        Deque<long[]> window = new ArrayDeque<>(); // {timestamp, distance, detected}
+        Random random = new Random(42);
+        long now = 0;
+        for (int i = 0; i < 20_000; i++) {
+            // Bursts fill the window past its initial 256 slots, quiet spells empty it again
+            boolean burst = (i / 2000) % 2 == 0;
+            now += burst ? random.nextInt(3) : 1 + random.nextInt(400);
+            int distance = random.nextInt(10) == 0 ? random.nextInt(2000) : 20 + random.nextInt(200);
+            boolean detected = distance < 50;
+            stats.add(now, distance, detected);
+            window.addLast(new long[] { now, distance, detected ? 1 : 0 });
+            while (now - window.peekFirst()[0] > WINDOW_MS) {
+                window.removeFirst();
+            }
+            if (i % 7 == 0) {
+                assertMatches(window, stats);
+            }
+        }
+    }
+
+    @Test
+    void minAndMaxSurviveGrowingWithSortedRuns() {
+        WindowedStats stats = new WindowedStats(WINDOW_MS);
+        // Falling distances keep every sample in the min deque, so it must be carried through grow()
+        for (int i = 0; i < 1000; i++) {
+            stats.add(i / 10, 1000 - i, false);
+        }
+        assertEquals(1, stats.min());
+        assertEquals(1000, stats.max());
+        stats.expire(WINDOW_MS + 50); // the first 500 leave
+        assertEquals(1, stats.min());
+        assertEquals(500, stats.max());
+        assertEquals(500, stats.count());
+    }
+
+    @Test
+    void aQuietSpellEmptiesTheWindow() {
+        WindowedStats stats = new WindowedStats(WINDOW_MS);
+        for (int i = 0; i < 300; i++) {
+            stats.add(i, 40 + i % 5, true);
+        }
+        stats.expire(300 + WINDOW_MS);
+        assertEquals(0, stats.count());
+        assertEquals(0, stats.mean());
+        assertEquals(0, stats.variance());
+        assertEquals(-1, stats.min());
+        assertEquals(-1, stats.max());
+        assertEquals(-1, stats.percentile(0.5));
+        assertEquals(0, stats.detectionRate());
+
+        stats.add(5000, 70, false);
+        assertEquals(1, stats.count());
+        assertEquals(70, stats.mean());
+        assertEquals(70, stats.min());
+        assertEquals(70, stats.percentile(0.99));
+    }
+
+    private static void assertMatches(Deque<long[]> window, WindowedStats stats) {
+        int n = window.size();
+        int[] sorted = new int[n];
+        double sum = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        int detected = 0;
+        int i = 0;
+        for (long[] sample : window) {
+            int distance = (int) sample[1];
+            sorted[i++] = Math.min(distance, WindowedStats.MAX_BIN);
+            sum += distance;
+            min = Math.min(min, distance);
+            max = Math.max(max, distance);
+            detected += (int) sample[2];
+        }
+        double mean = sum / n;
+        double squares = 0;
+        for (long[] sample : window) {
+            squares += (sample[1] - mean) * (sample[1] - mean);
+        }
+        double variance = n > 1 ? squares / (n - 1) : 0;
+        Arrays.sort(sorted);
+
+        assertEquals(n, stats.count());
+        assertEquals(mean, stats.mean(), 1e-6 * Math.max(1, mean));
+        assertEquals(variance, stats.variance(), 1e-6 * Math.max(1, variance));
+        assertEquals(min, stats.min());
+        assertEquals(max, stats.max());
+        assertEquals((double) detected / n, stats.detectionRate(), 1e-9);
+        for (double fraction : new double[] { 0, 0.5, 0.95, 0.99, 1 }) {
+            int rank = (int) Math.max(1, Math.ceil(fraction * n));
+            assertEquals(sorted[rank - 1], stats.percentile(fraction), "p" + fraction);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package Radar.io;
+
+import Radar.core.SampleColumns;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncCsvWriterTest {
+
+    private static final String HEADER = "Degree,Distance,Timestamp,Detection";
+
+    @TempDir
+    File dir;
+
+    @Test
+    void closeDrainsEveryQueuedRow() throws IOException {
+        File file = new File(dir, "log.csv");
+        // Thresholds the test never reaches, so only close() can flush
+        AsyncCsvWriter writer = new AsyncCsvWriter(file, HEADER, 100_000, 1_000_000, 3_600_000, false, null);
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(writer.append(i % 181, i % 400, 1000L + i, i % 2 == 0));
+        }
+        writer.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(50_001, lines.size());
+        assertEquals(HEADER, lines.get(0));
+        assertEquals("0,0,1000,YES", lines.get(1));
+        assertEquals("43,399,50999,NO", lines.get(50_000));
+        assertEquals(50_000, writer.getWrittenCount());
+        assertEquals(0, writer.getDroppedCount());
+        assertNull(writer.getFailure());
+    }
+
+    @Test
+    void blockingAppendWaitsInsteadOfDropping() throws IOException {
+        File file = new File(dir, "small.csv");
+        // A batch of 8 rows fills many times over; append alone would drop most of these
+        AsyncCsvWriter writer = new AsyncCsvWriter(file, HEADER, 8, 4, 3_600_000, false, null);
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                assertTrue(writer.appendGapBlocking(1000L + i - 1, 1000L + i));
+            }
+            assertTrue(writer.appendBlocking(i % 181, i % 400, 1000L + i, false, AsyncCsvWriter.NO_SENSOR));
+        }
+        writer.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(10_001, lines.size());
+        assertEquals("44,399,10999,NO", lines.get(10_000));
+        assertEquals(0, writer.getDroppedCount());
+        assertFalse(writer.appendBlocking(1, 2, 3, false, AsyncCsvWriter.NO_SENSOR)); // closed, so no wait
+    }
+
+    @Test
+    void formatsSensorColumnAndNegativeNumbers() throws IOException {
+        File file = new File(dir, "multi.csv");
+        AsyncCsvWriter writer = new AsyncCsvWriter(file, HEADER + ",Sensor");
+        writer.append(90, 45, 1234, true, 2);
+        writer.append(-1, 0, Long.MIN_VALUE, false, 0);
+        writer.close();
+
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals("90,45,1234,YES,2", lines.get(1));
+        assertEquals("-1,0,-9223372036854775808,NO,0", lines.get(2));
+    }
+
+    @Test
+    void appendsAfterCloseAreDropped() throws IOException {
+        File file = new File(dir, "closed.csv");
+        AsyncCsvWriter writer = new AsyncCsvWriter(file, HEADER);
+        writer.append(1, 2, 3, false);
+        writer.close();
+        writer.close(); // idempotent
+
+        assertFalse(writer.append(4, 5, 6, false));
+        assertFalse(writer.appendGap(7, 8));
+        assertEquals(2, writer.getDroppedCount());
+        assertEquals(2, Files.readAllLines(file.toPath()).size());
+    }
+
+    @Test
+    void recordingGetsTheSameRowsAndGaps() throws IOException {
+        File csv = new File(dir, "both.csv");
+        File rdr = new File(dir, "both.rdr");
+        AsyncCsvWriter writer = new AsyncCsvWriter(csv, HEADER, 1024, 16, 10, false, new RecordingWriter(rdr));
+        for (int i = 0; i < 100; i++) {
+            if (i == 60) {
+                assertTrue(writer.appendGap(1000L + 59, 1000L + 60));
+            }
+            writer.append(i, 10 + i, 1000L + i, false);
+        }
+        writer.close(); // also closes the recording
+
+        assertEquals(101, Files.readAllLines(csv.toPath()).size()); // gaps have no CSV row
+        try (RecordingReader reader = new RecordingReader(rdr)) {
+            assertEquals(100, reader.getRowCount());
+            assertEquals(1, reader.getGapCount());
+            assertEquals(60, reader.gapRow(0));
+            SampleColumns rows = new SampleColumns(0, 50);
+            reader.read(Long.MIN_VALUE, Long.MAX_VALUE, rows);
+            assertEquals(99, rows.degreeAt(99));
+            assertEquals(109, rows.distanceAt(99));
+        }
+    }
+}
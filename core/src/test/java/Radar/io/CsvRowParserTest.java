@@ -0,0 +1,57 @@
+package Radar.io;
+
+import Radar.core.SampleColumns;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvRowParserTest {
+
+    @Test
+    void keepsTheLoggedDetection() {
+        // Logged flags that disagree with a 50 cm threshold, as a zone table can make them
+        SampleColumns rows = parse("Degree,Distance,Timestamp,Detection\r\n"
+                + "10,120,1000,YES\r\n"
+                + "11,20,1001,NO\r\n"
+                + "12,30,1002, yes ,3\n"
+                + "13,40,1003\n"
+                + "14,90,1004,maybe\n");
+
+        assertEquals(5, rows.size());
+        assertTrue(rows.isDetected(0));
+        assertFalse(rows.isDetected(1));
+        assertTrue(rows.isDetected(2));
+        assertTrue(rows.isDetected(3)); // no Detection column: judged by the threshold
+        assertFalse(rows.isDetected(4));
+        assertEquals(1004, rows.timestampAt(4));
+    }
+
+    @Test
+    void rowsMaySplitAcrossFeeds() {
+        byte[] data = "5,60,7,NO\n6,70,8,YES\n".getBytes(StandardCharsets.US_ASCII);
+        CsvRowParser parser = new CsvRowParser(false);
+        SampleColumns rows = new SampleColumns(0, 50);
+        for (int i = 0; i < data.length; i++) {
+            parser.feed(data, i, 1, rows);
+        }
+        parser.finish(rows);
+
+        assertEquals(2, rows.size());
+        assertFalse(rows.isDetected(0));
+        assertTrue(rows.isDetected(1));
+        assertEquals(70, rows.distanceAt(1));
+    }
+
+    private static SampleColumns parse(String text) {
+        byte[] data = text.getBytes(StandardCharsets.US_ASCII);
+        CsvRowParser parser = new CsvRowParser(true);
+        SampleColumns rows = new SampleColumns(0, 50);
+        parser.feed(data, 0, data.length, rows);
+        parser.finish(rows);
+        return rows;
+    }
+}
@@ -0,0 +1,48 @@
+package Radar.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class RecordingFormatTest {
+
+    @Test
+    void varLongRoundTripsEdgeValues() {
+        long[] values = { 0, 1, -1, 63, -64, 64, -65, 127, 128, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                Long.MAX_VALUE, Long.MIN_VALUE };
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * RecordingFormat.MAX_VARINT_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (long value : values) {
+            RecordingFormat.putVarLong(buffer, value);
+        }
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, RecordingFormat.getVarLong(buffer));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void smallDeltasTakeOneByte() {
+        ByteBuffer buffer = ByteBuffer.allocate(RecordingFormat.MAX_VARINT_BYTES);
+        for (long delta : new long[] { 0, 1, -1, 63, -64 }) {
+            buffer.clear();
+            RecordingFormat.putVarLong(buffer, delta);
+            assertEquals(1, buffer.position(), "delta " + delta);
+        }
+        buffer.clear();
+        RecordingFormat.putVarLong(buffer, 64);
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    void extremesFitTheWorstCase() {
+        ByteBuffer buffer = ByteBuffer.allocate(RecordingFormat.MAX_VARINT_BYTES);
+        RecordingFormat.putVarLong(buffer, Long.MIN_VALUE);
+        assertEquals(RecordingFormat.MAX_VARINT_BYTES, buffer.position());
+    }
+}
@@ -0,0 +1,276 @@
+package Radar.io;
+
+import Radar.core.SampleColumns;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordingReaderTest {
+
+    private static final int THRESHOLD = 50;
+    private static final int BLOCK_ROWS = 100;
+
+    @TempDir
+    File dir;
+
+    @Test
+    void roundTripsEveryRow() throws IOException {
+        File file = write("all.rdr", 1050, 0);
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertEquals(1050, reader.getRowCount());
+            assertEquals(11, reader.getBlockCount());
+            assertFalse(reader.isRecovered());
+            assertEquals(time(0), reader.getFirstTimestamp());
+            assertEquals(time(1049), reader.getLastTimestamp());
+
+            SampleColumns rows = new SampleColumns(0, THRESHOLD);
+            assertEquals(1050, reader.read(Long.MIN_VALUE, Long.MAX_VALUE, rows));
+            for (int i = 0; i < rows.size(); i++) {
+                assertEquals(degree(i), rows.degreeAt(i));
+                assertEquals(distance(i), rows.distanceAt(i));
+                assertEquals(time(i), rows.timestampAt(i));
+                assertEquals(detected(i), rows.isDetected(i));
+            }
+        }
+    }
+
+    @Test
+    void blocksKeepDetectionsAndSensors() throws IOException {
+        File file = write("columns.rdr", 250, 0);
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertEquals(RecordingFormat.VERSION, reader.getVersion());
+            short[] degrees = new short[BLOCK_ROWS];
+            short[] distances = new short[BLOCK_ROWS];
+            long[] timestamps = new long[BLOCK_ROWS];
+            boolean[] detections = new boolean[BLOCK_ROWS];
+            int[] sensors = new int[BLOCK_ROWS];
+            assertEquals(50, reader.readBlock(2, degrees, distances, timestamps, detections, sensors));
+            for (int i = 0; i < 50; i++) {
+                assertEquals(detected(200 + i), detections[i]);
+                assertEquals(sensor(200 + i), sensors[i]);
+            }
+        }
+    }
+
+    @Test
+    void judgesVersionTwoFilesByTheirThreshold() throws IOException {
+        // One block of two rows, as version 2 wrote it: no detection bits, no sensors
+        ByteBuffer bytes = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putInt(RecordingFormat.MAGIC).putShort((short) 2).putShort((short) 0).putInt(BLOCK_ROWS).putInt(THRESHOLD);
+        bytes.putInt(2);
+        int lengthAt = bytes.position();
+        bytes.putInt(0);
+        bytes.putLong(1000);
+        RecordingFormat.putVarLong(bytes, 60);
+        RecordingFormat.putVarLong(bytes, 90);
+        RecordingFormat.putVarLong(bytes, 0);
+        RecordingFormat.putVarLong(bytes, 20);
+        RecordingFormat.putVarLong(bytes, 80);
+        bytes.putInt(lengthAt, bytes.position() - lengthAt - 4);
+        long indexOffset = bytes.position();
+        bytes.putLong(RecordingFormat.HEADER_SIZE).putLong(1000).putLong(1060).putInt(2)
+                .putShort((short) 20).putShort((short) 100).putInt(1);
+        bytes.putLong(indexOffset).putLong(2).putInt(1).putInt(0).putInt(RecordingFormat.TRAILER_MAGIC);
+        File file = new File(dir, "v2.rdr");
+        Files.write(file.toPath(), Arrays.copyOf(bytes.array(), bytes.position()));
+
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertFalse(reader.isRecovered());
+            SampleColumns rows = new SampleColumns(0, 0);
+            assertEquals(2, reader.read(Long.MIN_VALUE, Long.MAX_VALUE, rows));
+            assertTrue(rows.isDetected(0));  // 20 cm
+            assertFalse(rows.isDetected(1)); // 100 cm
+            assertEquals(100, rows.distanceAt(1));
+        }
+    }
+
+    @Test
+    void indexSummarisesEachBlock() throws IOException {
+        File file = write("index.rdr", 250, 0);
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertEquals(3, reader.getBlockCount());
+            assertEquals(50, reader.blockRows(2));
+            assertEquals(time(100), reader.blockFirstTimestamp(1));
+            assertEquals(time(199), reader.blockLastTimestamp(1));
+            assertEquals(10, reader.blockMinDistance(0));
+            assertEquals(109, reader.blockMaxDistance(0));
+            assertEquals(34, reader.blockDetections(0)); // every third row
+        }
+    }
+
+    @Test
+    void findBlockSeeksByTime() throws IOException {
+        File file = write("seek.rdr", 300, 0);
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertEquals(0, reader.findBlock(Long.MIN_VALUE));
+            assertEquals(0, reader.findBlock(time(99)));
+            assertEquals(1, reader.findBlock(time(99) + 1));
+            assertEquals(2, reader.findBlock(time(250)));
+            assertEquals(3, reader.findBlock(time(299) + 1));
+        }
+    }
+
+    @Test
+    void readsOnlyTheRequestedRange() throws IOException {
+        File file = write("range.rdr", 300, 0);
+        try (RecordingReader reader = new RecordingReader(file)) {
+            SampleColumns rows = new SampleColumns(0, THRESHOLD);
+            assertEquals(51, reader.read(time(120), time(170), rows));
+            assertEquals(time(120), rows.timestampAt(0));
+            assertEquals(time(170), rows.timestampAt(50));
+        }
+    }
+
+    @Test
+    void gapsComeBackBeforeTheRowAfterThem() throws IOException {
+        File file = write("gaps.rdr", 300, 150);
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertEquals(1, reader.getGapCount());
+            assertEquals(150, reader.gapRow(0));
+            assertEquals(time(149) + 1, reader.gapStart(0));
+            assertEquals(time(150) - 1, reader.gapEnd(0));
+
+            SampleColumns rows = new SampleColumns(0, THRESHOLD);
+            reader.read(Long.MIN_VALUE, Long.MAX_VALUE, rows);
+            for (int i = 0; i < rows.size(); i++) {
+                assertEquals(i == 150, rows.isGapBefore(i), "row " + i);
+            }
+        }
+    }
+
+    @Test
+    void emptyRecordingHasNoBlocks() throws IOException {
+        File file = write("empty.rdr", 0, 0);
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertEquals(0, reader.getRowCount());
+            assertEquals(0, reader.getBlockCount());
+            assertEquals(0, reader.getFirstTimestamp());
+            assertEquals(0, reader.read(Long.MIN_VALUE, Long.MAX_VALUE, new SampleColumns(0, THRESHOLD)));
+        }
+    }
+
+    @Test
+    void recoversEveryCompleteBlockOfATruncatedFile() throws IOException {
+        File whole = write("whole.rdr", 1050, 500);
+        byte[] bytes = Files.readAllBytes(whole.toPath());
+        File cut = new File(dir, "cut.rdr");
+        for (int length = RecordingFormat.HEADER_SIZE; length < bytes.length; length++) {
+            Files.write(cut.toPath(), Arrays.copyOf(bytes, length));
+            try (RecordingReader reader = new RecordingReader(cut)) {
+                SampleColumns rows = new SampleColumns(0, THRESHOLD);
+                reader.read(Long.MIN_VALUE, Long.MAX_VALUE, rows);
+                assertEquals(reader.getRowCount(), rows.size(), "length " + length);
+                long recovered = reader.getRowCount(); // whole blocks; the one close() wrote has 50 rows
+                assertTrue(recovered % BLOCK_ROWS == 0 || recovered == 1050, "length " + length);
+                for (int i = 0; i < rows.size(); i++) {
+                    assertEquals(time(i), rows.timestampAt(i), "length " + length);
+                    assertEquals(detected(i), rows.isDetected(i), "length " + length);
+                }
+            }
+        }
+    }
+
+    @Test
+    void checkpointKeepsIndexAndGapsOfAnUnclosedFile() throws IOException {
+        File file = new File(dir, "open.rdr");
+        RecordingWriter writer = new RecordingWriter(file, BLOCK_ROWS, 3);
+        for (int i = 0; i < 350; i++) {
+            if (i == 150) {
+                writer.markGap(time(149) + 1, time(150) - 1);
+            }
+            append(writer, i);
+        }
+        // Never closed: a checkpoint follows block 3, rows 300-349 are still in memory
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertFalse(reader.isRecovered());
+            assertEquals(300, reader.getRowCount());
+            assertEquals(1, reader.getGapCount());
+        }
+
+        append(writer, 350);
+        for (int i = 351; i < 400; i++) {
+            append(writer, i);
+        }
+        // Block 4 replaced the checkpoint; only the block walk finds it
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertTrue(reader.isRecovered());
+            assertEquals(400, reader.getRowCount());
+            assertEquals(0, reader.getGapCount());
+        }
+        writer.close();
+    }
+
+    @Test
+    void forceCheckpointsCompleteBlocks() throws IOException {
+        File file = new File(dir, "forced.rdr");
+        RecordingWriter writer = new RecordingWriter(file, BLOCK_ROWS, 0);
+        for (int i = 0; i < 120; i++) {
+            append(writer, i);
+        }
+        writer.force();
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertFalse(reader.isRecovered());
+            assertEquals(100, reader.getRowCount());
+        }
+        writer.close();
+        try (RecordingReader reader = new RecordingReader(file)) {
+            assertEquals(120, reader.getRowCount());
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        File file = new File(dir, "notes.rdr");
+        Files.write(file.toPath(), "Degree,Distance,Timestamp,Detection\n".getBytes());
+        assertThrows(IOException.class, () -> new RecordingReader(file));
+    }
+
+    private File write(String name, int rows, int gapBeforeRow) throws IOException {
+        File file = new File(dir, name);
+        try (RecordingWriter writer = new RecordingWriter(file, BLOCK_ROWS, 4)) {
+            for (int i = 0; i < rows; i++) {
+                if (gapBeforeRow > 0 && i == gapBeforeRow) {
+                    writer.markGap(time(i - 1) + 1, time(i) - 1);
+                }
+                append(writer, i);
+            }
+        }
+        return file;
+    }
+
+    private static void append(RecordingWriter writer, int row) throws IOException {
+        writer.append(degree(row), distance(row), time(row), detected(row), sensor(row));
+    }
+
+    private static int degree(int row) {
+        return row % 181;
+    }
+
+    private static int distance(int row) {
+        return 10 + row % 100;
+    }
+
+    // Independent of distance, as zone rules make it
+    private static boolean detected(int row) {
+        return row % 3 == 0;
+    }
+
+    private static int sensor(int row) {
+        return row / 40 % 3;
+    }
+
+    private static long time(int row) {
+        return 1_700_000_000_000L + row * 60L + (row % 7); // uneven spacing
+    }
+}
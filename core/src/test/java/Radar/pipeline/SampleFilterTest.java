@@ -0,0 +1,91 @@
+package Radar.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampleFilterTest {
+
+    @Test
+    void medianRemovesIsolatedGlitches() {
+        MedianFilter filter = new MedianFilter(5);
+        int[] readings = { 100, 101, 3, 99, 100, 400, 101 };
+        int[] expected = { 100, 101, 100, 100, 100, 100, 100 };
+        for (int i = 0; i < readings.length; i++) {
+            assertEquals(expected[i], filter.filter(0, i, 90, readings[i]), "reading " + i);
+        }
+    }
+
+    @Test
+    void medianPassesARealStepAfterHalfTheWindow() {
+        MedianFilter filter = new MedianFilter(5);
+        for (int i = 0; i < 5; i++) {
+            filter.filter(0, i, 90, 200);
+        }
+        assertEquals(200, filter.filter(0, 5, 90, 50));
+        assertEquals(200, filter.filter(0, 6, 90, 50));
+        assertEquals(50, filter.filter(0, 7, 90, 50));
+    }
+
+    @Test
+    void stateIsKeptPerSensorAndDegree() {
+        for (SampleFilter filter : new SampleFilter[] { new MedianFilter(3), new EmaFilter(0.5), new KalmanFilter(4, 25) }) {
+            // A sweep alternating between a near wall and open space must not blend them
+            for (int i = 0; i < 10; i++) {
+                assertEquals(50, filter.filter(0, i, 10, 50), filter.getClass().getSimpleName());
+                assertEquals(300, filter.filter(0, i, 20, 300), filter.getClass().getSimpleName());
+                assertEquals(120, filter.filter(1, i, 10, 120), filter.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void slotClampsDegreesIntoTheSweep() {
+        assertEquals(SampleFilter.slot(0, 0), SampleFilter.slot(0, -5));
+        assertEquals(SampleFilter.slot(0, 180), SampleFilter.slot(0, 500));
+        assertEquals(SampleFilter.DEGREES, SampleFilter.slot(1, 0));
+        assertNotEquals(SampleFilter.slot(0, 180), SampleFilter.slot(1, 0));
+    }
+
+    @Test
+    void emaMovesByAlpha() {
+        EmaFilter filter = new EmaFilter(0.5);
+        assertEquals(100, filter.filter(0, 0, 90, 100));
+        assertEquals(150, filter.filter(0, 1, 90, 200));
+        assertEquals(175, filter.filter(0, 2, 90, 200));
+    }
+
+    @Test
+    void kalmanSettlesTowardsAConstantDistance() {
+        KalmanFilter filter = new KalmanFilter(KalmanFilter.DEFAULT_PROCESS_NOISE, KalmanFilter.DEFAULT_MEASUREMENT_NOISE);
+        assertEquals(100, filter.filter(0, 0, 90, 100));
+        int last = 0;
+        for (int i = 1; i < 50; i++) {
+            last = filter.filter(0, i, 90, i % 2 == 0 ? 90 : 110); // +/-10 cm of jitter
+        }
+        assertTrue(Math.abs(last - 100) < 10, "estimate " + last);
+    }
+
+    @Test
+    void andThenStopsAtADrop() {
+        SampleFilter dropFar = (sensorId, timestamp, degree, distance) -> distance > 300 ? SampleFilter.DROP : distance;
+        SampleFilter half = (sensorId, timestamp, degree, distance) -> distance / 2;
+        SampleFilter chain = dropFar.andThen(half);
+        assertEquals(50, chain.filter(0, 0, 90, 100));
+        assertEquals(SampleFilter.DROP, chain.filter(0, 0, 90, 400));
+    }
+
+    @Test
+    void namedFilters() {
+        assertEquals(SampleFilter.PASS_THROUGH, SampleFilter.named("raw"));
+        assertTrue(SampleFilter.named("Median") instanceof MedianFilter);
+        assertTrue(SampleFilter.named("ema") instanceof EmaFilter);
+        assertTrue(SampleFilter.named("KALMAN") instanceof KalmanFilter);
+        assertThrows(IllegalArgumentException.class, () -> SampleFilter.named("mean"));
+        assertThrows(IllegalArgumentException.class, () -> new MedianFilter(0));
+        assertThrows(IllegalArgumentException.class, () -> new EmaFilter(0));
+    }
+}
@@ -0,0 +1,60 @@
+package Radar.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SamplePipelineTest {
+
+    // Drops anything past 300 cm, halves the rest; detects below 50 cm
+    private final SamplePipeline pipeline = new SamplePipeline(
+            (sensorId, timestamp, degree, distance) -> distance > 300 ? SampleFilter.DROP : distance / 2,
+            DetectionRule.closerThan(50));
+
+    @Test
+    void rawSinksGetReadingsAsTheyArrived() {
+        List<String> raw = new ArrayList<>();
+        List<String> filtered = new ArrayList<>();
+        pipeline.addRawSink("log", recorder(raw), 16, OverflowPolicy.BLOCK);
+        pipeline.addSink("chart", recorder(filtered), 16, OverflowPolicy.BLOCK);
+        pipeline.start();
+        pipeline.publish(0, 1, 90, 80);
+        pipeline.publish(0, 2, 90, 400);
+        pipeline.publish(0, 3, 90, 120);
+        pipeline.markGap(1, 4, 5);
+        pipeline.publish(0, 6, 90, 20);
+        pipeline.stop();
+
+        // Detection is judged on the filtered value, and is false for a dropped sample
+        assertEquals(List.of("80:true", "400:false", "120:false", "gap:1", "20:true"), raw);
+        assertEquals(List.of("40:true", "60:false", "gap:1", "10:true"), filtered);
+        assertEquals(1, pipeline.getFilteredCount());
+        assertEquals(2, pipeline.getSinks().size());
+    }
+
+    @Test
+    void sinksCannotBeAddedOnceStarted() {
+        pipeline.start();
+        assertThrows(IllegalStateException.class,
+                () -> pipeline.addRawSink("late", recorder(new ArrayList<>()), 16, OverflowPolicy.BLOCK));
+        pipeline.stop();
+    }
+
+    private static SampleSink recorder(List<String> out) {
+        return new SampleSink() {
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                out.add(distance + ":" + detected);
+            }
+
+            @Override
+            public void gap(int sensorId, long start, long end) {
+                out.add("gap:" + sensorId);
+            }
+        };
+    }
+}
@@ -0,0 +1,191 @@
+package Radar.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SinkBufferTest {
+
+    @Test
+    void blockHoldsTheSourceBackAndLosesNothing() throws InterruptedException {
+        SampleBroadcast ring = new SampleBroadcast(4, WaitStrategy.PARK);
+        Recorder sink = new Recorder();
+        SinkBuffer buffer = new SinkBuffer("log", sink, 4, OverflowPolicy.BLOCK, 0, false);
+        buffer.start(ring);
+        Thread source = new Thread(() -> {
+            for (int i = 0; i < 100; i++) {
+                publish(ring, i);
+            }
+        });
+        source.start();
+
+        sink.awaitHeld();
+        source.join(200);
+        assertTrue(source.isAlive(), "source should wait for the held sink");
+        sink.release();
+        source.join();
+        buffer.stop();
+
+        assertEquals(numbers(0, 99), sink.events);
+        assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    void dropOldestKeepsTheNewestSamples() throws InterruptedException {
+        SampleBroadcast ring = new SampleBroadcast(16, WaitStrategy.PARK);
+        Recorder sink = new Recorder();
+        SinkBuffer buffer = new SinkBuffer("chart", sink, 8, OverflowPolicy.DROP_OLDEST, 0, false);
+        buffer.start(ring);
+        publish(ring, 0);
+        sink.awaitHeld();
+        for (int i = 1; i <= 100; i++) {
+            publish(ring, i); // never waits for a lossy sink
+        }
+        sink.release();
+        sink.awaitSample(100);
+        buffer.stop();
+
+        List<String> expected = new ArrayList<>(numbers(0, 0));
+        expected.addAll(numbers(93, 100));
+        assertEquals(expected, sink.events);
+        assertEquals(92, buffer.getDroppedCount());
+    }
+
+    @Test
+    void sampleThinsABacklogButKeepsGaps() throws InterruptedException {
+        SampleBroadcast ring = new SampleBroadcast(64, WaitStrategy.PARK);
+        Recorder sink = new Recorder();
+        SinkBuffer buffer = new SinkBuffer("chart", sink, 32, OverflowPolicy.SAMPLE, 0, false);
+        buffer.start(ring);
+        publish(ring, 0);
+        sink.awaitHeld();
+        for (int i = 1; i <= 31; i++) {
+            publish(ring, i);
+            if (i == 10) {
+                ring.publish(2, 10, 11, 0, 0, 0, SampleBroadcast.GAP);
+            }
+        }
+        sink.release();
+        sink.awaitSample(28);
+        buffer.stop();
+
+        // A backlog of half the capacity or more keeps every SAMPLE_EVERY-th sample
+        assertEquals(List.of("0", "4", "8", "gap:2:10-11", "12", "16", "20", "24", "28"), sink.events);
+        assertEquals(24, buffer.getDroppedCount());
+    }
+
+    @Test
+    void gapsArriveBetweenTheSamplesAroundThem() {
+        SampleBroadcast ring = new SampleBroadcast(16, WaitStrategy.PARK);
+        Recorder sink = new Recorder();
+        sink.release();
+        SinkBuffer buffer = new SinkBuffer("log", sink, 16, OverflowPolicy.BLOCK, 0, false);
+        buffer.start(ring);
+        publish(ring, 1);
+        ring.publish(1, 1, 5, 0, 0, 0, SampleBroadcast.GAP);
+        publish(ring, 5);
+        ring.publish(0, 5, 8, 0, 0, 0, SampleBroadcast.GAP);
+        ring.publish(1, 6, 9, 0, 0, 0, SampleBroadcast.GAP);
+        publish(ring, 9);
+        buffer.stop();
+
+        assertEquals(List.of("1", "gap:1:1-5", "5", "gap:0:5-8", "gap:1:6-9", "9"), sink.events);
+    }
+
+    @Test
+    void stopDrainsABlockSinkBeforeClosingIt() throws InterruptedException {
+        SampleBroadcast ring = new SampleBroadcast(16, WaitStrategy.PARK);
+        Recorder sink = new Recorder();
+        SinkBuffer buffer = new SinkBuffer("log", sink, 16, OverflowPolicy.BLOCK, 0, false);
+        buffer.start(ring);
+        for (int i = 0; i < 10; i++) {
+            publish(ring, i);
+        }
+        sink.awaitHeld();
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(100); // stop() is already waiting by now
+            } catch (InterruptedException e) {
+                return;
+            }
+            sink.release();
+        });
+        releaser.start();
+        buffer.stop();
+        releaser.join();
+
+        assertEquals(numbers(0, 9), sink.events);
+        assertTrue(sink.closed);
+        assertEquals(0, buffer.size());
+    }
+
+    private static void publish(SampleBroadcast ring, int distance) {
+        ring.publish(0, distance, 0, 90, distance, distance, (byte) 0);
+    }
+
+    private static List<String> numbers(int from, int to) {
+        List<String> out = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            out.add(String.valueOf(i));
+        }
+        return out;
+    }
+
+    // Records what the sink thread delivers; holds it on the first sample until released
+    private static final class Recorder implements SampleSink {
+        final List<String> events = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch held = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile int lastSample = -1;
+        volatile boolean closed = false;
+
+        @Override
+        public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+            held.countDown();
+            await(released);
+            events.add(String.valueOf(distance));
+            lastSample = distance;
+        }
+
+        @Override
+        public void gap(int sensorId, long start, long end) {
+            events.add("gap:" + sensorId + ":" + start + "-" + end);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        void awaitHeld() {
+            await(held);
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        void awaitSample(int distance) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lastSample != distance) {
+                assertTrue(System.nanoTime() < deadline, "sample " + distance + " never arrived");
+                Thread.sleep(1);
+            }
+        }
+
+        private static void await(CountDownLatch latch) {
+            try {
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
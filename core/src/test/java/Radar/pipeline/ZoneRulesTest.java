@@ -0,0 +1,119 @@
+package Radar.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZoneRulesTest {
+
+    @Test
+    void parsesZonesOptionsAndComments() {
+        List<DetectionZone> zones = ZoneRules.parse(List.of(
+                "# entrance and desk",
+                "",
+                "zone door   0-45   0-80  dwell=500",
+                "  zone desk 46-180 10-50 hold=200 margin=5  "));
+        assertEquals(2, zones.size());
+        DetectionZone door = zones.get(0);
+        assertEquals("door", door.getName());
+        assertEquals(0, door.getFromDegree());
+        assertEquals(45, door.getToDegree());
+        assertEquals(80, door.getMaxDistance());
+        assertEquals(500, door.getDwellMs());
+        assertEquals(DetectionZone.DEFAULT_MARGIN, door.getMargin());
+        DetectionZone desk = zones.get(1);
+        assertEquals(10, desk.getMinDistance());
+        assertEquals(200, desk.getHoldMs());
+        assertEquals(5, desk.getMargin());
+    }
+
+    @Test
+    void errorsNameTheLine() {
+        assertError("line 2: expected", "# ok", "zones door 0-45 0-80");
+        assertError("line 1: expected", "zone door 0-45");
+        assertError("line 1: bad range 45", "zone door 45 0-80");
+        assertError("line 1: unknown option wait", "zone door 0-45 0-80 wait=5");
+        assertError("line 1: bad option dwell", "zone door 0-45 0-80 dwell");
+        assertError("line 1: For input string", "zone door 0-4x 0-80");
+        assertError("line 1: Zone door: degrees", "zone door 90-45 0-80");
+        assertError("line 1: Zone door: degrees", "zone door 0-200 0-80");
+        assertError("line 1: Zone door: empty distance band", "zone door 0-45 80-80");
+        assertError("line 1: Zone door: dwell, hold and margin", "zone door 0-45 0-80 margin=-1");
+    }
+
+    @Test
+    void laterZonesWinWhereTheyOverlap() {
+        ZoneRules rules = new ZoneRules(ZoneRules.parse(List.of(
+                "zone wide 0-180 0-50",
+                "zone narrow 80-100 0-20")), null);
+        assertEquals("wide", rules.zoneAt(79).getName());
+        assertEquals("narrow", rules.zoneAt(80).getName());
+        assertEquals("narrow", rules.zoneAt(100).getName());
+        assertNull(rules.zoneAt(-1));
+        assertNull(rules.zoneAt(181));
+    }
+
+    @Test
+    void degreesOutsideEveryZoneNeverDetect() {
+        ZoneRules rules = new ZoneRules(ZoneRules.parse(List.of("zone left 0-45 0-80")), null);
+        assertTrue(rules.isDetected(0, 0, 10, 30));
+        assertFalse(rules.isDetected(0, 1, 90, 1));
+    }
+
+    @Test
+    void dwellDelaysEntry() {
+        ZoneRules rules = new ZoneRules(ZoneRules.parse(List.of("zone door 0-45 0-80 dwell=500")), null);
+        assertFalse(rules.isDetected(0, 1000, 10, 40));
+        assertFalse(rules.isDetected(0, 1400, 10, 40));
+        assertTrue(rules.isDetected(0, 1500, 10, 40));
+    }
+
+    @Test
+    void marginKeepsTheZoneEnteredNearTheEdge() {
+        ZoneRules rules = new ZoneRules(ZoneRules.parse(List.of("zone desk 0-180 0-50 margin=10")), null);
+        assertTrue(rules.isDetected(0, 0, 90, 45));
+        assertTrue(rules.isDetected(0, 1, 90, 55)); // out of the band but within the margin
+        assertFalse(rules.isDetected(0, 2, 90, 65));
+        assertFalse(rules.isDetected(0, 3, 90, 55)); // left: must come back inside the band
+    }
+
+    @Test
+    void defaultZonesMatchTheClassicThreshold() {
+        ZoneRules rules = new ZoneRules(ZoneRules.defaultZones(ZoneRules.DEFAULT_THRESHOLD), null);
+        assertFalse(rules.isDetected(0, 0, 0, 49)); // a single echo is debounced
+        assertFalse(rules.isDetected(0, 100, 0, 49));
+        assertTrue(rules.isDetected(0, ZoneRules.DEFAULT_DWELL_MS, 0, 49));
+        assertFalse(rules.isDetected(1, 0, 180, 70));
+    }
+
+    @Test
+    void listenerHearsEntriesAndExits() {
+        StringBuilder events = new StringBuilder();
+        ZoneRules rules = new ZoneRules(ZoneRules.parse(List.of("zone desk 0-180 0-50")), new ZoneRules.Listener() {
+            @Override
+            public void onEnter(DetectionZone zone, int sensorId, long timestamp, int degree, int distance) {
+                events.append("enter ").append(zone.getName()).append(' ');
+            }
+
+            @Override
+            public void onExit(DetectionZone zone, int sensorId, long timestamp) {
+                events.append("exit ").append(zone.getName());
+            }
+        });
+        rules.isDetected(0, 0, 90, 30);
+        rules.isDetected(0, 1, 90, 35);
+        rules.isDetected(0, 2, 90, 200);
+        assertEquals("enter desk exit desk", events.toString());
+    }
+
+    private static void assertError(String prefix, String... lines) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> ZoneRules.parse(List.of(lines)));
+        assertTrue(e.getMessage().startsWith(prefix), e.getMessage());
+    }
+}
@@ -0,0 +1,106 @@
+package Radar.serial;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BinaryFrameDecoderTest {
+
+    private final List<long[]> frames = new ArrayList<>();
+    private final BinaryFrameDecoder decoder = new BinaryFrameDecoder(
+            (degree, distance, timestamp) -> frames.add(new long[] { degree, distance, timestamp }));
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        byte[] data = new byte[3 * BinaryFrameDecoder.FRAME_SIZE];
+        BinaryFrameDecoder.encode(0, 0, 0, data, 0);
+        BinaryFrameDecoder.encode(180, 400, 123_456, data, 10);
+        BinaryFrameDecoder.encode(65535, 65535, 0xFFFFFFFFL, data, 20);
+        decoder.feed(data, 0, data.length);
+
+        assertEquals(3, frames.size());
+        assertArrayEquals(new long[] { 0, 0, 0 }, frames.get(0));
+        assertArrayEquals(new long[] { 180, 400, 123_456 }, frames.get(1));
+        assertArrayEquals(new long[] { 65535, 65535, 0xFFFFFFFFL }, frames.get(2));
+        assertEquals(3, decoder.getFrameCount());
+        assertEquals(0, decoder.getMalformedCount());
+    }
+
+    @Test
+    void framesMaySpanReads() {
+        byte[] data = new byte[BinaryFrameDecoder.FRAME_SIZE];
+        BinaryFrameDecoder.encode(90, 45, 1000, data, 0);
+        for (int i = 0; i < data.length; i++) {
+            decoder.feed(data, i, 1);
+        }
+        assertEquals(1, frames.size());
+        assertArrayEquals(new long[] { 90, 45, 1000 }, frames.get(0));
+    }
+
+    @Test
+    void crcMatchesTheSketch() {
+        // CRC-8, poly 0x07, init 0: the standard check value of "123456789" is 0xF4
+        byte[] check = "123456789".getBytes();
+        assertEquals(0xF4, BinaryFrameDecoder.crc8(check, 0, check.length));
+    }
+
+    @Test
+    void corruptFrameIsDroppedAndCounted() {
+        byte[] data = new byte[2 * BinaryFrameDecoder.FRAME_SIZE];
+        BinaryFrameDecoder.encode(10, 20, 30, data, 0);
+        BinaryFrameDecoder.encode(11, 21, 31, data, 10);
+        data[3] ^= 0x01; // distance of the first frame
+        decoder.feed(data, 0, data.length);
+
+        assertEquals(1, frames.size());
+        assertArrayEquals(new long[] { 11, 21, 31 }, frames.get(0));
+        assertEquals(1, decoder.getMalformedCount());
+    }
+
+    @Test
+    void resyncsAfterALostByte() {
+        byte[] data = new byte[3 * BinaryFrameDecoder.FRAME_SIZE];
+        for (int i = 0; i < 3; i++) {
+            BinaryFrameDecoder.encode(i, 100 + i, 1000 + i, data, i * BinaryFrameDecoder.FRAME_SIZE);
+        }
+        // Drop the last byte of the first frame, so its CRC slot holds the next sync byte
+        byte[] damaged = new byte[data.length - 1];
+        System.arraycopy(data, 0, damaged, 0, 9);
+        System.arraycopy(data, 10, damaged, 9, data.length - 10);
+        decoder.feed(damaged, 0, damaged.length);
+
+        assertEquals(2, frames.size());
+        assertArrayEquals(new long[] { 1, 101, 1001 }, frames.get(0));
+        assertArrayEquals(new long[] { 2, 102, 1002 }, frames.get(1));
+    }
+
+    @Test
+    void skipsNoiseBeforeSync() {
+        byte[] data = new byte[4 + BinaryFrameDecoder.FRAME_SIZE];
+        data[0] = 'h';
+        data[1] = 'i';
+        data[2] = '\r';
+        data[3] = '\n';
+        BinaryFrameDecoder.encode(5, 6, 7, data, 4);
+        decoder.feed(data, 0, data.length);
+
+        assertEquals(1, frames.size());
+        assertEquals(4, decoder.getSkippedBytes());
+    }
+
+    @Test
+    void resetDropsAPartialFrame() {
+        byte[] data = new byte[BinaryFrameDecoder.FRAME_SIZE];
+        BinaryFrameDecoder.encode(1, 2, 3, data, 0);
+        decoder.feed(data, 0, 6);
+        decoder.reset();
+        decoder.feed(data, 0, data.length);
+
+        assertEquals(1, frames.size());
+        assertEquals(0, decoder.getMalformedCount());
+    }
+}
@@ -0,0 +1,44 @@
+package Radar.serial;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BoardClockTest {
+
+    @Test
+    void keepsBoardSpacingOnceAnchored() {
+        BoardClock clock = new BoardClock(5000);
+        assertEquals(50_000, clock.toHost(1000, 50_000));
+        // Arrival jitter on the host does not move the samples
+        assertEquals(50_060, clock.toHost(1060, 50_095));
+        assertEquals(50_120, clock.toHost(1120, 50_121));
+    }
+
+    @Test
+    void reanchorsWhenTheBoardResets() {
+        BoardClock clock = new BoardClock(5000);
+        clock.toHost(900_000, 50_000);
+        assertEquals(60_000, clock.toHost(12, 60_000)); // millis() started over
+        assertEquals(60_060, clock.toHost(72, 60_070));
+    }
+
+    @Test
+    void neverGoesBackwards() {
+        BoardClock clock = new BoardClock(5000);
+        clock.toHost(10_000, 50_000);
+        clock.toHost(20_000, 60_000);
+        clock.reset();
+        // Anchoring again at an earlier host time cannot reorder samples
+        assertEquals(60_000, clock.toHost(30_000, 55_000));
+        assertEquals(60_000, clock.toHost(31_000, 56_000));
+        assertEquals(61_000, clock.toHost(36_000, 61_000));
+    }
+
+    @Test
+    void framesWithoutTimestampUseHostTime() {
+        BoardClock clock = new BoardClock(5000);
+        assertEquals(42_000, clock.toHost(SerialFrameParser.NO_TIMESTAMP, 42_000));
+        assertEquals(42_100, clock.toHost(SerialFrameParser.NO_TIMESTAMP, 42_100));
+    }
+}
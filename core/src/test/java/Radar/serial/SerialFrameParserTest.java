@@ -0,0 +1,108 @@
+package Radar.serial;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SerialFrameParserTest {
+
+    private static final long NONE = SerialFrameParser.NO_TIMESTAMP;
+
+    private final List<long[]> frames = new ArrayList<>();
+    private final SerialFrameParser parser = new SerialFrameParser(
+            (degree, distance, timestamp) -> frames.add(new long[] { degree, distance, timestamp }));
+
+    @Test
+    void parsesTwoAndThreeFields() {
+        feed("90,45\n12,300,123456\n");
+        assertFrames(new long[] { 90, 45, NONE }, new long[] { 12, 300, 123456 });
+    }
+
+    @Test
+    void toleratesCrLfAndSpaces() {
+        feed(" 90 , 45 , 1000 \r\n");
+        assertFrames(new long[] { 90, 45, 1000 });
+    }
+
+    @Test
+    void linesMaySpanReads() {
+        byte[] line = "135,78,4242\n".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < line.length; i++) {
+            parser.feed(line, i, 1);
+        }
+        assertFrames(new long[] { 135, 78, 4242 });
+    }
+
+    @Test
+    void ignoresFieldsAfterTheTimestamp() {
+        feed("90,45,1234,YES\n90,45,1234,5,6\n");
+        assertFrames(new long[] { 90, 45, 1234 }, new long[] { 90, 45, 1234 });
+        assertEquals(0, parser.getMalformedCount());
+    }
+
+    @Test
+    void badTimestampOnlyLosesTheTimestamp() {
+        feed("90,45,YES\n90,45,\n90,45,12 34\n");
+        assertFrames(new long[] { 90, 45, NONE }, new long[] { 90, 45, NONE }, new long[] { 90, 45, NONE });
+    }
+
+    @Test
+    void rejectsBadDegreeOrDistance() {
+        feed(",45\n90\n90,x\n12,3 4\n9a,45\n,\n");
+        assertEquals(0, frames.size());
+        assertEquals(6, parser.getMalformedCount());
+    }
+
+    @Test
+    void rejectsValuesOutsideInt() {
+        feed("99999999999,45\n");
+        assertEquals(0, frames.size());
+        assertEquals(1, parser.getMalformedCount());
+    }
+
+    @Test
+    void keepsNegativeNumbers() {
+        feed("-5,-1\n");
+        assertFrames(new long[] { -5, -1, NONE });
+    }
+
+    @Test
+    void skipsBlankLinesWithoutCountingThem() {
+        feed("\n\r\n90,45\n");
+        assertFrames(new long[] { 90, 45, NONE });
+        assertEquals(0, parser.getMalformedCount());
+    }
+
+    @Test
+    void malformedLineDoesNotSpoilTheNext() {
+        feed("garbage,,\n90,45,7\n");
+        assertFrames(new long[] { 90, 45, 7 });
+        assertEquals(1, parser.getMalformedCount());
+        assertEquals(1, parser.getFrameCount());
+    }
+
+    @Test
+    void resetDropsAPartialLine() {
+        feed("12,3");
+        parser.reset();
+        feed("4,56\n");
+        assertFrames(new long[] { 4, 56, NONE });
+    }
+
+    private void feed(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        parser.feed(bytes, 0, bytes.length);
+    }
+
+    private void assertFrames(long[]... expected) {
+        assertEquals(expected.length, frames.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], frames.get(i), "frame " + i);
+        }
+    }
+}
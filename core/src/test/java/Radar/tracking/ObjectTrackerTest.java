@@ -0,0 +1,91 @@
+package Radar.tracking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjectTrackerTest {
+
+    private static final int RANGE = 400;
+    private static final long STEP_MS = 10;
+
+    private final List<List<TrackedObject>> sweeps = new ArrayList<>();
+    private final ObjectTracker tracker = new ObjectTracker(RANGE, (objects, timestamp) -> sweeps.add(objects));
+    private long now = 0;
+    private boolean forward = true;
+
+    @Test
+    void followsARecedingObjectUnderOneId() {
+        // Wide enough that each grid cell it moves into is hit more than once a sweep
+        for (int s = 0; s < 6; s++) {
+            sweep(88, 6, 100 + 10 * s);
+        }
+        sweep(0, 0, 0); // the reversal ends the last sweep with the object in it
+
+        List<TrackedObject> last = sweeps.get(5);
+        assertEquals(1, last.size());
+        TrackedObject object = last.get(0);
+        for (int s = 1; s < 6; s++) {
+            assertEquals(1, sweeps.get(s).size(), "sweep " + s);
+            assertEquals(object.getId(), sweeps.get(s).get(0).getId(), "sweep " + s);
+        }
+        assertTrue(object.getVelocityY() > 0, "moving away: " + object);
+    }
+
+    @Test
+    void dropsATrackAfterMaxMisses() {
+        sweep(90, 3, 100);
+        sweep(90, 3, 100);
+        for (int misses = 1; misses <= ObjectTracker.MAX_MISSES + 1; misses++) {
+            sweep(0, 0, 0);
+        }
+        sweep(0, 0, 0);
+
+        assertEquals(1, sweeps.get(1).size());
+        for (int misses = 1; misses <= ObjectTracker.MAX_MISSES; misses++) {
+            assertEquals(1, sweeps.get(1 + misses).size(), "still held after " + misses + " misses");
+        }
+        assertTrue(sweeps.get(2 + ObjectTracker.MAX_MISSES).isEmpty());
+        assertTrue(tracker.getObjects().isEmpty());
+    }
+
+    @Test
+    void ignoresAStrayEchoInClearedSpace() {
+        for (int s = 0; s < 4; s++) {
+            sweep(0, 0, 0); // nothing there: every beam clears the space in front
+        }
+        sweep(90, 2, 100);
+        sweep(90, 2, 100);
+        sweep(0, 0, 0);
+        assertTrue(tracker.getObjects().isEmpty());
+
+        // The same echoes in space never seen empty make a track
+        ObjectTracker fresh = new ObjectTracker(RANGE, null);
+        forward = true;
+        feed(fresh, 90, 2, 100);
+        feed(fresh, 90, 2, 100);
+        feed(fresh, 0, 0, 0);
+        assertEquals(1, fresh.getObjects().size());
+    }
+
+    // One sweep over 0-180 degrees, alternating direction, with an object of
+    // `width` hits starting at `degree`; every other beam sees nothing. A
+    // sweep is only reported once the next one starts and reverses the servo
+    private void sweep(int degree, int width, int distance) {
+        feed(tracker, degree, width, distance);
+    }
+
+    private void feed(ObjectTracker target, int degree, int width, int distance) {
+        for (int i = 0; i <= 180; i++) {
+            int d = forward ? i : 180 - i;
+            boolean echo = d >= degree && d < degree + width;
+            target.accept(now, d, echo ? distance : RANGE);
+            now += STEP_MS;
+        }
+        forward = !forward;
+    }
+}
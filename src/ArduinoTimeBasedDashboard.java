@@ -1,38 +1,54 @@
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
 import com.fazecast.jSerialComm.SerialPort;
+import Radar.core.SampleRingBuffer;
+import Radar.core.SweepBuffer;
+import Radar.core.WindowedStats;
+import Radar.ingest.SupervisedSerialSource;
+import Radar.pipeline.EdtSink;
+import Radar.pipeline.MedianFilter;
+import Radar.pipeline.OverflowPolicy;
+import Radar.pipeline.SampleSink;
+import Radar.pipeline.SensorCore;
+import Radar.pipeline.ZoneRules;
+import Radar.render.HistoryPanel;
+import Radar.render.SweepPanel;
+import Radar.serial.PortDiscovery;
+import Radar.serial.SupervisedConnection;
+import Radar.serial.WireFormat;
 
 public class ArduinoTimeBasedDashboard {
-    private static final int DETECTION_THRESHOLD = 50; // cm
+    private static final int HISTORY_SIZE = 100; // samples shown on the graph
+    private static final long STATS_WINDOW_MS = 60_000; // statistics cover the last minute
+    private static final int UI_FRAME_MS = 33; // the UI takes at most ~30 batches a second
     private static volatile boolean running = false;
     private static volatile boolean arduinoConnected = false;
     
-    private List<DataPoint> dataHistory = new ArrayList<>();
+    private final SampleRingBuffer dataHistory = new SampleRingBuffer(HISTORY_SIZE);
+    private final WindowedStats stats = new WindowedStats(STATS_WINDOW_MS);
+    private final SweepBuffer sweep = new SweepBuffer(); // latest reading per degree, for the polar view
+    private final java.text.SimpleDateFormat timeFormat = new java.text.SimpleDateFormat("HH:mm:ss");
     private JLabel timeLabel;
     private JLabel distanceLabel;
     private JLabel statusLabel;
     private JLabel countLabel;
     private JLabel connectionLabel;
-    private GraphPanel graphPanel;
+    private JLabel meanLabel;
+    private JLabel percentileLabel;
+    private JLabel rangeLabel;
+    private HistoryPanel graphPanel;
     private JFrame frame;
     private int dataCount = 0;
-    private SerialPort port;
+    // Reads, filters and judges samples while connected, reopening the port if it drops; EDT only
+    private SensorCore core;
+    private SupervisedSerialSource source;
+    private final PortDiscovery portDiscovery = new PortDiscovery(9600);
+    // Per-sector detection from the zone file, reloaded when it changes; shared by every connection
+    private final ZoneRules zoneRules = ZoneRules.loadAndWatch(new File(ZoneRules.DEFAULT_FILE), ZoneRules.CONSOLE);
+    private JComboBox<WireFormat> formatBox;
+    private volatile WireFormat wireFormat = WireFormat.TEXT;
     
-    private static class DataPoint {
-        long timestamp;
-        int distance;
-        boolean detected;
-        
-        DataPoint(long timestamp, int distance, boolean detected) {
-            this.timestamp = timestamp;
-            this.distance = distance;
-            this.detected = detected;
-        }
-    }
-
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
             ArduinoTimeBasedDashboard dashboard = new ArduinoTimeBasedDashboard();
@@ -85,6 +101,11 @@ public class ArduinoTimeBasedDashboard {
         clearButton.setForeground(Color.WHITE);
         clearButton.addActionListener(e -> clearData());
         
+        formatBox = new JComboBox<>(WireFormat.values());
+        formatBox.setFont(new Font("Arial", Font.PLAIN, 14));
+        formatBox.setToolTipText("Serial format sent by the Arduino sketch");
+        
+        controlPanel.add(formatBox);
         controlPanel.add(connectButton);
         controlPanel.add(disconnectButton);
         controlPanel.add(startButton);
@@ -92,7 +113,7 @@ public class ArduinoTimeBasedDashboard {
         controlPanel.add(clearButton);
         
         // Create info panel
-        JPanel infoPanel = new JPanel(new GridLayout(2, 3, 10, 5));
+        JPanel infoPanel = new JPanel(new GridLayout(3, 3, 10, 5));
         infoPanel.setBackground(new Color(250, 250, 250));
         infoPanel.setBorder(BorderFactory.createTitledBorder("Live Information"));
         
@@ -120,21 +141,43 @@ public class ArduinoTimeBasedDashboard {
         portLabel.setFont(new Font("Arial", Font.BOLD, 14));
         portLabel.setForeground(Color.GRAY);
         
+        meanLabel = new JLabel("Mean: -- cm");
+        meanLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        meanLabel.setForeground(new Color(70, 70, 70));
+        
+        percentileLabel = new JLabel("p50 / p95 / p99: -- cm");
+        percentileLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        percentileLabel.setForeground(new Color(70, 70, 70));
+        
+        rangeLabel = new JLabel("Min / Max: -- cm");
+        rangeLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        rangeLabel.setForeground(new Color(70, 70, 70));
+        
         infoPanel.add(connectionLabel);
         infoPanel.add(timeLabel);
         infoPanel.add(distanceLabel);
         infoPanel.add(statusLabel);
         infoPanel.add(countLabel);
         infoPanel.add(portLabel);
+        infoPanel.add(meanLabel);
+        infoPanel.add(percentileLabel);
+        infoPanel.add(rangeLabel);
         
         // Create graph panel
-        graphPanel = new GraphPanel();
+        graphPanel = new HistoryPanel("Arduino Distance Over Time", dataHistory);
         graphPanel.setBorder(BorderFactory.createTitledBorder("Distance Over Time"));
         
+        // Polar view of the sweep, next to the graph
+        SweepPanel sweepPanel = new SweepPanel(sweep);
+        sweepPanel.setBorder(BorderFactory.createTitledBorder("Sweep"));
+        JPanel displayPanel = new JPanel(new BorderLayout(10, 10));
+        displayPanel.add(graphPanel, BorderLayout.CENTER);
+        displayPanel.add(sweepPanel, BorderLayout.EAST);
+        
         // Layout
         mainPanel.add(controlPanel, BorderLayout.NORTH);
         mainPanel.add(infoPanel, BorderLayout.CENTER);
-        mainPanel.add(graphPanel, BorderLayout.SOUTH);
+        mainPanel.add(displayPanel, BorderLayout.SOUTH);
         
         frame.add(mainPanel);
         frame.setVisible(true);
@@ -146,54 +189,57 @@ public class ArduinoTimeBasedDashboard {
     
     private void connectArduino() {
         // First, close any existing connection
-        if (port != null && port.isOpen()) {
-            port.closePort();
-        }
+        stopCore();
         
-        // Try different COM ports
-        String[] ports = {"COM3", "COM4", "COM5", "COM6", "COM7", "COM8", "COM9", "COM10"};
-        
-        for (String portName : ports) {
-            try {
-                port = SerialPort.getCommPort(portName);
-                port.setBaudRate(9600);
-                port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, 1000, 0);
-                
-                if (port.openPort()) {
-                    // Test if we can actually read from the port
-                    Thread.sleep(100); // Wait a bit
-                    if (port.isOpen()) {
-                        arduinoConnected = true;
-                        connectionLabel.setText("Arduino: Connected to " + portName);
-                        connectionLabel.setForeground(new Color(34, 139, 34));
-                        statusLabel.setText("Status: Arduino Connected");
-                        statusLabel.setForeground(new Color(34, 139, 34));
-                        System.out.println("Connected to Arduino on " + portName);
-                        return;
-                    }
-                }
-            } catch (Exception e) {
-                System.out.println("Failed to connect to " + portName + ": " + e.getMessage());
-            }
-        }
+        // Format is fixed for the lifetime of this connection
+        wireFormat = (WireFormat) formatBox.getSelectedItem();
         
-        // If no port worked
-        JOptionPane.showMessageDialog(frame, 
-            "Could not connect to Arduino.\n" +
-            "Please check:\n" +
-            "1. Arduino is connected via USB\n" +
-            "2. Arduino Serial Monitor is closed\n" +
-            "3. Arduino is sending data in format: degree,distance,timestamp", 
-            "Connection Failed", 
-            JOptionPane.ERROR_MESSAGE);
-        
-        connectionLabel.setText("Arduino: Connection Failed");
-        connectionLabel.setForeground(Color.RED);
+        arduinoConnected = false;
+        connectionLabel.setText("Arduino: Searching serial ports...");
+        connectionLabel.setForeground(Color.ORANGE);
+        
+        // Probe every port in parallel off the EDT; a port counts only once it sends a valid frame
+        portDiscovery.discover(wireFormat, new PortDiscovery.Listener() {
+            @Override
+            public void onFound(SerialPort found) {
+                SwingUtilities.invokeLater(() -> {
+                    arduinoConnected = true;
+                    // Frames are read from now on and the link is reopened if it drops;
+                    // they only reach the graph while collection is running
+                    startCore(found);
+                    String portName = found.getSystemPortName();
+                    connectionLabel.setText("Arduino: Connected to " + portName + " (" + wireFormat + ")");
+                    connectionLabel.setForeground(new Color(34, 139, 34));
+                    statusLabel.setText("Status: Arduino Connected");
+                    statusLabel.setForeground(new Color(34, 139, 34));
+                    System.out.println("Connected to Arduino on " + portName);
+                });
+            }
+            
+            @Override
+            public void onNotFound(java.util.List<String> probedPorts) {
+                SwingUtilities.invokeLater(() -> {
+                    JOptionPane.showMessageDialog(frame, 
+                        "Could not connect to Arduino.\n" +
+                        "Ports checked: " + (probedPorts.isEmpty() ? "none found" : String.join(", ", probedPorts)) + "\n" +
+                        "Please check:\n" +
+                        "1. Arduino is connected via USB\n" +
+                        "2. Arduino Serial Monitor is closed\n" +
+                        "3. Arduino is sending data in format: " + (wireFormat == WireFormat.BINARY ? "binary frames" : "degree,distance,timestamp"), 
+                        "Connection Failed", 
+                        JOptionPane.ERROR_MESSAGE);
+                    
+                    connectionLabel.setText("Arduino: Connection Failed");
+                    connectionLabel.setForeground(Color.RED);
+                });
+            }
+        });
     }
     
     private void disconnectArduino() {
-        if (port != null && port.isOpen()) {
-            port.closePort();
+        running = false;
+        if (core != null) {
+            stopCore();
             arduinoConnected = false;
             connectionLabel.setText("Arduino: Disconnected");
             connectionLabel.setForeground(Color.RED);
@@ -214,7 +260,6 @@ public class ArduinoTimeBasedDashboard {
         
         if (!running) {
             running = true;
-            new Thread(this::readArduinoData).start();
             statusLabel.setText("Status: Reading Arduino Data");
             statusLabel.setForeground(new Color(34, 139, 34));
         }
@@ -226,78 +271,119 @@ public class ArduinoTimeBasedDashboard {
         statusLabel.setForeground(Color.RED);
     }
     
+    // Single echo glitches are removed before detection; samples reach the EDT in
+    // batches, at most one per UI frame, with outages as breaks in the trace
+    private void startCore(SerialPort found) {
+        source = new SupervisedSerialSource(found, portDiscovery, wireFormat, new ReconnectListener());
+        core = new SensorCore(new MedianFilter(MedianFilter.DEFAULT_WINDOW), zoneRules);
+        core.addSource(source);
+        core.addSink("ui", new EdtSink(new SampleSink() {
+            private boolean added = false;
+            
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                if (running) {
+                    sweep.update(degree, distance, timestamp, detected);
+                    addSample(timestamp, distance, detected);
+                    added = true;
+                }
+            }
+            
+            @Override
+            public void gap(int sensorId, long start, long end) {
+                dataHistory.markGap();
+                graphPanel.repaint();
+            }
+            
+            @Override
+            public void flush() {
+                if (added) {
+                    added = false;
+                    refreshDisplay();
+                }
+            }
+        }), 8192, OverflowPolicy.SAMPLE, UI_FRAME_MS);
+        core.start();
+    }
+    
+    // Closes the port and cancels any pending reconnect; no more frames arrive once this returns
+    private void stopCore() {
+        if (core != null) {
+            core.stop();
+            System.out.println("Frames received: " + source.getFrameCount() + ", malformed: " + source.getMalformedCount());
+            core = null;
+            source = null;
+        }
+    }
+    
     private void clearData() {
         dataHistory.clear();
+        stats.clear();
+        sweep.clear();
+        updateStatsLabels();
+        graphPanel.reset();
         dataCount = 0;
         countLabel.setText("Data Points: 0");
-        graphPanel.repaint();
         statusLabel.setText("Status: Data Cleared");
         statusLabel.setForeground(Color.ORANGE);
     }
     
-    private void readArduinoData() {
-        try {
-            InputStream in = port.getInputStream();
-            BufferedReader reader = new BufferedReader(new InputStreamReader(in));
-            
-            while (running && arduinoConnected) {
-                try {
-                    String line = reader.readLine();
-                    if (line != null && !line.trim().isEmpty()) {
-                        System.out.println("Received: '" + line + "'");
-                        
-                        // Parse Arduino output format: "degree,distance,timestamp"
-                        if (line.contains(",") && line.split(",").length >= 2) {
-                            String[] parts = line.split(",");
-                            if (parts.length >= 2) {
-                                int degree = Integer.parseInt(parts[0].trim());
-                                int distance = Integer.parseInt(parts[1].trim());
-                                
-                                // Create data point
-                                long timestamp = System.currentTimeMillis();
-                                boolean detected = distance < DETECTION_THRESHOLD;
-                                DataPoint point = new DataPoint(timestamp, distance, detected);
-                                
-                                // Update UI on EDT
-                                SwingUtilities.invokeLater(() -> {
-                                    updateUI(point);
-                                });
-                            }
-                        }
-                    }
-                } catch (Exception e) {
-                    // Ignore parse errors, continue reading
-                    System.out.println("Parse error: " + e.getMessage());
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error reading Arduino data: " + e.getMessage());
+    // Reports link outages on the connection label; the break in the trace comes
+    // through the core as a gap, in order with the samples
+    private class ReconnectListener implements SupervisedConnection.Listener {
+        @Override
+        public void onDisconnected(long atMillis) {
+            SwingUtilities.invokeLater(() -> {
+                connectionLabel.setText("Arduino: Connection lost, reconnecting...");
+                connectionLabel.setForeground(Color.ORANGE);
+            });
+        }
+        
+        @Override
+        public void onRetryScheduled(int attempt, long delayMs) {
+            SwingUtilities.invokeLater(() -> connectionLabel.setText(
+                    String.format("Arduino: Reconnecting (attempt %d in %.1f s)", attempt, delayMs / 1000.0)));
+        }
+        
+        @Override
+        public void onReconnected(SerialPort newPort, long gapStartMillis, long gapEndMillis) {
             SwingUtilities.invokeLater(() -> {
-                statusLabel.setText("Status: Read Error");
-                statusLabel.setForeground(Color.RED);
+                if (core == null) {
+                    return; // disconnected by the user meanwhile
+                }
+                connectionLabel.setText("Arduino: Reconnected to " + newPort.getSystemPortName()
+                        + " (down " + (gapEndMillis - gapStartMillis) / 1000 + " s)");
+                connectionLabel.setForeground(new Color(34, 139, 34));
             });
         }
     }
     
-    private void updateUI(DataPoint point) {
-        // Add to history
-        dataHistory.add(point);
+    // Called on the EDT for every sample while collection is running
+    private void addSample(long timestamp, int distance, boolean detected) {
+        // Add to history (oldest sample is overwritten once full)
+        dataHistory.append(timestamp, distance, detected);
+        stats.add(timestamp, distance, detected);
         dataCount++;
         
-        // Keep only last 100 points
-        if (dataHistory.size() > 100) {
-            dataHistory.remove(0);
+        if (detected) {
+            System.out.println("Object detected at distance " + distance + "cm");
         }
+    }
+    
+    // Called on the EDT once per batch; labels show the newest sample
+    private void refreshDisplay() {
+        int newest = dataHistory.size() - 1;
+        int distance = dataHistory.distanceAt(newest);
         
         // Update labels
-        timeLabel.setText("Time: " + new java.text.SimpleDateFormat("HH:mm:ss").format(new java.util.Date(point.timestamp)));
-        distanceLabel.setText("Distance: " + point.distance + " cm");
+        timeLabel.setText("Time: " + timeFormat.format(new java.util.Date(dataHistory.lastTimestamp())));
+        distanceLabel.setText("Distance: " + distance + " cm");
         countLabel.setText("Data Points: " + dataCount);
+        updateStatsLabels();
         
-        if (point.detected) {
+        if (dataHistory.isDetected(newest)) {
             statusLabel.setText("Status: OBJECT DETECTED!");
             statusLabel.setForeground(Color.RED);
-            System.out.println("Object detected at distance " + point.distance + "cm");
         } else {
             statusLabel.setText("Status: Reading Arduino Data");
             statusLabel.setForeground(new Color(34, 139, 34));
@@ -307,111 +393,19 @@ public class ArduinoTimeBasedDashboard {
         graphPanel.repaint();
     }
     
-    // Custom graph panel
-    private class GraphPanel extends JPanel {
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
-            int width = getWidth();
-            int height = getHeight();
-            int padding = 60;
-            int graphWidth = width - 2 * padding;
-            int graphHeight = height - 2 * padding;
-            
-            // Draw background
-            g2d.setColor(Color.WHITE);
-            g2d.fillRect(0, 0, width, height);
-            
-            // Draw grid
-            g2d.setColor(new Color(230, 230, 230));
-            g2d.setStroke(new BasicStroke(1));
-            for (int i = 0; i <= 10; i++) {
-                int x = padding + (i * graphWidth) / 10;
-                g2d.drawLine(x, padding, x, height - padding);
-                
-                int y = padding + (i * graphHeight) / 10;
-                g2d.drawLine(padding, y, width - padding, y);
-            }
-            
-            // Draw axes
-            g2d.setColor(Color.BLACK);
-            g2d.setStroke(new BasicStroke(2));
-            g2d.drawLine(padding, padding, padding, height - padding); // Y-axis
-            g2d.drawLine(padding, height - padding, width - padding, height - padding); // X-axis
-            
-            // Draw axis labels
-            g2d.setFont(new Font("Arial", Font.BOLD, 12));
-            g2d.setColor(Color.BLACK);
-            
-            // Y-axis labels (Distance)
-            for (int i = 0; i <= 8; i++) {
-                int y = padding + (i * graphHeight) / 8;
-                int distance = 400 - (i * 400) / 8;
-                g2d.drawString(distance + "cm", 5, y + 5);
-            }
-            
-            // X-axis labels (Time)
-            if (dataHistory.size() > 1) {
-                long minTime = dataHistory.get(0).timestamp;
-                long maxTime = dataHistory.get(dataHistory.size() - 1).timestamp;
-                for (int i = 0; i <= 6; i++) {
-                    int x = padding + (i * graphWidth) / 6;
-                    long time = minTime + (i * (maxTime - minTime)) / 6;
-                    String timeStr = new java.text.SimpleDateFormat("HH:mm:ss").format(new java.util.Date(time));
-                    g2d.drawString(timeStr, x - 20, height - padding + 20);
-                }
-            }
-            
-            // Draw title
-            g2d.setFont(new Font("Arial", Font.BOLD, 16));
-            g2d.setColor(new Color(70, 70, 70));
-            g2d.drawString("Arduino Distance Over Time", width/2 - 100, padding - 10);
-            
-            // Draw data
-            if (dataHistory.size() > 1) {
-                // Draw distance line
-                g2d.setColor(new Color(30, 144, 255));
-                g2d.setStroke(new BasicStroke(3));
-                
-                for (int i = 1; i < dataHistory.size(); i++) {
-                    DataPoint prev = dataHistory.get(i - 1);
-                    DataPoint curr = dataHistory.get(i);
-                    
-                    int x1 = padding + ((i - 1) * graphWidth) / Math.max(1, dataHistory.size() - 1);
-                    int y1 = padding + graphHeight - (prev.distance * graphHeight) / 400;
-                    int x2 = padding + (i * graphWidth) / Math.max(1, dataHistory.size() - 1);
-                    int y2 = padding + graphHeight - (curr.distance * graphHeight) / 400;
-                    
-                    g2d.drawLine(x1, y1, x2, y2);
-                }
-                
-                // Draw detection points
-                g2d.setColor(Color.RED);
-                g2d.setStroke(new BasicStroke(1));
-                for (int i = 0; i < dataHistory.size(); i++) {
-                    DataPoint point = dataHistory.get(i);
-                    if (point.detected) {
-                        int x = padding + (i * graphWidth) / Math.max(1, dataHistory.size() - 1);
-                        int y = padding + graphHeight - (point.distance * graphHeight) / 400;
-                        g2d.fillOval(x - 4, y - 4, 8, 8);
-                    }
-                }
-                
-                // Draw legend
-                g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-                g2d.setColor(new Color(30, 144, 255));
-                g2d.drawString("Distance Line", width - 120, padding + 20);
-                g2d.setColor(Color.RED);
-                g2d.drawString("Object Detection (<50cm)", width - 120, padding + 35);
-            }
-        }
-        
-        @Override
-        public Dimension getPreferredSize() {
-            return new Dimension(1100, 400);
+    // Window statistics are kept up to date per sample; this only formats them
+    private void updateStatsLabels() {
+        String window = "(" + stats.getWindowMs() / 1000 + " s)";
+        if (stats.count() == 0) {
+            meanLabel.setText("Mean " + window + ": -- cm");
+            percentileLabel.setText("p50 / p95 / p99: -- cm");
+            rangeLabel.setText("Min / Max: -- cm");
+            return;
         }
+        meanLabel.setText(String.format("Mean %s: %.1f ± %.1f cm", window, stats.mean(), stats.stdDev()));
+        percentileLabel.setText("p50 / p95 / p99: " + stats.percentile(0.50) + " / " + stats.percentile(0.95)
+                + " / " + stats.percentile(0.99) + " cm");
+        rangeLabel.setText(String.format("Min / Max: %d / %d cm | Detected: %.0f%%",
+                stats.min(), stats.max(), stats.detectionRate() * 100));
     }
 }
@@ -0,0 +1,168 @@
+package Radar.core;
+
+/**
+ * Growable column store for recorded samples: degree, distance, timestamp and
+ * detection flag kept in parallel primitive arrays. Used for whole-file data
+ * sets (CSV logs, recordings, demo sweeps) where the ring buffer's fixed
+ * window does not apply. Rows keep the detection judged when they were
+ * captured; only rows added without one are judged against
+ * {@code detectionThreshold}.
+ *
+ * Not thread-safe. Loaders fill chunk-local instances on their own thread and
+ * hand them to the owner, which merges them with {@link #addAll}.
+ */
+public class SampleColumns implements SampleView {
+
+    private final int detectionThreshold;
+
+    private short[] degrees;
+    private short[] distances;
+    private long[] timestamps;
+    private boolean[] detections;
+    private int size = 0;
+    private int minDegree = Integer.MAX_VALUE;
+    private int maxDegree = Integer.MIN_VALUE;
+
+    // Rows that follow a gap in the data, ascending; usually few or none
+    private int[] gapRows = new int[0];
+    private int gapCount = 0;
+    private boolean gapPending = false;
+
+    public SampleColumns(int initialCapacity, int detectionThreshold) {
+        int capacity = Math.max(16, initialCapacity);
+        this.degrees = new short[capacity];
+        this.distances = new short[capacity];
+        this.timestamps = new long[capacity];
+        this.detections = new boolean[capacity];
+        this.detectionThreshold = detectionThreshold;
+    }
+
+    /** Adds a row with no recorded detection; it is judged by the threshold. */
+    public void add(int degree, int distance, long timestamp) {
+        add(degree, distance, timestamp, distance < detectionThreshold);
+    }
+
+    public void add(int degree, int distance, long timestamp, boolean detected) {
+        if (size == degrees.length) {
+            grow(size + 1);
+        }
+        if (gapPending) {
+            addGapRow(size);
+        }
+        degrees[size] = (short) degree;
+        distances[size] = (short) distance;
+        timestamps[size] = timestamp;
+        detections[size] = detected;
+        size++;
+        if (degree < minDegree) {
+            minDegree = degree;
+        }
+        if (degree > maxDegree) {
+            maxDegree = degree;
+        }
+    }
+
+    /** Appends all rows of {@code other}, keeping their order and gaps. */
+    public void addAll(SampleColumns other) {
+        if (other.size == 0) {
+            return;
+        }
+        if (size + other.size > degrees.length) {
+            grow(size + other.size);
+        }
+        if (gapPending && (other.gapCount == 0 || other.gapRows[0] != 0)) {
+            addGapRow(size);
+        }
+        for (int i = 0; i < other.gapCount; i++) {
+            addGapRow(size + other.gapRows[i]);
+        }
+        gapPending = other.gapPending;
+        System.arraycopy(other.degrees, 0, degrees, size, other.size);
+        System.arraycopy(other.distances, 0, distances, size, other.size);
+        System.arraycopy(other.timestamps, 0, timestamps, size, other.size);
+        System.arraycopy(other.detections, 0, detections, size, other.size);
+        size += other.size;
+        minDegree = Math.min(minDegree, other.minDegree);
+        maxDegree = Math.max(maxDegree, other.maxDegree);
+    }
+
+    /** Marks the next added row as following a gap in the data. */
+    public void markGap() {
+        gapPending = true;
+    }
+
+    public void clear() {
+        size = 0;
+        minDegree = Integer.MAX_VALUE;
+        maxDegree = Integer.MIN_VALUE;
+        gapCount = 0;
+        gapPending = false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long totalAppended() {
+        return size;
+    }
+
+    public int degreeAt(int index) {
+        return degrees[index];
+    }
+
+    @Override
+    public int distanceAt(int index) {
+        return distances[index];
+    }
+
+    public long timestampAt(int index) {
+        return timestamps[index];
+    }
+
+    @Override
+    public boolean isDetected(int index) {
+        return detections[index];
+    }
+
+    @Override
+    public boolean isGapBefore(int index) {
+        return index > 0 && java.util.Arrays.binarySearch(gapRows, 0, gapCount, index) >= 0;
+    }
+
+    public int getDetectionThreshold() {
+        return detectionThreshold;
+    }
+
+    /** Smallest degree seen, or {@code Integer.MAX_VALUE} when empty. */
+    public int minDegree() {
+        return minDegree;
+    }
+
+    /** Largest degree seen, or {@code Integer.MIN_VALUE} when empty. */
+    public int maxDegree() {
+        return maxDegree;
+    }
+
+    private void addGapRow(int row) {
+        gapPending = false;
+        if (gapCount == gapRows.length) {
+            gapRows = java.util.Arrays.copyOf(gapRows, Math.max(8, gapCount * 2));
+        }
+        gapRows[gapCount++] = row;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, degrees.length + (degrees.length >> 1));
+        degrees = java.util.Arrays.copyOf(degrees, capacity);
+        distances = java.util.Arrays.copyOf(distances, capacity);
+        timestamps = java.util.Arrays.copyOf(timestamps, capacity);
+        detections = java.util.Arrays.copyOf(detections, capacity);
+    }
+}
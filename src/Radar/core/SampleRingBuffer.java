@@ -0,0 +1,146 @@
+package Radar.core;
+
+/**
+ * Fixed-capacity history of radar samples stored in parallel primitive arrays.
+ * Appending overwrites the oldest sample once the buffer is full, so the cost
+ * of every append is O(1) and nothing is allocated after construction.
+ *
+ * Index 0 is always the oldest retained sample and {@code size() - 1} the newest.
+ * The buffer is not thread-safe; the dashboards only touch it from the EDT.
+ */
+public class SampleRingBuffer implements SampleView {
+
+    /** Receives samples from {@link #forEach(Visitor)} without boxing. */
+    public interface Visitor {
+        void visit(int index, long timestamp, int distance, boolean detected);
+    }
+
+    private final long[] timestamps;
+    private final short[] distances;
+    private final long[] detections; // one bit per slot
+    private final long[] gaps;       // one bit per slot: data is missing before this sample
+    private final int capacity;
+
+    private int head = 0;   // slot that the next append writes to
+    private int size = 0;
+    private long totalAppended = 0;
+    private boolean gapPending = false;
+
+    public SampleRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.distances = new short[capacity];
+        this.detections = new long[(capacity + 63) >>> 6];
+        this.gaps = new long[(capacity + 63) >>> 6];
+    }
+
+    public void append(long timestamp, int distance, boolean detected) {
+        int slot = head;
+        timestamps[slot] = timestamp;
+        distances[slot] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, distance));
+        if (detected) {
+            detections[slot >>> 6] |= 1L << slot;
+        } else {
+            detections[slot >>> 6] &= ~(1L << slot);
+        }
+        if (gapPending) {
+            gaps[slot >>> 6] |= 1L << slot;
+            gapPending = false;
+        } else {
+            gaps[slot >>> 6] &= ~(1L << slot);
+        }
+
+        head = (slot + 1 == capacity) ? 0 : slot + 1;
+        if (size < capacity) {
+            size++;
+        }
+        totalAppended++;
+    }
+
+    /** Marks the next appended sample as following a gap (e.g. a lost sensor link). */
+    public void markGap() {
+        if (size > 0) {
+            gapPending = true;
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        totalAppended = 0;
+        gapPending = false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Number of samples appended since construction or the last {@link #clear()}. */
+    @Override
+    public long totalAppended() {
+        return totalAppended;
+    }
+
+    public long timestampAt(int index) {
+        return timestamps[slot(index)];
+    }
+
+    @Override
+    public int distanceAt(int index) {
+        return distances[slot(index)];
+    }
+
+    @Override
+    public boolean isDetected(int index) {
+        int slot = slot(index);
+        return (detections[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    @Override
+    public boolean isGapBefore(int index) {
+        int slot = slot(index);
+        return index > 0 && (gaps[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public long firstTimestamp() {
+        return timestampAt(0);
+    }
+
+    public long lastTimestamp() {
+        return timestampAt(size - 1);
+    }
+
+    /** Visits samples oldest to newest. */
+    public void forEach(Visitor visitor) {
+        int start = head - size;
+        if (start < 0) {
+            start += capacity;
+        }
+        int slot = start;
+        for (int i = 0; i < size; i++) {
+            boolean detected = (detections[slot >>> 6] & (1L << slot)) != 0;
+            visitor.visit(i, timestamps[slot], distances[slot], detected);
+            slot = (slot + 1 == capacity) ? 0 : slot + 1;
+        }
+    }
+
+    private int slot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int slot = head - size + index;
+        return slot < 0 ? slot + capacity : slot;
+    }
+}
@@ -0,0 +1,30 @@
+package Radar.core;
+
+/**
+ * Read-only, index-based view of a distance history, oldest sample first.
+ * Lets renderers and analysis code walk samples without boxing.
+ */
+public interface SampleView {
+
+    int size();
+
+    long timestampAt(int index);
+
+    int distanceAt(int index);
+
+    boolean isDetected(int index);
+
+    /**
+     * Whether data is missing between sample {@code index - 1} and this one,
+     * e.g. because the sensor link was down. Views without gaps keep the default.
+     */
+    default boolean isGapBefore(int index) {
+        return false;
+    }
+
+    /**
+     * Samples appended since the view was created or last cleared. Renderers
+     * compare this with {@link #size()} to tell appends apart from reloads.
+     */
+    long totalAppended();
+}
@@ -0,0 +1,78 @@
+package Radar.core;
+
+/**
+ * Persistence buffer for a sweeping sensor: one slot per degree (0-180)
+ * holding the latest distance at that angle, when it was measured and whether
+ * it was a detection.
+ *
+ * The reader thread calls {@link #update}, which is O(1) and marks the degree
+ * dirty; the renderer copies only the dirty slots with {@link #copyChanges}.
+ * Both are synchronized, which costs next to nothing at sensor rates and keeps
+ * each slot's fields consistent.
+ */
+public class SweepBuffer {
+
+    public static final int DEGREES = 181;
+
+    private final int[] distances = new int[DEGREES];
+    private final long[] timestamps = new long[DEGREES]; // 0 = never measured
+    private final boolean[] detections = new boolean[DEGREES];
+    private final boolean[] dirty = new boolean[DEGREES];
+    private boolean anyDirty = false;
+    private int lastDegree = -1;
+
+    /** Stores a reading; degrees outside 0-180 are ignored. */
+    public synchronized void update(int degree, int distance, long timestamp, boolean detected) {
+        if (degree < 0 || degree >= DEGREES) {
+            return;
+        }
+        distances[degree] = distance;
+        timestamps[degree] = timestamp;
+        detections[degree] = detected;
+        dirty[degree] = true;
+        anyDirty = true;
+        lastDegree = degree;
+    }
+
+    public synchronized void clear() {
+        for (int d = 0; d < DEGREES; d++) {
+            timestamps[d] = 0;
+            dirty[d] = true;
+        }
+        anyDirty = true;
+        lastDegree = -1;
+    }
+
+    /** True if something changed since the last {@link #copyChanges}. */
+    public synchronized boolean hasChanges() {
+        return anyDirty;
+    }
+
+    /** Degree of the newest reading, or -1 if there is none. */
+    public synchronized int getLastDegree() {
+        return lastDegree;
+    }
+
+    /**
+     * Copies the slots changed since the last call into the given arrays (each
+     * of length {@link #DEGREES}), sets {@code changed} for them and clears the
+     * dirty marks. Returns false without touching the arrays if nothing changed.
+     */
+    public synchronized boolean copyChanges(int[] outDistances, long[] outTimestamps,
+                                            boolean[] outDetections, boolean[] changed) {
+        if (!anyDirty) {
+            return false;
+        }
+        for (int d = 0; d < DEGREES; d++) {
+            if (dirty[d]) {
+                outDistances[d] = distances[d];
+                outTimestamps[d] = timestamps[d];
+                outDetections[d] = detections[d];
+                changed[d] = true;
+                dirty[d] = false;
+            }
+        }
+        anyDirty = false;
+        return true;
+    }
+}
@@ -0,0 +1,207 @@
+package Radar.core;
+
+import java.util.Arrays;
+
+/**
+ * Running statistics over the samples of the last {@code windowMs}: count,
+ * mean and variance, min and max, percentiles and the detection rate.
+ *
+ * Every statistic is maintained incrementally as samples enter and leave the
+ * window, so {@link #add} is O(1) amortized and nothing rescans the history:
+ * <ul>
+ * <li>mean and variance with Welford's update, run in reverse for samples
+ *     leaving the window;</li>
+ * <li>min and max from monotonic deques of sample sequence numbers;</li>
+ * <li>percentiles from a fixed 1 cm histogram up to {@link #MAX_BIN} cm, which
+ *     is exact for the sensor's integer readings and costs one pass over the
+ *     bins per query (once per frame, not per sample);</li>
+ * <li>the detection rate from a running count.</li>
+ * </ul>
+ * Samples must arrive in timestamp order. Not thread-safe; the dashboards use
+ * it on the EDT next to their history buffer.
+ */
+public class WindowedStats {
+
+    public static final int MAX_BIN = 1023; // cm; larger readings count as this
+
+    private final long windowMs;
+
+    // Samples in the window, a growable ring indexed by sequence number
+    private long[] timestamps = new long[256];
+    private int[] distances = new int[256];
+    private boolean[] detections = new boolean[256];
+    private long first = 0; // sequence number of the oldest sample in the window
+    private long next = 0;  // sequence number of the next sample
+
+    // Monotonic deques of sequence numbers: values increase from head (min) / decrease (max)
+    private long[] minDeque = new long[256];
+    private long[] maxDeque = new long[256];
+    private long minHead, minTail, maxHead, maxTail;
+
+    private final int[] histogram = new int[MAX_BIN + 1];
+    private double mean = 0;
+    private double m2 = 0; // sum of squared deviations from the mean
+    private int detectedCount = 0;
+
+    public WindowedStats(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    public void add(long timestamp, int distance, boolean detected) {
+        expire(timestamp);
+        if (next - first == timestamps.length) {
+            grow();
+        }
+        int mask = timestamps.length - 1;
+        int slot = (int) next & mask;
+        timestamps[slot] = timestamp;
+        distances[slot] = distance;
+        detections[slot] = detected;
+
+        while (minTail > minHead && distanceOf(minDeque[(int) (minTail - 1) & mask]) >= distance) {
+            minTail--;
+        }
+        minDeque[(int) minTail++ & mask] = next;
+        while (maxTail > maxHead && distanceOf(maxDeque[(int) (maxTail - 1) & mask]) <= distance) {
+            maxTail--;
+        }
+        maxDeque[(int) maxTail++ & mask] = next;
+        next++;
+
+        int n = count();
+        double delta = distance - mean;
+        mean += delta / n;
+        m2 += delta * (distance - mean);
+        histogram[Math.min(Math.max(distance, 0), MAX_BIN)]++;
+        if (detected) {
+            detectedCount++;
+        }
+    }
+
+    /** Drops samples that are older than the window at {@code now}. */
+    public void expire(long now) {
+        int mask = timestamps.length - 1;
+        while (first < next && now - timestamps[(int) first & mask] > windowMs) {
+            int slot = (int) first & mask;
+            int distance = distances[slot];
+            int n = count() - 1;
+            if (n == 0) {
+                mean = 0;
+                m2 = 0;
+            } else {
+                double oldMean = mean;
+                mean = (oldMean * (n + 1) - distance) / n;
+                m2 = Math.max(0, m2 - (distance - oldMean) * (distance - mean));
+            }
+            histogram[Math.min(Math.max(distance, 0), MAX_BIN)]--;
+            if (detections[slot]) {
+                detectedCount--;
+            }
+            if (minHead < minTail && minDeque[(int) minHead & mask] == first) {
+                minHead++;
+            }
+            if (maxHead < maxTail && maxDeque[(int) maxHead & mask] == first) {
+                maxHead++;
+            }
+            first++;
+        }
+    }
+
+    public void clear() {
+        first = next;
+        minHead = minTail;
+        maxHead = maxTail;
+        Arrays.fill(histogram, 0);
+        mean = 0;
+        m2 = 0;
+        detectedCount = 0;
+    }
+
+    public int count() {
+        return (int) (next - first);
+    }
+
+    public double mean() {
+        return mean;
+    }
+
+    /** Sample variance; 0 with fewer than two samples. */
+    public double variance() {
+        int n = count();
+        return n > 1 ? m2 / (n - 1) : 0;
+    }
+
+    public double stdDev() {
+        return Math.sqrt(variance());
+    }
+
+    /** Smallest distance in the window, or -1 if it is empty. */
+    public int min() {
+        return minHead < minTail ? distanceOf(minDeque[(int) minHead & (timestamps.length - 1)]) : -1;
+    }
+
+    /** Largest distance in the window, or -1 if it is empty. */
+    public int max() {
+        return maxHead < maxTail ? distanceOf(maxDeque[(int) maxHead & (timestamps.length - 1)]) : -1;
+    }
+
+    /** Distance at or below which {@code fraction} (0..1) of the window lies, or -1 if it is empty. */
+    public int percentile(double fraction) {
+        int n = count();
+        if (n == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+        for (int bin = 0; bin <= MAX_BIN; bin++) {
+            seen += histogram[bin];
+            if (seen >= rank) {
+                return bin;
+            }
+        }
+        return MAX_BIN;
+    }
+
+    /** Fraction of the window's samples that were detections, 0..1. */
+    public double detectionRate() {
+        int n = count();
+        return n > 0 ? (double) detectedCount / n : 0;
+    }
+
+    private int distanceOf(long sequence) {
+        return distances[(int) sequence & (timestamps.length - 1)];
+    }
+
+    // Doubles the ring and the deques, keeping every slot at sequence & (capacity - 1)
+    private void grow() {
+        int oldCapacity = timestamps.length;
+        int capacity = oldCapacity * 2;
+        long[] newTimestamps = new long[capacity];
+        int[] newDistances = new int[capacity];
+        boolean[] newDetections = new boolean[capacity];
+        for (long s = first; s < next; s++) {
+            int from = (int) s & (oldCapacity - 1);
+            int to = (int) s & (capacity - 1);
+            newTimestamps[to] = timestamps[from];
+            newDistances[to] = distances[from];
+            newDetections[to] = detections[from];
+        }
+        timestamps = newTimestamps;
+        distances = newDistances;
+        detections = newDetections;
+        minDeque = regrow(minDeque, minHead, minTail, capacity);
+        maxDeque = regrow(maxDeque, maxHead, maxTail, capacity);
+    }
+
+    private static long[] regrow(long[] deque, long head, long tail, int capacity) {
+        long[] grown = new long[capacity];
+        for (long i = head; i < tail; i++) {
+            grown[(int) i & (capacity - 1)] = deque[(int) i & (deque.length - 1)];
+        }
+        return grown;
+    }
+}
@@ -1,28 +1,38 @@
 package Radar.dashboard;
 
+import Radar.ingest.SensorSource;
+import Radar.ingest.SimulatedSensorSource;
+import Radar.pipeline.EdtSink;
+import Radar.pipeline.OverflowPolicy;
+import Radar.pipeline.SampleFilter;
+import Radar.pipeline.SampleSink;
+import Radar.pipeline.SensorCore;
+import Radar.pipeline.ZoneRules;
+import Radar.render.RingXYDataset;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
-import org.jfree.data.category.DefaultCategoryDataset;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Random;
 
 public class BasicRadarDashboard {
-    private static final int DETECTION_THRESHOLD = 50; // cm
-    private static final Random random = new Random();
-    private static volatile boolean running = true;
+    private static final int SENSOR_DEGREE = 90; // the simulated sensor looks straight ahead
+    private static final int CHART_FRAME_MS = 33; // chart updates at most ~30 times a second
+    private static final int WINDOW_SAMPLES = 3000; // the chart shows the last 10 minutes at 5 samples/s
+    private static final int DISTANCE = 0;
+    private static final int DETECTED = 1;
 
     public static void main(String[] args) {
         System.out.println("Starting Basic Radar Dashboard...");
         System.out.println("This version uses minimal JFreeChart functionality.");
         
-        // Create simple category dataset for plotting
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        // Fixed-size rings of primitive points: O(1) appends, no per-sample key objects,
+        // and the oldest samples scroll out once the window is full
+        RingXYDataset dataset = new RingXYDataset(WINDOW_SAMPLES, "Distance", "Detected Objects");
 
         // Create chart
-        JFreeChart chart = ChartFactory.createLineChart(
+        JFreeChart chart = ChartFactory.createXYLineChart(
                 "Basic Ultrasonic Sensor Dashboard",
                 "Time (samples)",
                 "Distance (cm)",
@@ -35,67 +45,58 @@ public class BasicRadarDashboard {
         frame.setSize(1000, 700);
         frame.setLocationRelativeTo(null);
         
-        // Add chart panel
+        // Add chart panel; once the window holds more than two samples per pixel
+        // column the chart is fed a min/max decimated subset
         ChartPanel chartPanel = new ChartPanel(chart);
         chartPanel.setPreferredSize(new Dimension(950, 600));
+        dataset.fitToWidthOf(chartPanel);
         frame.add(chartPanel);
         
         // Add info panel
         JPanel infoPanel = new JPanel();
         infoPanel.setLayout(new FlowLayout());
-        JLabel infoLabel = new JLabel("Basic Chart - Minimal JFreeChart | Detection Threshold: " + DETECTION_THRESHOLD + " cm");
+        JLabel infoLabel = new JLabel("Basic Chart - Minimal JFreeChart | Detection zones: " + ZoneRules.DEFAULT_FILE);
         infoLabel.setForeground(Color.BLUE);
         infoPanel.add(infoLabel);
         frame.add(infoPanel, BorderLayout.SOUTH);
         
         frame.setVisible(true);
 
-        // Generate simulated data in background
-        new Thread(() -> {
-            int sampleCount = 0;
-            int baseDistance = 100;
-            
-            while (running) {
-                try {
-                    // Simulate realistic distance changes
-                    int change = random.nextInt(20) - 10; // -10 to +10
-                    baseDistance += change;
-                    
-                    // Keep distance in reasonable range
-                    if (baseDistance > 300) baseDistance = 300;
-                    if (baseDistance < 20) baseDistance = 20;
-                    
-                    // Add some random variation
-                    int distance = baseDistance + random.nextInt(15) - 7;
-                    if (distance < 2) distance = 2;
-                    if (distance > 400) distance = 400;
+        // Simulated sensor through the shared core; detection follows the zone file and picks up edits while running
+        SensorCore core = new SensorCore(SampleFilter.PASS_THROUGH,
+                ZoneRules.loadAndWatch(new java.io.File(ZoneRules.DEFAULT_FILE), ZoneRules.CONSOLE));
+        core.addSource(new SimulatedSensorSource("sim", SensorSource.SIMULATED_PERIOD_MS, SENSOR_DEGREE, System.nanoTime()));
 
-                    // Add distance data to chart
-                    dataset.addValue(distance, "Distance", String.valueOf(sampleCount));
+        // The dataset is only touched on the EDT, with one change event per batch; x is the sample index
+        core.addSink("chart", new EdtSink(new SampleSink() {
+            private int chartCount = 0;
 
-                    // Mark detections
-                    if (distance < DETECTION_THRESHOLD) {
-                        dataset.addValue(distance, "Detected Objects", String.valueOf(sampleCount));
-                        System.out.println("Object detected at distance " + distance + "cm");
-                    }
-
-                    sampleCount++;
-                    
-                    // Update every 200ms
-                    Thread.sleep(200);
-                    
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    System.err.println("Error in data generation: " + e.getMessage());
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                dataset.append(DISTANCE, chartCount, distance);
+                if (detected) {
+                    dataset.append(DETECTED, chartCount, distance);
                 }
+                chartCount++;
+            }
+
+            @Override
+            public void flush() {
+                // Detections are sparse, so their ring would otherwise keep points the distance ring scrolled out
+                dataset.evictBefore(chartCount - WINDOW_SAMPLES);
+                dataset.publishChanges();
+            }
+        }), 1024, OverflowPolicy.SAMPLE, CHART_FRAME_MS);
+        core.addSink("console", (sensorId, timestamp, degree, distance, detected) -> {
+            if (detected) {
+                System.out.println("Object detected at distance " + distance + "cm");
             }
-        }).start();
+        }, 1024, OverflowPolicy.DROP_OLDEST);
+        core.start();
 
         // Add shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            running = false;
+            core.stop();
             System.out.println("Shutting down Basic Radar Dashboard...");
         }));
         
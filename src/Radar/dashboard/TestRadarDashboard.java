@@ -1,5 +1,13 @@
 package Radar.dashboard;
 
+import Radar.ingest.SimulatedSensorSource;
+import Radar.pipeline.EdtSink;
+import Radar.pipeline.OverflowPolicy;
+import Radar.pipeline.SampleFilter;
+import Radar.pipeline.SampleSink;
+import Radar.pipeline.SensorCore;
+import Radar.pipeline.ZoneRules;
+import Radar.render.SeriesBatch;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -9,12 +17,14 @@ import org.jfree.data.time.TimeSeriesCollection;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Random;
+import java.util.Date;
 
 public class TestRadarDashboard {
-    private static final int DETECTION_THRESHOLD = 50; // cm
-    private static final Random random = new Random();
-    private static volatile boolean running = true;
+    private static final int SENSOR_DEGREE = 90; // the simulated sensor looks straight ahead
+    private static final long SAMPLE_PERIOD_MS = 100;
+    private static final int CHART_FRAME_MS = 33; // chart updates at most ~30 times a second
+    private static final long WINDOW_MS = 10 * 60 * 1000; // the chart shows the last 10 minutes
+    private static final int MAX_ITEMS = 20000; // hard cap in case the sample rate goes up
 
     public static void main(String[] args) {
         System.out.println("Starting Test Radar Dashboard...");
@@ -24,6 +34,13 @@ public class TestRadarDashboard {
         // Create time series for plotting
         TimeSeries distanceSeries = new TimeSeries("Distance (cm)");
         TimeSeries detectionSeries = new TimeSeries("Detected Objects");
+        
+        // Sliding window: older points are evicted as new ones arrive, so memory and
+        // redraw cost stay flat however long the dashboard runs
+        for (TimeSeries series : new TimeSeries[] {distanceSeries, detectionSeries}) {
+            series.setMaximumItemAge(WINDOW_MS); // in Millisecond periods
+            series.setMaximumItemCount(MAX_ITEMS);
+        }
 
         TimeSeriesCollection dataset = new TimeSeriesCollection();
         dataset.addSeries(distanceSeries);
@@ -54,62 +71,46 @@ public class TestRadarDashboard {
         // Add info panel
         JPanel infoPanel = new JPanel();
         infoPanel.setLayout(new FlowLayout());
-        JLabel infoLabel = new JLabel("Simulated Data - No Arduino Required | Detection Threshold: " + DETECTION_THRESHOLD + " cm");
+        JLabel infoLabel = new JLabel("Simulated Data - No Arduino Required | Detection zones: " + ZoneRules.DEFAULT_FILE);
         infoLabel.setForeground(Color.BLUE);
         infoPanel.add(infoLabel);
         frame.add(infoPanel, BorderLayout.SOUTH);
         
         frame.setVisible(true);
 
-        // Generate simulated data in background
-        new Thread(() -> {
-            int baseDistance = 100;
-            int direction = 1;
-            
-            while (running) {
-                try {
-                    // Simulate realistic distance changes
-                    int change = random.nextInt(20) - 10; // -10 to +10
-                    baseDistance += change;
-                    
-                    // Keep distance in reasonable range
-                    if (baseDistance > 300) {
-                        baseDistance = 300;
-                        direction = -1;
-                    } else if (baseDistance < 20) {
-                        baseDistance = 20;
-                        direction = 1;
-                    }
-                    
-                    // Add some random variation
-                    int distance = baseDistance + random.nextInt(15) - 7;
-                    if (distance < 2) distance = 2;
-                    if (distance > 400) distance = 400;
-
-                    // Add distance data to chart
-                    distanceSeries.addOrUpdate(new Millisecond(), distance);
-
-                    // Mark detections
-                    if (distance < DETECTION_THRESHOLD) {
-                        detectionSeries.addOrUpdate(new Millisecond(), distance);
-                        System.out.println("Object detected at distance " + distance + "cm");
-                    }
+        // Simulated sensor through the shared core; detection follows the zone file and picks up edits while running
+        SensorCore core = new SensorCore(SampleFilter.PASS_THROUGH,
+                ZoneRules.loadAndWatch(new java.io.File(ZoneRules.DEFAULT_FILE), ZoneRules.CONSOLE));
+        core.addSource(new SimulatedSensorSource("sim", SAMPLE_PERIOD_MS, SENSOR_DEGREE, System.nanoTime()));
 
-                    // Update every 100ms
-                    Thread.sleep(100);
-                    
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    System.err.println("Error in data generation: " + e.getMessage());
+        // Series are only touched on the EDT, with one change event per series per batch
+        SeriesBatch chartBatch = new SeriesBatch(distanceSeries, detectionSeries);
+        core.addSink("chart", new EdtSink(new SampleSink() {
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                chartBatch.begin();
+                Millisecond time = new Millisecond(new Date(timestamp));
+                distanceSeries.addOrUpdate(time, distance);
+                if (detected) {
+                    detectionSeries.addOrUpdate(time, distance);
                 }
             }
-        }).start();
+
+            @Override
+            public void flush() {
+                chartBatch.end();
+            }
+        }), 1024, OverflowPolicy.SAMPLE, CHART_FRAME_MS);
+        core.addSink("console", (sensorId, timestamp, degree, distance, detected) -> {
+            if (detected) {
+                System.out.println("Object detected at distance " + distance + "cm");
+            }
+        }, 1024, OverflowPolicy.DROP_OLDEST);
+        core.start();
 
         // Add shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            running = false;
+            core.stop();
             System.out.println("Shutting down Test Radar Dashboard...");
         }));
         
@@ -0,0 +1,312 @@
+package Radar.ingest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs any number of {@link SensorSource}s at once and merges their readings
+ * into a single time-ordered stream.
+ *
+ * Every source runs on its own virtual thread, so dozens of sensors cost a few
+ * carrier threads rather than one OS thread each. Readings are stamped with the
+ * host clock when they are emitted, unless the source supplies a host time of
+ * its own, and tagged with the sensor id returned by {@link #addSensor}. They wait in a
+ * bounded min-heap for {@code reorderWindowMs}, long enough for slower sources
+ * to catch up, and a merger thread then hands them to the listener oldest
+ * first. When the heap is full further readings are dropped and counted.
+ *
+ * Outages a source reports through {@link SensorSource.Emitter#gap} travel
+ * through the same heap, keyed by the time the link came back, so the listener
+ * sees each one in order with the readings around it.
+ *
+ * The listener is only ever called from the merger thread.
+ */
+public class MultiSensorEngine {
+
+    public interface SampleListener {
+        void onSample(int sensorId, long timestamp, int degree, int distance);
+
+        /** Sensor {@code sensorId} delivered nothing between {@code start} and {@code end}. */
+        default void onGap(int sensorId, long start, long end) {
+        }
+    }
+
+    public static final long DEFAULT_REORDER_WINDOW_MS = 50;
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    private static final int DELIVERY_BATCH = 1024;
+    private static final int GAP = Integer.MIN_VALUE; // degree of a heap entry that is an outage
+
+    private final SampleListener listener;
+    private final long reorderWindowMs;
+    private final List<SensorSource> sources = new ArrayList<>();
+    private final List<Thread> sensorThreads = new ArrayList<>();
+    private Thread merger;
+    private volatile boolean running = false;
+
+    // Min-heap on (timestamp, sequence), guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] heapTimestamps;
+    private final long[] heapSequence;
+    private final int[] heapSensors;
+    private final int[] heapDegrees;
+    private final int[] heapDistances;
+    private final long[] heapGapStarts;
+    private int heapSize = 0;
+    private long sequence = 0;
+    private long droppedCount = 0;
+    private long delivered = Long.MIN_VALUE; // newest timestamp handed to the listener
+
+    // Merger thread only
+    private final long[] outTimestamps = new long[DELIVERY_BATCH];
+    private final int[] outSensors = new int[DELIVERY_BATCH];
+    private final int[] outDegrees = new int[DELIVERY_BATCH];
+    private final int[] outDistances = new int[DELIVERY_BATCH];
+    private final long[] outGapStarts = new long[DELIVERY_BATCH];
+
+    public MultiSensorEngine(SampleListener listener) {
+        this(listener, DEFAULT_REORDER_WINDOW_MS, DEFAULT_CAPACITY);
+    }
+
+    public MultiSensorEngine(SampleListener listener, long reorderWindowMs, int capacity) {
+        this.listener = listener;
+        this.reorderWindowMs = reorderWindowMs;
+        this.heapTimestamps = new long[capacity];
+        this.heapSequence = new long[capacity];
+        this.heapSensors = new int[capacity];
+        this.heapDegrees = new int[capacity];
+        this.heapDistances = new int[capacity];
+        this.heapGapStarts = new long[capacity];
+    }
+
+    /** Registers a source and returns its sensor id; starts it at once if the engine is running. */
+    public synchronized int addSensor(SensorSource source) {
+        int id = sources.size();
+        sources.add(source);
+        if (running) {
+            startSensor(id);
+        }
+        return id;
+    }
+
+    public synchronized int getSensorCount() {
+        return sources.size();
+    }
+
+    public synchronized String getSensorName(int sensorId) {
+        return sources.get(sensorId).getName();
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        merger = Thread.ofVirtual().name("sensor-merger").start(this::mergeLoop);
+        for (int id = 0; id < sources.size(); id++) {
+            startSensor(id);
+        }
+    }
+
+    /** Stops all sources, then delivers every reading still waiting in the heap. */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread thread : sensorThreads) {
+            thread.interrupt();
+        }
+        try {
+            for (Thread thread : sensorThreads) {
+                thread.join();
+            }
+            merger.interrupt();
+            merger.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sensorThreads.clear();
+        deliver(Long.MAX_VALUE);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getDroppedCount() {
+        lock.lock();
+        try {
+            return droppedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startSensor(int id) {
+        SensorSource source = sources.get(id);
+        SensorSource.Emitter emitter = new SensorSource.Emitter() {
+            @Override
+            public void emit(int degree, int distance) {
+                offer(id, System.currentTimeMillis(), degree, distance, 0);
+            }
+
+            @Override
+            public void emit(int degree, int distance, long timestamp) {
+                offer(id, Math.min(timestamp, System.currentTimeMillis()), degree, distance, 0);
+            }
+
+            @Override
+            public void gap(long start, long end) {
+                offer(id, end, GAP, 0, start);
+            }
+        };
+        sensorThreads.add(Thread.ofVirtual().name("sensor-" + id + "-" + source.getName()).start(() -> {
+            try {
+                source.run(emitter);
+            } catch (InterruptedException e) {
+                // stopped
+            } catch (Exception e) {
+                if (running) {
+                    System.err.println("Sensor " + source.getName() + " failed: " + e.getMessage());
+                }
+            }
+        }));
+    }
+
+    private void offer(int sensorId, long timestamp, int degree, int distance, long gapStart) {
+        lock.lock();
+        try {
+            if (heapSize == heapTimestamps.length) {
+                droppedCount++;
+                return;
+            }
+            // Too late for its place in the merged stream: it goes out next instead
+            timestamp = Math.max(timestamp, delivered);
+            int i = heapSize++;
+            heapTimestamps[i] = timestamp;
+            heapSequence[i] = sequence++;
+            heapSensors[i] = sensorId;
+            heapDegrees[i] = degree;
+            heapDistances[i] = distance;
+            heapGapStarts[i] = gapStart;
+            siftUp(i);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void mergeLoop() {
+        long pause = Math.max(1, reorderWindowMs / 2);
+        while (running) {
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                return;
+            }
+            deliver(System.currentTimeMillis() - reorderWindowMs);
+        }
+    }
+
+    // Pops readings up to the watermark in batches and calls the listener outside the lock
+    private void deliver(long watermark) {
+        while (true) {
+            int n = 0;
+            lock.lock();
+            try {
+                while (n < DELIVERY_BATCH && heapSize > 0 && heapTimestamps[0] <= watermark) {
+                    outTimestamps[n] = heapTimestamps[0];
+                    outSensors[n] = heapSensors[0];
+                    outDegrees[n] = heapDegrees[0];
+                    outDistances[n] = heapDistances[0];
+                    outGapStarts[n] = heapGapStarts[0];
+                    delivered = heapTimestamps[0];
+                    n++;
+                    removeTop();
+                }
+            } finally {
+                lock.unlock();
+            }
+            for (int i = 0; i < n; i++) {
+                if (outDegrees[i] == GAP) {
+                    listener.onGap(outSensors[i], outGapStarts[i], outTimestamps[i]);
+                } else {
+                    listener.onSample(outSensors[i], outTimestamps[i], outDegrees[i], outDistances[i]);
+                }
+            }
+            if (n < DELIVERY_BATCH) {
+                return;
+            }
+        }
+    }
+
+    private void removeTop() {
+        heapSize--;
+        if (heapSize > 0) {
+            move(heapSize, 0);
+            siftDown(0);
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return heapTimestamps[a] < heapTimestamps[b]
+                || (heapTimestamps[a] == heapTimestamps[b] && heapSequence[a] < heapSequence[b]);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(i, parent)) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= heapSize) {
+                return;
+            }
+            int child = left + 1 < heapSize && less(left + 1, left) ? left + 1 : left;
+            if (!less(child, i)) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void move(int from, int to) {
+        heapTimestamps[to] = heapTimestamps[from];
+        heapSequence[to] = heapSequence[from];
+        heapSensors[to] = heapSensors[from];
+        heapDegrees[to] = heapDegrees[from];
+        heapDistances[to] = heapDistances[from];
+        heapGapStarts[to] = heapGapStarts[from];
+    }
+
+    private void swap(int a, int b) {
+        long t = heapTimestamps[a];
+        heapTimestamps[a] = heapTimestamps[b];
+        heapTimestamps[b] = t;
+        long s = heapSequence[a];
+        heapSequence[a] = heapSequence[b];
+        heapSequence[b] = s;
+        int v = heapSensors[a];
+        heapSensors[a] = heapSensors[b];
+        heapSensors[b] = v;
+        v = heapDegrees[a];
+        heapDegrees[a] = heapDegrees[b];
+        heapDegrees[b] = v;
+        v = heapDistances[a];
+        heapDistances[a] = heapDistances[b];
+        heapDistances[b] = v;
+        t = heapGapStarts[a];
+        heapGapStarts[a] = heapGapStarts[b];
+        heapGapStarts[b] = t;
+    }
+}
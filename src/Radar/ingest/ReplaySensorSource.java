@@ -0,0 +1,108 @@
+package Radar.ingest;
+
+import Radar.core.SampleColumns;
+import Radar.io.CsvSampleLoader;
+import Radar.io.RecordingReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Plays a saved session back as if it were a live sensor, so every dashboard
+ * can run on a CSV log or a binary {@code .rdr} recording instead of hardware.
+ *
+ * Rows are emitted with the spacing they were recorded at, divided by
+ * {@code speed}; pauses longer than {@link #MAX_PAUSE_MS} (outages, restarts)
+ * are shortened to that. The engine stamps readings with the current time, as
+ * it does for live sources. The source ends after the last row; if the engine
+ * is stopped and started again, playback resumes where it left off.
+ */
+public class ReplaySensorSource implements SensorSource {
+
+    public static final long MAX_PAUSE_MS = 1000;
+
+    private final String name;
+    private final SampleColumns rows;
+    private final double speed;
+    private volatile int position = 0; // next row to emit
+
+    public ReplaySensorSource(String name, SampleColumns rows, double speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Replay speed must be positive: " + speed);
+        }
+        this.name = name;
+        this.rows = rows;
+        this.speed = speed;
+    }
+
+    /** Loads {@code file}, a recording or a CSV log, for replay at recorded speed. */
+    public static ReplaySensorSource open(File file) throws IOException {
+        return new ReplaySensorSource(file.getName(), load(file), 1.0);
+    }
+
+    private static SampleColumns load(File file) throws IOException {
+        SampleColumns rows = new SampleColumns(1024, 0); // detection is decided again on replay
+        if (RecordingReader.isRecording(file)) {
+            try (RecordingReader reader = new RecordingReader(file)) {
+                reader.read(Long.MIN_VALUE, Long.MAX_VALUE, rows);
+            }
+            return rows;
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        IOException[] failure = new IOException[1];
+        new CsvSampleLoader(0).load(file, new CsvSampleLoader.Listener() {
+            @Override
+            public void onChunk(SampleColumns chunk, long bytesDone, long totalBytes) {
+                rows.addAll(chunk);
+            }
+
+            @Override
+            public void onComplete(int rowCount, int skippedRows) {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                failure[0] = e instanceof IOException ? (IOException) e : new IOException(e);
+                done.countDown();
+            }
+        });
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + file, e);
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        return rows;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public void run(Emitter out) throws InterruptedException {
+        if (position >= rows.size()) {
+            return;
+        }
+        for (int i = position; i < rows.size(); i++) {
+            if (i > 0) {
+                long pause = (long) ((rows.timestampAt(i) - rows.timestampAt(i - 1)) / speed);
+                Thread.sleep(Math.max(0, Math.min(MAX_PAUSE_MS, pause)));
+            }
+            out.emit(rows.degreeAt(i), rows.distanceAt(i));
+            position = i + 1;
+        }
+        System.out.println("Replay " + name + ": finished after " + rows.size() + " rows");
+    }
+}
@@ -0,0 +1,65 @@
+package Radar.ingest;
+
+import Radar.serial.WireFormat;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * One sensor feeding a {@link MultiSensorEngine}. The engine runs each source on
+ * its own virtual thread and stops it by interrupting that thread.
+ */
+public interface SensorSource {
+
+    interface Emitter {
+        /** Hands one reading to the engine, which stamps and tags it. */
+        void emit(int degree, int distance);
+
+        /**
+         * Hands over a reading taken at {@code timestamp}, in host time (see
+         * {@link Radar.serial.BoardClock} for frames stamped by the board).
+         * The engine keeps its output in order, so a time before readings it
+         * already delivered, or after the present, is moved to the nearest
+         * one it can use.
+         */
+        default void emit(int degree, int distance, long timestamp) {
+            emit(degree, distance);
+        }
+
+        /**
+         * Reports that the sensor delivered nothing from {@code start} to
+         * {@code end} (host time), e.g. while its link was being reopened.
+         * Call it before the first reading after the outage.
+         */
+        default void gap(long start, long end) {
+        }
+    }
+
+    long SIMULATED_PERIOD_MS = 200;
+
+    /** Short label for logs and legends, e.g. the port name. */
+    String getName();
+
+    /**
+     * Produces readings until the thread is interrupted. Blocking should be done
+     * with methods that release the carrier thread (sleep, parking, java.io on
+     * sockets), not in long native calls.
+     */
+    void run(Emitter out) throws Exception;
+
+    /**
+     * A source from a command-line argument: "sim" for a simulated sensor
+     * looking straight ahead, a path ending in .csv or .rdr to replay a saved
+     * session, anything else a serial port name read in {@code format}.
+     */
+    static SensorSource forSpec(String spec, WireFormat format) throws IOException {
+        String lower = spec.toLowerCase();
+        if (lower.equals("sim")) {
+            return new SimulatedSensorSource("sim", SIMULATED_PERIOD_MS, 90, System.nanoTime());
+        }
+        if (lower.endsWith(".csv") || lower.endsWith(".rdr")) {
+            return ReplaySensorSource.open(new File(spec));
+        }
+        return new SerialSensorSource(spec, 9600, format);
+    }
+}
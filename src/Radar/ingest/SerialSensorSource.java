@@ -0,0 +1,87 @@
+package Radar.ingest;
+
+import Radar.serial.Backoff;
+import Radar.serial.BoardClock;
+import Radar.serial.FrameDecoder;
+import Radar.serial.WireFormat;
+import com.fazecast.jSerialComm.SerialPort;
+
+/**
+ * A sensor on a serial port. The port is read without blocking and the thread
+ * sleeps briefly whenever it is empty; on a virtual thread the sleep frees the
+ * carrier, so idle ports cost nothing. (A blocking native read would pin the
+ * carrier thread for the whole timeout.)
+ *
+ * If the port cannot be opened or stops reading it is closed and reopened
+ * after an exponential {@link Backoff}, so one unplugged sensor neither ends
+ * its thread nor spins on a dead port.
+ *
+ * Frames that carry the board's clock are timed by it, anchored to the host
+ * clock through a {@link BoardClock}.
+ */
+public class SerialSensorSource implements SensorSource {
+
+    public static final long IDLE_SLEEP_MS = 5;
+    public static final long RETRY_INITIAL_MS = 250;
+    public static final long RETRY_MAX_MS = 30_000;
+
+    private final String portName;
+    private final int baudRate;
+    private final WireFormat format;
+
+    public SerialSensorSource(String portName, int baudRate, WireFormat format) {
+        this.portName = portName;
+        this.baudRate = baudRate;
+        this.format = format;
+    }
+
+    @Override
+    public String getName() {
+        return portName;
+    }
+
+    @Override
+    public void run(Emitter out) throws Exception {
+        Backoff backoff = new Backoff(RETRY_INITIAL_MS, RETRY_MAX_MS);
+        BoardClock clock = new BoardClock();
+        FrameDecoder decoder = format.newDecoder((degree, distance, timestamp) ->
+                out.emit(degree, distance, clock.toHost(timestamp, System.currentTimeMillis())));
+        while (!Thread.currentThread().isInterrupted()) {
+            clock.reset(); // the board may have reset while the port was closed
+            if (readUntilFailure(decoder, backoff)) {
+                System.out.println("Sensor " + portName + ": serial read failed, reconnecting");
+            } else {
+                System.out.println("Sensor " + portName + ": could not open port");
+            }
+            Thread.sleep(backoff.nextDelay());
+        }
+    }
+
+    // Returns true if the port was opened and later failed, false if it could not be opened
+    private boolean readUntilFailure(FrameDecoder decoder, Backoff backoff) throws InterruptedException {
+        SerialPort port = SerialPort.getCommPort(portName);
+        port.setBaudRate(baudRate);
+        port.setComPortTimeouts(SerialPort.TIMEOUT_NONBLOCKING, 0, 0);
+        if (!port.openPort()) {
+            return false;
+        }
+        try {
+            decoder.reset(); // drop a frame cut off by the previous failure
+            long framesAtOpen = decoder.getFrameCount();
+            while (true) {
+                int n = decoder.readFrom(port);
+                if (n < 0) {
+                    return true;
+                }
+                if (decoder.getFrameCount() > framesAtOpen && backoff.getAttempts() > 0) {
+                    backoff.reset(); // the sensor is back
+                }
+                if (n == 0) {
+                    Thread.sleep(IDLE_SLEEP_MS);
+                }
+            }
+        } finally {
+            port.closePort();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package Radar.ingest;
+
+import java.util.Random;
+
+/**
+ * A fake sensor producing a random walk of distances, for running the
+ * dashboards without hardware.
+ */
+public class SimulatedSensorSource implements SensorSource {
+
+    private final String name;
+    private final long periodMs;
+    private final int degree;
+    private final Random random;
+
+    public SimulatedSensorSource(String name, long periodMs, int degree, long seed) {
+        this.name = name;
+        this.periodMs = periodMs;
+        this.degree = degree;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void run(Emitter out) throws InterruptedException {
+        int baseDistance = 100;
+        while (!Thread.currentThread().isInterrupted()) {
+            // Wander by -10..+10 and keep within a reasonable range
+            baseDistance += random.nextInt(20) - 10;
+            baseDistance = Math.max(20, Math.min(300, baseDistance));
+
+            // Add some random variation
+            int distance = baseDistance + random.nextInt(15) - 7;
+            distance = Math.max(2, Math.min(400, distance));
+
+            out.emit(degree, distance);
+            Thread.sleep(periodMs);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package Radar.ingest;
+
+import Radar.serial.BoardClock;
+import Radar.serial.FrameDecoder;
+import Radar.serial.PortDiscovery;
+import Radar.serial.SupervisedConnection;
+import Radar.serial.WireFormat;
+import com.fazecast.jSerialComm.SerialPort;
+
+/**
+ * A sensor on a serial port kept alive by a {@link SupervisedConnection}:
+ * frames are decoded as the port reports data, a silent or vanished port is
+ * reopened with backoff (falling back to a scan of all ports), and every
+ * outage is passed to the engine as a gap before the first reading after it.
+ *
+ * The source's thread only waits while it runs; frames arrive on the serial
+ * event thread. {@code listener} hears about the link as it goes down and
+ * comes back, for status displays. Frames that carry the board's clock are
+ * timed by it, anchored to the host clock through a {@link BoardClock}.
+ *
+ * This suits a single sensor whose port may move; for many ports on one host,
+ * {@link SerialSensorSource} is lighter.
+ */
+public class SupervisedSerialSource implements SensorSource {
+
+    private final String portName;
+    private final PortDiscovery discovery;
+    private final WireFormat format;
+    private final SupervisedConnection.Listener listener;
+    private SerialPort openPort; // handed to the first run; guarded by this
+
+    // Counts of finished runs plus the running decoder; guarded by this
+    private long frameCount = 0;
+    private long malformedCount = 0;
+    private FrameDecoder decoder;
+
+    /** Reads {@code portName}, opening it when the source starts. */
+    public SupervisedSerialSource(String portName, PortDiscovery discovery, WireFormat format,
+                                  SupervisedConnection.Listener listener) {
+        this.portName = portName;
+        this.discovery = discovery;
+        this.format = format;
+        this.listener = listener;
+    }
+
+    /** Reads a port that is already open, e.g. one found by {@link PortDiscovery}. */
+    public SupervisedSerialSource(SerialPort openPort, PortDiscovery discovery, WireFormat format,
+                                  SupervisedConnection.Listener listener) {
+        this(openPort.getSystemPortName(), discovery, format, listener);
+        this.openPort = openPort;
+    }
+
+    @Override
+    public String getName() {
+        return portName;
+    }
+
+    @Override
+    public void run(Emitter out) throws Exception {
+        SerialPort port = takeOpenPort();
+        BoardClock clock = new BoardClock(); // used on the serial event thread only
+        SupervisedConnection connection = new SupervisedConnection(discovery, format,
+                (degree, distance, timestamp) -> out.emit(degree, distance, clock.toHost(timestamp, System.currentTimeMillis())),
+                new SupervisedConnection.Listener() {
+                    @Override
+                    public void onDisconnected(long atMillis) {
+                        listener.onDisconnected(atMillis);
+                    }
+
+                    @Override
+                    public void onRetryScheduled(int attempt, long delayMs) {
+                        listener.onRetryScheduled(attempt, delayMs);
+                    }
+
+                    @Override
+                    public void onReconnected(SerialPort newPort, long gapStartMillis, long gapEndMillis) {
+                        // Runs before the first frame after the outage, on the same thread
+                        out.gap(gapStartMillis, gapEndMillis);
+                        clock.reset();
+                        listener.onReconnected(newPort, gapStartMillis, gapEndMillis);
+                    }
+                });
+        synchronized (this) {
+            decoder = connection.getDecoder();
+        }
+        // A port that will not open is treated as lost and retried like any outage
+        connection.start(port);
+        try {
+            while (true) {
+                Thread.sleep(Long.MAX_VALUE);
+            }
+        } finally {
+            connection.stop(); // no more frames once this returns
+            synchronized (this) {
+                frameCount += decoder.getFrameCount();
+                malformedCount += decoder.getMalformedCount();
+                decoder = null;
+            }
+        }
+    }
+
+    /** Frames decoded so far, over every run. */
+    public synchronized long getFrameCount() {
+        return frameCount + (decoder != null ? decoder.getFrameCount() : 0);
+    }
+
+    /** Malformed frames skipped so far, over every run. */
+    public synchronized long getMalformedCount() {
+        return malformedCount + (decoder != null ? decoder.getMalformedCount() : 0);
+    }
+
+    private synchronized SerialPort takeOpenPort() {
+        SerialPort port = openPort;
+        openPort = null;
+        if (port == null) {
+            port = SerialPort.getCommPort(portName);
+            port.setBaudRate(discovery.getBaudRate());
+            port.openPort();
+        }
+        return port;
+    }
+}
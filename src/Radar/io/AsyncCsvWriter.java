@@ -0,0 +1,360 @@
+package Radar.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes radar samples to a CSV log on a dedicated writer thread.
+ *
+ * The reader thread calls {@link #append}, which only copies the sample into a
+ * bounded batch of primitive arrays and never touches the disk. The writer swaps
+ * that batch for an empty one, formats the rows into a reused byte buffer and
+ * writes the buffer out when it is full or the flush policy says so: after
+ * {@code flushEveryRecords} rows, after {@code flushEveryMillis}, and on
+ * {@link #close()}. With {@code fsync} each flush also forces the data to disk
+ * and has the recording checkpoint its index.
+ *
+ * If the writer falls so far behind that the batch is full, {@link #append}
+ * drops further samples and counts them rather than blocking ingest. A caller
+ * that must not lose rows, and can afford to wait, uses {@link #appendBlocking}
+ * instead, which waits for the writer to take the batch.
+ *
+ * An optional {@link RecordingWriter} receives the same rows on the writer
+ * thread, so a compact binary recording can be kept next to the CSV log.
+ * Outages passed to {@link #appendGap} go to the recording's gap table in
+ * order with the rows; the CSV layout has no place for them.
+ */
+public class AsyncCsvWriter implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 65536;
+    public static final int DEFAULT_FLUSH_RECORDS = 512;
+    public static final long DEFAULT_FLUSH_MILLIS = 1000;
+    /** Sensor id for single-sensor logs; the row then has no Sensor column. */
+    public static final int NO_SENSOR = -1;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_ROW_BYTES = 64;
+    private static final byte[] YES = "YES".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NO = "NO".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final int flushEveryRecords;
+    private final long flushEveryMillis;
+    private final boolean fsync;
+    private final RecordingWriter recording;
+    private final Thread writer;
+
+    // Producer side, guarded by lock
+    private final Object lock = new Object();
+    private Batch front;
+    private Batch back;
+    private boolean closed = false;
+    private long droppedCount = 0;
+
+    // Writer thread only
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] digits = new byte[20];
+    private int unflushedRecords = 0;
+    private long lastFlush = System.currentTimeMillis();
+    private volatile long writtenCount = 0;
+    private volatile IOException failure;
+
+    public AsyncCsvWriter(File file, String header) throws IOException {
+        this(file, header, DEFAULT_CAPACITY, DEFAULT_FLUSH_RECORDS, DEFAULT_FLUSH_MILLIS, false, null);
+    }
+
+    /** @param recording also receives every row, and is closed with this writer; may be null */
+    public AsyncCsvWriter(File file, String header, int capacity, int flushEveryRecords,
+                          long flushEveryMillis, boolean fsync, RecordingWriter recording) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.flushEveryRecords = Math.max(1, flushEveryRecords);
+        this.flushEveryMillis = Math.max(1, flushEveryMillis);
+        this.fsync = fsync;
+        this.recording = recording;
+        this.front = new Batch(capacity);
+        this.back = new Batch(capacity);
+
+        if (header != null) {
+            buffer.put(header.getBytes(StandardCharsets.US_ASCII)).put(NEWLINE);
+        }
+        writer = new Thread(this::writeLoop, "csv-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Called from the reader thread. Never blocks on I/O; returns false if the sample was dropped. */
+    public boolean append(int degree, int distance, long timestamp, boolean detected) {
+        return append(degree, distance, timestamp, detected, NO_SENSOR);
+    }
+
+    /** As {@link #append(int, int, long, boolean)}, adding a trailing Sensor column unless {@code sensorId} is {@link #NO_SENSOR}. */
+    public boolean append(int degree, int distance, long timestamp, boolean detected, int sensorId) {
+        synchronized (lock) {
+            if (!hasRoom(false)) {
+                return false;
+            }
+            add(degree, distance, timestamp, detected, sensorId);
+            return true;
+        }
+    }
+
+    /**
+     * As {@link #append(int, int, long, boolean, int)}, but while the batch is
+     * full waits for the writer to take it rather than dropping the sample.
+     * Returns false only once the writer has stopped or the caller is interrupted.
+     */
+    public boolean appendBlocking(int degree, int distance, long timestamp, boolean detected, int sensorId) {
+        synchronized (lock) {
+            if (!hasRoom(true)) {
+                return false;
+            }
+            add(degree, distance, timestamp, detected, sensorId);
+            return true;
+        }
+    }
+
+    /** Records that the link was down from {@code start} to {@code end}, between the rows on either side. */
+    public boolean appendGap(long start, long end) {
+        synchronized (lock) {
+            if (!hasRoom(false)) {
+                return false;
+            }
+            front.addGap(start, end);
+            return true;
+        }
+    }
+
+    /** As {@link #appendGap}, waiting for room like {@link #appendBlocking}. */
+    public boolean appendGapBlocking(long start, long end) {
+        synchronized (lock) {
+            if (!hasRoom(true)) {
+                return false;
+            }
+            front.addGap(start, end);
+            return true;
+        }
+    }
+
+    /** Writes out everything appended so far and stops the writer thread. */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+            if (recording != null) {
+                recording.close(); // writes the block index
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing log file: " + e.getMessage());
+        }
+    }
+
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    public long getDroppedCount() {
+        synchronized (lock) {
+            return droppedCount;
+        }
+    }
+
+    /** The error that stopped the writer, or null. */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    // Holding lock; counts a drop when there is no room for one more row
+    private boolean hasRoom(boolean wait) {
+        while (wait && front.size == front.timestamps.length && !closed && failure == null) {
+            lock.notifyAll(); // the writer may still be waiting out its flush interval
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (closed || failure != null || front.size == front.timestamps.length) {
+            droppedCount++;
+            return false;
+        }
+        return true;
+    }
+
+    // Holding lock
+    private void add(int degree, int distance, long timestamp, boolean detected, int sensorId) {
+        front.add(degree, distance, timestamp, detected, sensorId);
+        if (front.size == Math.min(flushEveryRecords, front.timestamps.length / 2)) {
+            lock.notifyAll(); // enough for a write, wake the writer early
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                Batch batch;
+                boolean closing;
+                synchronized (lock) {
+                    long wait = lastFlush + flushEveryMillis - System.currentTimeMillis();
+                    if (front.size < flushEveryRecords && !closed && wait > 0) {
+                        lock.wait(wait);
+                    }
+                    batch = front;
+                    front = back;
+                    back = batch;
+                    closing = closed;
+                    lock.notifyAll(); // room again for blocked appends
+                }
+
+                int rows = 0;
+                for (int i = 0; i < batch.size; i++) {
+                    if (batch.gaps[i]) {
+                        if (recording != null) {
+                            recording.markGap(batch.timestamps[i], batch.gapEnds[i]);
+                        }
+                        continue;
+                    }
+                    if (buffer.remaining() < MAX_ROW_BYTES) {
+                        writeBuffer();
+                    }
+                    formatRow(batch, i);
+                    if (recording != null) {
+                        recording.append(batch.degrees[i], batch.distances[i], batch.timestamps[i],
+                                batch.detected[i], batch.sensors[i]);
+                    }
+                    rows++;
+                }
+                unflushedRecords += rows;
+                writtenCount += rows;
+                batch.size = 0;
+
+                if (closing || unflushedRecords >= flushEveryRecords
+                        || System.currentTimeMillis() - lastFlush >= flushEveryMillis) {
+                    flush();
+                }
+                if (closing) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            synchronized (lock) {
+                failure = e; // later samples are counted as dropped
+                lock.notifyAll();
+            }
+            System.err.println("Error writing log file: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush() throws IOException {
+        writeBuffer();
+        if (fsync && unflushedRecords > 0) {
+            channel.force(false);
+            if (recording != null) {
+                recording.force(); // checkpoints its index too
+            }
+        }
+        unflushedRecords = 0;
+        lastFlush = System.currentTimeMillis();
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Same layout as the old PrintWriter output: degree,distance,timestamp,YES|NO[,sensor]
+    private void formatRow(Batch batch, int i) {
+        putNumber(batch.degrees[i]);
+        buffer.put((byte) ',');
+        putNumber(batch.distances[i]);
+        buffer.put((byte) ',');
+        putNumber(batch.timestamps[i]);
+        buffer.put((byte) ',');
+        buffer.put(batch.detected[i] ? YES : NO);
+        if (batch.sensors[i] != NO_SENSOR) {
+            buffer.put((byte) ',');
+            putNumber(batch.sensors[i]);
+        }
+        buffer.put(NEWLINE);
+    }
+
+    private void putNumber(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                buffer.put("9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            value = -value;
+        }
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (n > 0) {
+            buffer.put(digits[--n]);
+        }
+    }
+
+    private static class Batch {
+        final int[] degrees;
+        final int[] distances;
+        final long[] timestamps;
+        final boolean[] detected;
+        final int[] sensors;
+        final boolean[] gaps;    // row is an outage marker: timestamps holds its start
+        final long[] gapEnds;
+        int size = 0;
+
+        Batch(int capacity) {
+            degrees = new int[capacity];
+            distances = new int[capacity];
+            timestamps = new long[capacity];
+            detected = new boolean[capacity];
+            sensors = new int[capacity];
+            gaps = new boolean[capacity];
+            gapEnds = new long[capacity];
+        }
+
+        void add(int degree, int distance, long timestamp, boolean isDetected, int sensorId) {
+            degrees[size] = degree;
+            distances[size] = distance;
+            timestamps[size] = timestamp;
+            detected[size] = isDetected;
+            sensors[size] = sensorId;
+            gaps[size] = false;
+            size++;
+        }
+
+        void addGap(long start, long end) {
+            timestamps[size] = start;
+            gapEnds[size] = end;
+            gaps[size] = true;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package Radar.io;
+
+import Radar.core.SampleColumns;
+
+/**
+ * Byte-level parser for the radar CSV logs ("Degree,Distance,Timestamp,Detection").
+ *
+ * The first two fields are required integers and the third is an optional
+ * numeric timestamp. The fourth, if it reads YES or NO (in any case), is the
+ * detection logged with the row; otherwise the row's detection is left to the
+ * columns' threshold. Anything after that is ignored. Rows may be split across
+ * {@link #feed} calls. Rows whose degree or distance is not a valid number
+ * are counted in {@link #getSkippedRows()} and dropped.
+ */
+public class CsvRowParser {
+
+    private static final int FIELDS = 3;
+    private static final int DETECTION_FIELD = FIELDS;
+    private static final int MAX_DIGITS = 18;
+    private static final byte[] YES = { 'Y', 'E', 'S' };
+    private static final byte[] NO = { 'N', 'O' };
+
+    private boolean skipNextLine;
+
+    // Per-row state
+    private final long[] values = new long[FIELDS];
+    private final boolean[] valid = new boolean[FIELDS];
+    private int field = 0;
+    private long value = 0;
+    private int digits = 0;
+    private boolean negative = false;
+    private boolean trailingSpace = false;
+    private boolean bad = false;
+    private boolean rowStarted = false;
+    private int detectionLength = 0;
+    private boolean maybeYes = true;
+    private boolean maybeNo = true;
+
+    private int rows = 0;
+    private int skippedRows = 0;
+
+    /** @param skipHeader whether the first line of the input is a header row */
+    public CsvRowParser(boolean skipHeader) {
+        this.skipNextLine = skipHeader;
+    }
+
+    public void feed(byte[] data, int offset, int length, SampleColumns out) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            int b = data[i];
+            if (b == '\n') {
+                endRow(out);
+                continue;
+            }
+            if (skipNextLine || field > DETECTION_FIELD) {
+                continue;
+            }
+            if (field == DETECTION_FIELD) {
+                readDetection(b);
+                continue;
+            }
+            if (b >= '0' && b <= '9') {
+                if (trailingSpace || digits == MAX_DIGITS) {
+                    bad = true;
+                } else {
+                    value = value * 10 + (b - '0');
+                    digits++;
+                }
+                rowStarted = true;
+            } else if (b == ',') {
+                closeField();
+                field++;
+                rowStarted = true;
+            } else if (b == '-') {
+                if (digits != 0 || negative) {
+                    bad = true;
+                }
+                negative = true;
+                rowStarted = true;
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                if (digits != 0) {
+                    trailingSpace = true;
+                }
+            } else {
+                bad = true;
+                rowStarted = true;
+            }
+        }
+    }
+
+    /** Flushes a final row that had no trailing newline. */
+    public void finish(SampleColumns out) {
+        if (rowStarted || field > 0) {
+            endRow(out);
+        }
+    }
+
+    /** Makes the parser discard input up to and including the next newline. */
+    public void skipToNextLine() {
+        skipNextLine = true;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSkippedRows() {
+        return skippedRows;
+    }
+
+    private void readDetection(int b) {
+        if (b == ',') {
+            field++; // a Sensor column, ignored
+        } else if (b != ' ' && b != '\t' && b != '\r') {
+            int upper = b >= 'a' && b <= 'z' ? b - ('a' - 'A') : b;
+            maybeYes &= detectionLength < YES.length && upper == YES[detectionLength];
+            maybeNo &= detectionLength < NO.length && upper == NO[detectionLength];
+            detectionLength++;
+        }
+    }
+
+    private void closeField() {
+        if (field < FIELDS) {
+            values[field] = negative ? -value : value;
+            valid[field] = !bad && digits > 0;
+        }
+        value = 0;
+        digits = 0;
+        negative = false;
+        trailingSpace = false;
+        bad = false;
+    }
+
+    private void endRow(SampleColumns out) {
+        if (skipNextLine) {
+            skipNextLine = false;
+            resetRow();
+            return;
+        }
+        if (!rowStarted && field == 0) {
+            resetRow(); // blank line
+            return;
+        }
+        closeField();
+        if (valid[0] && valid[1] && fitsShort(values[0]) && fitsShort(values[1])) {
+            long timestamp = field >= 2 && valid[2] ? values[2] : 0;
+            if (field >= DETECTION_FIELD && maybeYes && detectionLength == YES.length) {
+                out.add((int) values[0], (int) values[1], timestamp, true);
+            } else if (field >= DETECTION_FIELD && maybeNo && detectionLength == NO.length) {
+                out.add((int) values[0], (int) values[1], timestamp, false);
+            } else {
+                out.add((int) values[0], (int) values[1], timestamp);
+            }
+            rows++;
+        } else {
+            skippedRows++;
+        }
+        resetRow();
+    }
+
+    private void resetRow() {
+        for (int i = 0; i < FIELDS; i++) {
+            values[i] = 0;
+            valid[i] = false;
+        }
+        field = 0;
+        value = 0;
+        digits = 0;
+        negative = false;
+        trailingSpace = false;
+        bad = false;
+        rowStarted = false;
+        detectionLength = 0;
+        maybeYes = true;
+        maybeNo = true;
+    }
+
+    private static boolean fitsShort(long v) {
+        return v >= Short.MIN_VALUE && v <= Short.MAX_VALUE;
+    }
+}
@@ -0,0 +1,276 @@
+package Radar.io;
+
+import Radar.core.SampleColumns;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams a radar CSV log into primitive columns on a background thread.
+ *
+ * The file is memory-mapped window by window and parsed with a
+ * {@link CsvRowParser}; each window's rows are handed to the listener as a
+ * separate {@link SampleColumns} chunk as soon as it is parsed, so callers can
+ * show the start of a large file while the rest is still loading. Listener
+ * methods run on the loader thread.
+ *
+ * In parallel mode the file is first cut into newline-aligned byte ranges,
+ * which are parsed concurrently on the loader's own pool of one thread per
+ * core. Mapping and page faults block, so this is kept off the fork/join
+ * common pool, where it would stall parallel streams and CompletableFutures.
+ * Ranges are still delivered to the listener strictly in file order, so the
+ * merged columns are identical to a sequential load.
+ *
+ * {@link #cancel()} raises a flag that every range checks between mapped
+ * windows, so a cancelled load stops within one window per thread.
+ */
+public class CsvSampleLoader {
+
+    public interface Listener {
+        void onChunk(SampleColumns chunk, long bytesDone, long totalBytes);
+
+        void onComplete(int rows, int skippedRows);
+
+        void onError(Exception e);
+    }
+
+    public static final int DEFAULT_CHUNK_BYTES = 8 << 20; // 8 MB mapped per window
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int BYTES_PER_ROW_ESTIMATE = 20;
+    private static final long MIN_RANGE_BYTES = 1 << 20;
+    private static final long MAX_RANGE_BYTES = 1L << 30;
+
+    private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final long IDLE_THREAD_SECONDS = 30;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "csv-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Range parsers for parallel loads; threads exit when idle, so a loader costs nothing between loads
+    private final ThreadPoolExecutor rangeExecutor = new ThreadPoolExecutor(PARALLELISM, PARALLELISM,
+            IDLE_THREAD_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+        Thread thread = new Thread(r, "csv-range");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int chunkBytes;
+    private final int detectionThreshold;
+    private Future<?> current;
+    private AtomicBoolean currentCancelled;
+
+    public CsvSampleLoader(int detectionThreshold) {
+        this(detectionThreshold, DEFAULT_CHUNK_BYTES);
+    }
+
+    public CsvSampleLoader(int detectionThreshold, int chunkBytes) {
+        this.detectionThreshold = detectionThreshold;
+        this.chunkBytes = chunkBytes;
+        rangeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /** Starts loading {@code file}, cancelling any load still in progress. */
+    public synchronized void load(File file, Listener listener) {
+        load(file, listener, false);
+    }
+
+    /** As {@link #load(File, Listener)}, optionally parsing ranges of the file on all cores. */
+    public synchronized void load(File file, Listener listener, boolean parallel) {
+        cancel();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        currentCancelled = cancelled;
+        current = executor.submit(() -> {
+            if (parallel) {
+                runParallel(file, listener, cancelled);
+            } else {
+                run(file, listener, cancelled);
+            }
+        });
+    }
+
+    public synchronized void cancel() {
+        if (current != null) {
+            currentCancelled.set(true);
+            current.cancel(true);
+            current = null;
+            currentCancelled = null;
+        }
+    }
+
+    private void run(File file, Listener listener, AtomicBoolean cancelled) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long total = channel.size();
+            CsvRowParser parser = new CsvRowParser(true);
+            byte[] copy = new byte[COPY_BUFFER_SIZE];
+
+            for (long position = 0; position < total; position += chunkBytes) {
+                if (cancelled.get()) {
+                    return;
+                }
+                long length = Math.min(chunkBytes, total - position);
+                SampleColumns chunk = new SampleColumns((int) (length / BYTES_PER_ROW_ESTIMATE), detectionThreshold);
+                parseMapped(channel, position, position + length, parser, chunk, copy, cancelled);
+                if (position + length >= total) {
+                    parser.finish(chunk);
+                }
+                listener.onChunk(chunk, position + length, total);
+            }
+            listener.onComplete(parser.getRows(), parser.getSkippedRows());
+        } catch (IOException e) {
+            if (!cancelled.get()) {
+                listener.onError(e);
+            }
+        }
+    }
+
+    private void runParallel(File file, Listener listener, AtomicBoolean cancelled) {
+        List<Future<RangeResult>> tasks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long total = channel.size();
+            long[] bounds = splitAtNewlines(channel, total);
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                boolean first = i == 0;
+                tasks.add(rangeExecutor.submit(() -> parseRange(channel, start, end, first, cancelled)));
+            }
+
+            // Hand ranges over in file order; later ranges keep parsing meanwhile
+            int rows = 0;
+            int skippedRows = 0;
+            for (int i = 0; i < tasks.size(); i++) {
+                RangeResult result = tasks.get(i).get();
+                if (cancelled.get()) {
+                    cancelAll(tasks, cancelled);
+                    return;
+                }
+                rows += result.rows;
+                skippedRows += result.skippedRows;
+                listener.onChunk(result.columns, bounds[i + 1], total);
+            }
+            listener.onComplete(rows, skippedRows);
+        } catch (IOException e) {
+            cancelAll(tasks, cancelled);
+            if (!cancelled.get()) {
+                listener.onError(e);
+            }
+        } catch (InterruptedException e) {
+            cancelAll(tasks, cancelled); // load cancelled while waiting for a range
+        } catch (ExecutionException e) {
+            cancelAll(tasks, cancelled);
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            listener.onError(cause instanceof Exception ? (Exception) cause : new RuntimeException(cause));
+        }
+    }
+
+    // Returns early, with partial columns, once the load is cancelled
+    private RangeResult parseRange(FileChannel channel, long start, long end, boolean first, AtomicBoolean cancelled) {
+        CsvRowParser parser = new CsvRowParser(first);
+        SampleColumns columns = new SampleColumns((int) ((end - start) / BYTES_PER_ROW_ESTIMATE), detectionThreshold);
+        try {
+            parseMapped(channel, start, end, parser, columns, new byte[COPY_BUFFER_SIZE], cancelled);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        parser.finish(columns);
+        return new RangeResult(columns, parser.getRows(), parser.getSkippedRows());
+    }
+
+    /** Maps {@code start..end} window by window and feeds it to the parser; stops early if cancelled. */
+    private void parseMapped(FileChannel channel, long start, long end, CsvRowParser parser,
+                             SampleColumns out, byte[] copy, AtomicBoolean cancelled) throws IOException {
+        for (long position = start; position < end; position += chunkBytes) {
+            if (cancelled.get()) {
+                return;
+            }
+            long length = Math.min(chunkBytes, end - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            // Bulk copies out of the mapping are much cheaper than get() per byte
+            while (window.hasRemaining()) {
+                int n = Math.min(copy.length, window.remaining());
+                window.get(copy, 0, n);
+                parser.feed(copy, 0, n, out);
+            }
+        }
+    }
+
+    /**
+     * Cuts the file into roughly equal ranges, one batch per core, each starting
+     * right after a newline so no row straddles two ranges.
+     */
+    private static long[] splitAtNewlines(FileChannel channel, long total) throws IOException {
+        int parts = Runtime.getRuntime().availableProcessors() * 4;
+        parts = (int) Math.max(parts, (total + MAX_RANGE_BYTES - 1) / MAX_RANGE_BYTES);
+        parts = (int) Math.max(1, Math.min(parts, total / MIN_RANGE_BYTES));
+
+        long[] bounds = new long[parts + 1];
+        int count = 0;
+        bounds[count++] = 0;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int k = 1; k < parts; k++) {
+            long position = Math.max(total * k / parts, bounds[count - 1]);
+            long boundary = nextLineStart(channel, position, total, probe);
+            if (boundary > bounds[count - 1] && boundary < total) {
+                bounds[count++] = boundary;
+            }
+        }
+        bounds[count++] = total;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long total, ByteBuffer probe) throws IOException {
+        while (position < total) {
+            probe.clear();
+            int n = channel.read(probe, position);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return total;
+    }
+
+    // Running ranges see the flag at their next window; queued ones never start
+    private static void cancelAll(List<Future<RangeResult>> tasks, AtomicBoolean cancelled) {
+        cancelled.set(true);
+        for (Future<RangeResult> task : tasks) {
+            task.cancel(false);
+        }
+    }
+
+    private static class RangeResult {
+        final SampleColumns columns;
+        final int rows;
+        final int skippedRows;
+
+        RangeResult(SampleColumns columns, int rows, int skippedRows) {
+            this.columns = columns;
+            this.rows = rows;
+            this.skippedRows = skippedRows;
+        }
+    }
+}
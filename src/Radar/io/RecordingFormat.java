@@ -0,0 +1,87 @@
+package Radar.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of the binary radar recording (.rdr), shared by {@link RecordingWriter}
+ * and {@link RecordingReader}. All values are little-endian.
+ *
+ * <pre>
+ * header   magic "RDR1" (int), version (short), reserved (short),
+ *          block size in rows (int), detection threshold in cm (int)
+ *          [versions 1-2; 0 from version 3]
+ * block    row count (int), payload length (int), payload:
+ *            first timestamp (long), then zig-zag varint deltas of the
+ *            remaining timestamps, then of all degrees, then of all distances,
+ *            then one detected bit per row, packed low bit first   [version 3]
+ *            and zig-zag varint deltas of the sensor ids, -1 for a
+ *            single-sensor capture                                 [version 3]
+ * index    one entry per block: offset (long), first timestamp (long),
+ *          last timestamp (long), rows (int), min distance (short),
+ *          max distance (short), detections (int)
+ * gaps     one entry per outage: first row after it (long),
+ *          start (long), end (long), in host time              [version 2]
+ * trailer  index offset (long), total rows (long), block count (int),
+ *          gap count (int) [version 2], magic "RDRX" (int)
+ * </pre>
+ *
+ * Before version 3 a row's detection was not stored; readers judge those rows
+ * against the header threshold, and give them no sensor.
+ *
+ * The trailer sits at a fixed distance from the end of the file, so a reader
+ * finds the index with two small reads and never scans the blocks. A file cut
+ * short before its trailer (a crash mid-capture) can still be read by walking
+ * the block headers from the start; see {@link RecordingReader}.
+ */
+final class RecordingFormat {
+
+    static final String EXTENSION = "rdr";
+
+    static final int MAGIC = 0x31524452;         // "RDR1" little-endian
+    static final int TRAILER_MAGIC = 0x58524452; // "RDRX" little-endian
+    static final short VERSION = 3;
+
+    static final int HEADER_SIZE = 16;
+    static final int BLOCK_HEADER_SIZE = 8;
+    static final int INDEX_ENTRY_SIZE = 36;
+    static final int GAP_ENTRY_SIZE = 24;
+    static final int TRAILER_SIZE = 28;
+
+    /** Version 1 files have no gap table and no gap count in the trailer. */
+    static int trailerSize(int version) {
+        return version >= 2 ? TRAILER_SIZE : TRAILER_SIZE - 4;
+    }
+
+    static final int DEFAULT_BLOCK_ROWS = 4096;
+    static final int DEFAULT_CHECKPOINT_BLOCKS = 16;
+    static final int MAX_VARINT_BYTES = 10;
+
+    private RecordingFormat() {
+    }
+
+    /** Largest payload a block of {@code rows} rows can encode to. */
+    static long maxPayloadLength(int rows) {
+        return 8 + (long) rows * 4 * MAX_VARINT_BYTES + (rows + 7) / 8;
+    }
+
+    static void putVarLong(ByteBuffer out, long value) {
+        long v = (value << 1) ^ (value >> 63); // zig-zag: small negatives stay short
+        while ((v & ~0x7FL) != 0) {
+            out.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.put((byte) v);
+    }
+
+    static long getVarLong(ByteBuffer in) {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
@@ -0,0 +1,423 @@
+package Radar.io;
+
+import Radar.core.SampleColumns;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Random-access reader for binary radar recordings (see {@link RecordingFormat}).
+ *
+ * Opening a recording reads only the header, trailer and block index. Per-block
+ * summaries (time span, min/max distance, detections) come straight from the
+ * index, and {@link #read} decodes just the blocks overlapping the requested
+ * time range, found by binary search. Recorded outages are returned as gaps
+ * in the loaded columns, and each row keeps the detection recorded with it
+ * (judged against the header threshold in files older than version 3).
+ *
+ * A file with no valid trailer, left behind by a capture that did not close,
+ * is recovered by walking the block headers from the start and rebuilding the
+ * index from the blocks themselves, stopping at the first incomplete block.
+ * Outages are not recovered that way; see {@link #isRecovered()}.
+ *
+ * Reads use positional I/O, so one reader can serve several threads.
+ */
+public class RecordingReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final short version;
+    private final int blockSize;
+    private final int detectionThreshold;
+    private final boolean recovered;
+    private long rowCount;
+    private int blockCount;
+
+    private long[] blockOffsets;
+    private long[] blockFirst;
+    private long[] blockLast;
+    private int[] blockRows;
+    private short[] blockMin;
+    private short[] blockMax;
+    private int[] blockDetections;
+    private long[] blockFirstRow;
+    private long[] gapRows;
+    private long[] gapStarts;
+    private long[] gapEnds;
+
+    public RecordingReader(File file) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < RecordingFormat.HEADER_SIZE) {
+                throw new IOException("Not a radar recording: " + file.getName());
+            }
+            ByteBuffer header = readAt(0, RecordingFormat.HEADER_SIZE);
+            if (header.getInt() != RecordingFormat.MAGIC) {
+                throw new IOException("Not a radar recording: " + file.getName());
+            }
+            version = header.getShort();
+            if (version < 1 || version > RecordingFormat.VERSION) {
+                throw new IOException("Unsupported recording version " + version);
+            }
+            header.getShort();
+            blockSize = header.getInt();
+            detectionThreshold = header.getInt();
+            if (blockSize < 1) {
+                throw new IOException("Not a radar recording: " + file.getName());
+            }
+            recovered = !readIndex(size, version);
+            if (recovered) {
+                recoverIndex(size);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Whether {@code file} looks like a recording by name; contents are checked on open. */
+    public static boolean isRecording(File file) {
+        return file.getName().toLowerCase().endsWith("." + RecordingFormat.EXTENSION);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /** Format version of the file; see {@link RecordingFormat}. */
+    public int getVersion() {
+        return version;
+    }
+
+    /** Threshold older recordings are judged against; 0 from version 3, whose rows carry their detection. */
+    public int getDetectionThreshold() {
+        return detectionThreshold;
+    }
+
+    /**
+     * Whether the file had no usable trailer and its index was rebuilt from the
+     * blocks. A recovered recording has no gaps and ends at the last complete block.
+     */
+    public boolean isRecovered() {
+        return recovered;
+    }
+
+    /** Timestamp of the first row, or 0 for an empty recording. */
+    public long getFirstTimestamp() {
+        return blockCount > 0 ? blockFirst[0] : 0;
+    }
+
+    /** Timestamp of the last row, or 0 for an empty recording. */
+    public long getLastTimestamp() {
+        return blockCount > 0 ? blockLast[blockCount - 1] : 0;
+    }
+
+    public long blockFirstTimestamp(int block) {
+        return blockFirst[block];
+    }
+
+    public long blockLastTimestamp(int block) {
+        return blockLast[block];
+    }
+
+    public int blockRows(int block) {
+        return blockRows[block];
+    }
+
+    public int blockMinDistance(int block) {
+        return blockMin[block];
+    }
+
+    public int blockMaxDistance(int block) {
+        return blockMax[block];
+    }
+
+    public int blockDetections(int block) {
+        return blockDetections[block];
+    }
+
+    /** Outages recorded while capturing, in the order they happened. */
+    public int getGapCount() {
+        return gapStarts.length;
+    }
+
+    /** Index of the first row recorded after the outage. */
+    public long gapRow(int gap) {
+        return gapRows[gap];
+    }
+
+    /** Host time the link was lost. */
+    public long gapStart(int gap) {
+        return gapStarts[gap];
+    }
+
+    /** Host time the link came back. */
+    public long gapEnd(int gap) {
+        return gapEnds[gap];
+    }
+
+    /** First block that may hold rows at or after {@code timestamp}; {@code getBlockCount()} if none. */
+    public int findBlock(long timestamp) {
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blockLast[mid] < timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Appends the rows with {@code from <= timestamp <= to} to {@code out} and
+     * returns how many were added. Only overlapping blocks are read. The first
+     * row after each recorded outage is marked as following a gap.
+     */
+    public int read(long from, long to, SampleColumns out) throws IOException {
+        int added = 0;
+        short[] degrees = new short[blockSize];
+        short[] distances = new short[blockSize];
+        long[] timestamps = new long[blockSize];
+        boolean[] detections = new boolean[blockSize];
+        int[] sensors = new int[blockSize];
+        int b = findBlock(from);
+        int gap = 0;
+        while (b < blockCount && gap < gapRows.length && gapRows[gap] < blockFirstRow[b]) {
+            gap++; // before the first block read
+        }
+        for (; b < blockCount && blockFirst[b] <= to; b++) {
+            int rows = readBlock(b, degrees, distances, timestamps, detections, sensors);
+            for (int i = 0; i < rows; i++) {
+                long row = blockFirstRow[b] + i;
+                boolean inRange = timestamps[i] >= from && timestamps[i] <= to;
+                while (gap < gapRows.length && gapRows[gap] <= row) {
+                    if (inRange) {
+                        out.markGap();
+                    }
+                    gap++;
+                }
+                if (inRange) {
+                    out.add(degrees[i], distances[i], timestamps[i], detections[i]);
+                    added++;
+                }
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Decodes block {@code block} into the given columns and returns its row
+     * count. Rows of a single-sensor capture, or of a file older than version
+     * 3, have sensor {@link AsyncCsvWriter#NO_SENSOR}.
+     */
+    public int readBlock(int block, short[] degrees, short[] distances, long[] timestamps,
+                         boolean[] detections, int[] sensors) throws IOException {
+        ByteBuffer head = readAt(blockOffsets[block], RecordingFormat.BLOCK_HEADER_SIZE);
+        int rows = head.getInt();
+        int length = head.getInt();
+        ByteBuffer payload = readAt(blockOffsets[block] + RecordingFormat.BLOCK_HEADER_SIZE, length);
+        decode(payload, rows, degrees, distances, timestamps, detections, sensors);
+        return rows;
+    }
+
+    private void decode(ByteBuffer payload, int rows, short[] degrees, short[] distances, long[] timestamps,
+                        boolean[] detections, int[] sensors) {
+        long timestamp = payload.getLong();
+        timestamps[0] = timestamp;
+        for (int i = 1; i < rows; i++) {
+            timestamp += RecordingFormat.getVarLong(payload);
+            timestamps[i] = timestamp;
+        }
+        int value = 0;
+        for (int i = 0; i < rows; i++) {
+            value += (int) RecordingFormat.getVarLong(payload);
+            degrees[i] = (short) value;
+        }
+        value = 0;
+        for (int i = 0; i < rows; i++) {
+            value += (int) RecordingFormat.getVarLong(payload);
+            distances[i] = (short) value;
+        }
+        if (version < 3) {
+            for (int i = 0; i < rows; i++) {
+                detections[i] = distances[i] < detectionThreshold;
+                sensors[i] = AsyncCsvWriter.NO_SENSOR;
+            }
+            return;
+        }
+        for (int i = 0; i < rows; i += 8) {
+            int bits = payload.get();
+            for (int j = 0; j < 8 && i + j < rows; j++) {
+                detections[i + j] = (bits & (1 << j)) != 0;
+            }
+        }
+        value = 0;
+        for (int i = 0; i < rows; i++) {
+            value += (int) RecordingFormat.getVarLong(payload);
+            sensors[i] = value;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Loads the index named by the trailer; false if there is no trailer that fits the file. */
+    private boolean readIndex(long size, short version) throws IOException {
+        int trailerSize = RecordingFormat.trailerSize(version);
+        if (size < RecordingFormat.HEADER_SIZE + trailerSize) {
+            return false;
+        }
+        ByteBuffer trailer = readAt(size - trailerSize, trailerSize);
+        long indexOffset = trailer.getLong();
+        long rows = trailer.getLong();
+        int blocks = trailer.getInt();
+        int gapCount = version >= 2 ? trailer.getInt() : 0;
+        if (trailer.getInt() != RecordingFormat.TRAILER_MAGIC || indexOffset < RecordingFormat.HEADER_SIZE
+                || blocks < 0 || gapCount < 0
+                || indexOffset + (long) blocks * RecordingFormat.INDEX_ENTRY_SIZE
+                        + (long) gapCount * RecordingFormat.GAP_ENTRY_SIZE + trailerSize != size) {
+            return false;
+        }
+        rowCount = rows;
+        blockCount = blocks;
+
+        allocateIndex(blockCount);
+        ByteBuffer index = readAt(indexOffset, blockCount * RecordingFormat.INDEX_ENTRY_SIZE);
+        for (int b = 0; b < blockCount; b++) {
+            blockOffsets[b] = index.getLong();
+            blockFirst[b] = index.getLong();
+            blockLast[b] = index.getLong();
+            blockRows[b] = index.getInt();
+            blockMin[b] = index.getShort();
+            blockMax[b] = index.getShort();
+            blockDetections[b] = index.getInt();
+            blockFirstRow[b] = b == 0 ? 0 : blockFirstRow[b - 1] + blockRows[b - 1];
+        }
+
+        gapRows = new long[gapCount];
+        gapStarts = new long[gapCount];
+        gapEnds = new long[gapCount];
+        ByteBuffer gaps = readAt(indexOffset + (long) blockCount * RecordingFormat.INDEX_ENTRY_SIZE,
+                gapCount * RecordingFormat.GAP_ENTRY_SIZE);
+        for (int i = 0; i < gapCount; i++) {
+            gapRows[i] = gaps.getLong();
+            gapStarts[i] = gaps.getLong();
+            gapEnds[i] = gaps.getLong();
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds the index by decoding each block in turn, stopping at the first
+     * one that is cut short or does not decode to exactly its stated length.
+     */
+    private void recoverIndex(long size) throws IOException {
+        allocateIndex(64);
+        gapRows = new long[0];
+        gapStarts = new long[0];
+        gapEnds = new long[0];
+        short[] degrees = new short[blockSize];
+        short[] distances = new short[blockSize];
+        long[] timestamps = new long[blockSize];
+        boolean[] detections = new boolean[blockSize];
+        int[] sensors = new int[blockSize];
+        long maxLength = RecordingFormat.maxPayloadLength(blockSize);
+
+        long offset = RecordingFormat.HEADER_SIZE;
+        while (offset + RecordingFormat.BLOCK_HEADER_SIZE <= size) {
+            ByteBuffer head = readAt(offset, RecordingFormat.BLOCK_HEADER_SIZE);
+            int rows = head.getInt();
+            int length = head.getInt();
+            if (rows < 1 || rows > blockSize || length < 8 || length > maxLength
+                    || offset + RecordingFormat.BLOCK_HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = readAt(offset + RecordingFormat.BLOCK_HEADER_SIZE, length);
+            try {
+                decode(payload, rows, degrees, distances, timestamps, detections, sensors);
+            } catch (BufferUnderflowException e) {
+                break;
+            }
+            if (payload.hasRemaining()) {
+                break;
+            }
+
+            if (blockCount == blockOffsets.length) {
+                growIndex(blockCount * 2);
+            }
+            int min = Short.MAX_VALUE;
+            int max = Short.MIN_VALUE;
+            int detected = 0;
+            for (int i = 0; i < rows; i++) {
+                min = Math.min(min, distances[i]);
+                max = Math.max(max, distances[i]);
+                if (detections[i]) {
+                    detected++;
+                }
+            }
+            blockOffsets[blockCount] = offset;
+            blockFirst[blockCount] = timestamps[0];
+            blockLast[blockCount] = timestamps[rows - 1];
+            blockRows[blockCount] = rows;
+            blockMin[blockCount] = (short) min;
+            blockMax[blockCount] = (short) max;
+            blockDetections[blockCount] = detected;
+            blockFirstRow[blockCount] = rowCount;
+            blockCount++;
+            rowCount += rows;
+            offset += RecordingFormat.BLOCK_HEADER_SIZE + length;
+        }
+    }
+
+    private void allocateIndex(int capacity) {
+        blockOffsets = new long[capacity];
+        blockFirst = new long[capacity];
+        blockLast = new long[capacity];
+        blockRows = new int[capacity];
+        blockMin = new short[capacity];
+        blockMax = new short[capacity];
+        blockDetections = new int[capacity];
+        blockFirstRow = new long[capacity];
+    }
+
+    private void growIndex(int capacity) {
+        blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+        blockFirst = Arrays.copyOf(blockFirst, capacity);
+        blockLast = Arrays.copyOf(blockLast, capacity);
+        blockRows = Arrays.copyOf(blockRows, capacity);
+        blockMin = Arrays.copyOf(blockMin, capacity);
+        blockMax = Arrays.copyOf(blockMax, capacity);
+        blockDetections = Arrays.copyOf(blockDetections, capacity);
+        blockFirstRow = Arrays.copyOf(blockFirstRow, capacity);
+    }
+
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of recording");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,288 @@
+package Radar.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes samples to a binary radar recording (see {@link RecordingFormat}).
+ *
+ * Rows are collected into a block of primitive columns; when the block is full
+ * it is delta-encoded and written in one go, and its summary is kept for the
+ * index that {@link #close()} appends. A one-row-per-60-ms capture takes about
+ * five bytes per row, against twenty-five or so for the CSV log. Outages
+ * reported through {@link #markGap} are stored in a table after the index.
+ *
+ * So that a crash does not cost the whole index, a checkpoint (index, gap table
+ * and trailer) is also written after every {@code checkpointBlocks} blocks and
+ * on {@link #force()}. The next block is written over it, truncating the file
+ * first, so a trailer is only ever present when it describes the file. Rows in
+ * the unfinished block are lost on a crash; {@link RecordingReader} recovers
+ * the complete blocks of a file without a trailer.
+ *
+ * Not thread-safe; feed it from one thread (e.g. the {@link AsyncCsvWriter}
+ * writer thread). Timestamps should not go backwards, since readers seek by
+ * binary search over the block index.
+ */
+public class RecordingWriter implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    // Current block
+    private final short[] degrees;
+    private final short[] distances;
+    private final long[] timestamps;
+    private final boolean[] detections;
+    private final int[] sensors;
+    private int rows = 0;
+
+    // Index, one entry per written block
+    private long[] blockOffsets = new long[64];
+    private long[] blockFirst = new long[64];
+    private long[] blockLast = new long[64];
+    private int[] blockRows = new int[64];
+    private short[] blockMin = new short[64];
+    private short[] blockMax = new short[64];
+    private int[] blockDetections = new int[64];
+    private int blockCount = 0;
+
+    private long[] gapRows = new long[8];
+    private long[] gapStarts = new long[8];
+    private long[] gapEnds = new long[8];
+    private int gapCount = 0;
+
+    private final int checkpointBlocks;
+    private int checkpointedBlocks = 0;
+    private boolean checkpointPending = false; // a checkpoint follows the last block
+
+    private long position;
+    private long totalRows = 0;
+    private boolean closed = false;
+
+    public RecordingWriter(File file) throws IOException {
+        this(file, RecordingFormat.DEFAULT_BLOCK_ROWS, RecordingFormat.DEFAULT_CHECKPOINT_BLOCKS);
+    }
+
+    /** @param checkpointBlocks blocks between index checkpoints; 0 writes the index only on close and {@link #force()} */
+    public RecordingWriter(File file, int blockRows, int checkpointBlocks) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.checkpointBlocks = checkpointBlocks;
+        this.degrees = new short[blockRows];
+        this.distances = new short[blockRows];
+        this.timestamps = new long[blockRows];
+        this.detections = new boolean[blockRows];
+        this.sensors = new int[blockRows];
+        this.buffer = ByteBuffer.allocate((int) (RecordingFormat.BLOCK_HEADER_SIZE
+                + RecordingFormat.maxPayloadLength(blockRows))).order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(RecordingFormat.MAGIC);
+        buffer.putShort(RecordingFormat.VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(blockRows);
+        buffer.putInt(0); // no threshold: each row carries its own detection
+        writeBuffer();
+    }
+
+    /**
+     * Adds a row with the detection judged when it was captured.
+     *
+     * @param sensorId the sensor that took it, or {@link AsyncCsvWriter#NO_SENSOR}
+     */
+    public void append(int degree, int distance, long timestamp, boolean detected, int sensorId) throws IOException {
+        degrees[rows] = (short) degree;
+        distances[rows] = (short) distance;
+        timestamps[rows] = timestamp;
+        detections[rows] = detected;
+        sensors[rows] = sensorId;
+        rows++;
+        if (rows == timestamps.length) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Records that no data was captured between {@code start} and {@code end}
+     * (host time). The gap is placed before the next appended row.
+     */
+    public void markGap(long start, long end) {
+        if (gapCount == gapStarts.length) {
+            gapRows = Arrays.copyOf(gapRows, gapCount * 2);
+            gapStarts = Arrays.copyOf(gapStarts, gapCount * 2);
+            gapEnds = Arrays.copyOf(gapEnds, gapCount * 2);
+        }
+        gapRows[gapCount] = getRowCount();
+        gapStarts[gapCount] = start;
+        gapEnds[gapCount] = end;
+        gapCount++;
+    }
+
+    /**
+     * Writes a checkpoint if blocks were added since the last one and forces the
+     * file to disk. Rows of the unfinished block stay in memory.
+     */
+    public void force() throws IOException {
+        if (blockCount > checkpointedBlocks) {
+            writeCheckpoint();
+        }
+        channel.force(false);
+    }
+
+    /** Writes any partial block, then the index, gap table and trailer. */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writeBlock();
+            writeCheckpoint();
+        } finally {
+            channel.close();
+        }
+    }
+
+    public long getRowCount() {
+        return totalRows + rows;
+    }
+
+    /** Writes the index, gap table and trailer after the last block, leaving {@link #position} there. */
+    private void writeCheckpoint() throws IOException {
+        dropCheckpoint();
+        long indexOffset = position;
+        for (int b = 0; b < blockCount; b++) {
+            if (buffer.remaining() < RecordingFormat.INDEX_ENTRY_SIZE + RecordingFormat.TRAILER_SIZE) {
+                writeBuffer();
+            }
+            buffer.putLong(blockOffsets[b]);
+            buffer.putLong(blockFirst[b]);
+            buffer.putLong(blockLast[b]);
+            buffer.putInt(blockRows[b]);
+            buffer.putShort(blockMin[b]);
+            buffer.putShort(blockMax[b]);
+            buffer.putInt(blockDetections[b]);
+        }
+        // Gaps recorded ahead of rows still in the open block point past
+        // totalRows; readers only apply gaps before rows they decode
+        for (int i = 0; i < gapCount; i++) {
+            if (buffer.remaining() < RecordingFormat.GAP_ENTRY_SIZE + RecordingFormat.TRAILER_SIZE) {
+                writeBuffer();
+            }
+            buffer.putLong(gapRows[i]);
+            buffer.putLong(gapStarts[i]);
+            buffer.putLong(gapEnds[i]);
+        }
+        buffer.putLong(indexOffset);
+        buffer.putLong(totalRows);
+        buffer.putInt(blockCount);
+        buffer.putInt(gapCount);
+        buffer.putInt(RecordingFormat.TRAILER_MAGIC);
+        writeBuffer();
+        position = indexOffset;
+        checkpointedBlocks = blockCount;
+        checkpointPending = true;
+    }
+
+    /** Cuts the file back to the last block so the next write cannot leave a stale trailer behind. */
+    private void dropCheckpoint() throws IOException {
+        if (checkpointPending) {
+            channel.truncate(position);
+            channel.position(position);
+            checkpointPending = false;
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        dropCheckpoint();
+        int min = Short.MAX_VALUE;
+        int max = Short.MIN_VALUE;
+        int detected = 0;
+
+        buffer.putInt(rows);
+        int lengthAt = buffer.position();
+        buffer.putInt(0); // payload length, patched below
+
+        // Columnar: each column's deltas sit together, so runs of
+        // constant degree or steady timing compress to one byte per row
+        buffer.putLong(timestamps[0]);
+        for (int i = 1; i < rows; i++) {
+            RecordingFormat.putVarLong(buffer, timestamps[i] - timestamps[i - 1]);
+        }
+        int previous = 0;
+        for (int i = 0; i < rows; i++) {
+            RecordingFormat.putVarLong(buffer, degrees[i] - previous);
+            previous = degrees[i];
+        }
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            int distance = distances[i];
+            RecordingFormat.putVarLong(buffer, distance - previous);
+            previous = distance;
+            min = Math.min(min, distance);
+            max = Math.max(max, distance);
+        }
+        for (int i = 0; i < rows; i += 8) {
+            int bits = 0;
+            for (int j = 0; j < 8 && i + j < rows; j++) {
+                if (detections[i + j]) {
+                    bits |= 1 << j;
+                    detected++;
+                }
+            }
+            buffer.put((byte) bits);
+        }
+        previous = 0;
+        for (int i = 0; i < rows; i++) {
+            RecordingFormat.putVarLong(buffer, sensors[i] - previous);
+            previous = sensors[i];
+        }
+        buffer.putInt(lengthAt, buffer.position() - lengthAt - 4);
+
+        if (blockCount == blockOffsets.length) {
+            growIndex();
+        }
+        blockOffsets[blockCount] = position;
+        blockFirst[blockCount] = timestamps[0];
+        blockLast[blockCount] = timestamps[rows - 1];
+        blockRows[blockCount] = rows;
+        blockMin[blockCount] = (short) min;
+        blockMax[blockCount] = (short) max;
+        blockDetections[blockCount] = detected;
+        blockCount++;
+
+        totalRows += rows;
+        rows = 0;
+        writeBuffer();
+        if (checkpointBlocks > 0 && blockCount - checkpointedBlocks >= checkpointBlocks) {
+            writeCheckpoint();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void growIndex() {
+        int capacity = blockOffsets.length * 2;
+        blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+        blockFirst = Arrays.copyOf(blockFirst, capacity);
+        blockLast = Arrays.copyOf(blockLast, capacity);
+        blockRows = Arrays.copyOf(blockRows, capacity);
+        blockMin = Arrays.copyOf(blockMin, capacity);
+        blockMax = Arrays.copyOf(blockMax, capacity);
+        blockDetections = Arrays.copyOf(blockDetections, capacity);
+    }
+}
@@ -0,0 +1,12 @@
+package Radar.pipeline;
+
+/** Decides whether a filtered sample counts as a detection. Called from the source thread only. */
+public interface DetectionRule {
+
+    boolean isDetected(int sensorId, long timestamp, int degree, int distance);
+
+    /** The dashboards' classic rule: anything closer than {@code threshold} cm. */
+    static DetectionRule closerThan(int threshold) {
+        return (sensorId, timestamp, degree, distance) -> distance < threshold;
+    }
+}
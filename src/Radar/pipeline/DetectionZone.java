@@ -0,0 +1,92 @@
+package Radar.pipeline;
+
+/**
+ * One sector of the sweep with its own detection band, as configured for
+ * {@link ZoneRules}. A reading in the sector counts as inside when
+ * {@code minDistance <= distance < maxDistance}.
+ */
+public class DetectionZone {
+
+    public static final int DEFAULT_MARGIN = 10; // cm between entering and leaving
+
+    private final String name;
+    private final int fromDegree;
+    private final int toDegree;
+    private final int minDistance;
+    private final int maxDistance;
+    private final long dwellMs;
+    private final long holdMs;
+    private final int margin;
+
+    /**
+     * @param dwellMs how long readings must stay inside the band before the zone is entered
+     * @param holdMs  how long the zone stays entered without an inside reading (one sweep period for a servo)
+     * @param margin  how far outside the band a reading must be to leave the zone
+     */
+    public DetectionZone(String name, int fromDegree, int toDegree, int minDistance, int maxDistance,
+                         long dwellMs, long holdMs, int margin) {
+        if (fromDegree < 0 || toDegree > 180 || fromDegree > toDegree) {
+            throw new IllegalArgumentException("Zone " + name + ": degrees must be an ascending range within 0-180");
+        }
+        if (minDistance < 0 || minDistance >= maxDistance) {
+            throw new IllegalArgumentException("Zone " + name + ": empty distance band " + minDistance + "-" + maxDistance);
+        }
+        if (dwellMs < 0 || holdMs < 0 || margin < 0) {
+            throw new IllegalArgumentException("Zone " + name + ": dwell, hold and margin must not be negative");
+        }
+        this.name = name;
+        this.fromDegree = fromDegree;
+        this.toDegree = toDegree;
+        this.minDistance = minDistance;
+        this.maxDistance = maxDistance;
+        this.dwellMs = dwellMs;
+        this.holdMs = holdMs;
+        this.margin = margin;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getFromDegree() {
+        return fromDegree;
+    }
+
+    public int getToDegree() {
+        return toDegree;
+    }
+
+    public int getMinDistance() {
+        return minDistance;
+    }
+
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    public long getDwellMs() {
+        return dwellMs;
+    }
+
+    public long getHoldMs() {
+        return holdMs;
+    }
+
+    public int getMargin() {
+        return margin;
+    }
+
+    boolean isInside(int distance) {
+        return distance >= minDistance && distance < maxDistance;
+    }
+
+    // Inside the band widened by the margin, i.e. not far enough out to leave
+    boolean isNear(int distance) {
+        return distance >= minDistance - margin && distance < maxDistance + margin;
+    }
+
+    @Override
+    public String toString() {
+        return name + " " + fromDegree + "-" + toDegree + "° " + minDistance + "-" + maxDistance + "cm";
+    }
+}
@@ -0,0 +1,91 @@
+package Radar.pipeline;
+
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+
+/**
+ * Runs a Swing-bound sink on the EDT. Samples of a batch are collected on the
+ * sink thread and replayed to {@code target} in one EDT task, followed by one
+ * {@link SampleSink#flush()}. The sink thread waits for that task, so a busy
+ * EDT backs samples up into the {@link SinkBuffer}, where its overflow policy
+ * applies, rather than into an ever-growing event queue.
+ */
+public class EdtSink implements SampleSink {
+
+    private final SampleSink target;
+    private final Runnable replay = this::replay;
+
+    // Written by the sink thread, read on the EDT while the sink thread waits
+    private int[] sensors = new int[512];
+    private long[] timestamps = new long[512];
+    private long[] gapEnds = new long[512];
+    private int[] degrees = new int[512];
+    private int[] distances = new int[512];
+    private byte[] kinds = new byte[512]; // 0 sample, 1 detection, 2 gap
+    private int count = 0;
+
+    public EdtSink(SampleSink target) {
+        this.target = target;
+    }
+
+    @Override
+    public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+        add(sensorId, timestamp, 0, degree, distance, (byte) (detected ? 1 : 0));
+    }
+
+    @Override
+    public void gap(int sensorId, long start, long end) {
+        add(sensorId, start, end, 0, 0, (byte) 2);
+    }
+
+    @Override
+    public void flush() {
+        if (count == 0) {
+            return;
+        }
+        try {
+            SwingUtilities.invokeAndWait(replay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // pipeline stopping; the batch is abandoned
+        } catch (InvocationTargetException e) {
+            System.err.println("UI sink failed: " + e.getCause());
+        }
+        count = 0;
+    }
+
+    @Override
+    public void close() {
+        SwingUtilities.invokeLater(target::close);
+    }
+
+    private void add(int sensorId, long timestamp, long gapEnd, int degree, int distance, byte kind) {
+        if (count == sensors.length) {
+            int capacity = count * 2;
+            sensors = Arrays.copyOf(sensors, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            gapEnds = Arrays.copyOf(gapEnds, capacity);
+            degrees = Arrays.copyOf(degrees, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            kinds = Arrays.copyOf(kinds, capacity);
+        }
+        sensors[count] = sensorId;
+        timestamps[count] = timestamp;
+        gapEnds[count] = gapEnd;
+        degrees[count] = degree;
+        distances[count] = distance;
+        kinds[count] = kind;
+        count++;
+    }
+
+    private void replay() {
+        for (int i = 0; i < count; i++) {
+            if (kinds[i] == 2) {
+                target.gap(sensors[i], timestamps[i], gapEnds[i]);
+            } else {
+                target.accept(sensors[i], timestamps[i], degrees[i], distances[i], kinds[i] == 1);
+            }
+        }
+        target.flush();
+    }
+}
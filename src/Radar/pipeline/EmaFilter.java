@@ -0,0 +1,42 @@
+package Radar.pipeline;
+
+import java.util.Arrays;
+
+/**
+ * Exponential moving average per sensor and degree (see
+ * {@link SampleFilter#slot}): {@code s += alpha * (x - s)}. Cheap
+ * and smooth, but a glitch still pulls the output by {@code alpha} of its size,
+ * so it works best after a {@link MedianFilter}.
+ */
+public class EmaFilter implements SampleFilter {
+
+    public static final double DEFAULT_ALPHA = 0.3;
+
+    private final double alpha;
+    private double[] smoothed = new double[0];
+    private boolean[] started = new boolean[0];
+
+    /** @param alpha weight of the newest reading, 0 (frozen) to 1 (raw) */
+    public EmaFilter(double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Alpha must be in (0, 1]: " + alpha);
+        }
+        this.alpha = alpha;
+    }
+
+    @Override
+    public int filter(int sensorId, long timestamp, int degree, int distance) {
+        int slot = SampleFilter.slot(sensorId, degree);
+        if (slot >= smoothed.length) {
+            smoothed = Arrays.copyOf(smoothed, (sensorId + 1) * DEGREES);
+            started = Arrays.copyOf(started, (sensorId + 1) * DEGREES);
+        }
+        if (!started[slot]) {
+            started[slot] = true;
+            smoothed[slot] = distance;
+        } else {
+            smoothed[slot] += alpha * (distance - smoothed[slot]);
+        }
+        return (int) Math.round(smoothed[slot]);
+    }
+}
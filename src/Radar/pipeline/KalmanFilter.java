@@ -0,0 +1,47 @@
+package Radar.pipeline;
+
+import java.util.Arrays;
+
+/**
+ * One-dimensional Kalman filter per sensor and degree (see
+ * {@link SampleFilter#slot}) with a constant-distance model.
+ * Each reading is weighted by the current estimate's uncertainty, so the
+ * output settles quickly after start-up and then follows slow motion while
+ * damping measurement noise. {@code processNoise} is how far the true distance
+ * may drift per sample (cm^2); {@code measurementNoise} is the sensor's
+ * variance (cm^2).
+ */
+public class KalmanFilter implements SampleFilter {
+
+    public static final double DEFAULT_PROCESS_NOISE = 4;
+    public static final double DEFAULT_MEASUREMENT_NOISE = 25; // HC-SR04 jitter of a few cm
+
+    private final double processNoise;
+    private final double measurementNoise;
+    private double[] estimates = new double[0];
+    private double[] errors = new double[0]; // variance of the estimate; 0 before the first reading
+
+    public KalmanFilter(double processNoise, double measurementNoise) {
+        this.processNoise = processNoise;
+        this.measurementNoise = measurementNoise;
+    }
+
+    @Override
+    public int filter(int sensorId, long timestamp, int degree, int distance) {
+        int slot = SampleFilter.slot(sensorId, degree);
+        if (slot >= estimates.length) {
+            estimates = Arrays.copyOf(estimates, (sensorId + 1) * DEGREES);
+            errors = Arrays.copyOf(errors, (sensorId + 1) * DEGREES);
+        }
+        if (errors[slot] == 0) {
+            estimates[slot] = distance;
+            errors[slot] = measurementNoise;
+            return distance;
+        }
+        double predicted = errors[slot] + processNoise;
+        double gain = predicted / (predicted + measurementNoise);
+        estimates[slot] += gain * (distance - estimates[slot]);
+        errors[slot] = (1 - gain) * predicted;
+        return (int) Math.round(estimates[slot]);
+    }
+}
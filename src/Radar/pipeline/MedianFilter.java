@@ -0,0 +1,65 @@
+package Radar.pipeline;
+
+import java.util.Arrays;
+
+/**
+ * Median of the last {@code window} readings of each sensor at each degree
+ * (see {@link SampleFilter#slot}). Removes the isolated
+ * echo glitches of ultrasonic sensors (a lone 3 cm or 400 cm among steady
+ * readings) without smearing real steps, which come through after
+ * {@code window / 2} samples.
+ */
+public class MedianFilter implements SampleFilter {
+
+    public static final int DEFAULT_WINDOW = 5;
+
+    private final int window;
+    private final int[] scratch;
+    private int[][] history = new int[0][];
+    private int[] counts = new int[0];
+    private int[] positions = new int[0];
+
+    /** @param window number of readings, odd so the median is a reading */
+    public MedianFilter(int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be positive: " + window);
+        }
+        this.window = window;
+        this.scratch = new int[window];
+    }
+
+    @Override
+    public int filter(int sensorId, long timestamp, int degree, int distance) {
+        int slot = SampleFilter.slot(sensorId, degree);
+        if (slot >= history.length) {
+            grow((sensorId + 1) * DEGREES);
+        }
+        int[] values = history[slot];
+        values[positions[slot]] = distance;
+        positions[slot] = (positions[slot] + 1) % window;
+        int n = Math.min(counts[slot] + 1, window);
+        counts[slot] = n;
+
+        // Insertion sort of a handful of values beats any selection algorithm here
+        for (int i = 0; i < n; i++) {
+            int v = values[i];
+            int j = i - 1;
+            while (j >= 0 && scratch[j] > v) {
+                scratch[j + 1] = scratch[j];
+                j--;
+            }
+            scratch[j + 1] = v;
+        }
+        return scratch[n / 2];
+    }
+
+    private void grow(int slots) {
+        int old = history.length;
+        history = Arrays.copyOf(history, slots);
+        for (int i = old; i < slots; i++) {
+            history[i] = new int[window];
+        }
+        counts = Arrays.copyOf(counts, slots);
+        positions = Arrays.copyOf(positions, slots);
+    }
+}
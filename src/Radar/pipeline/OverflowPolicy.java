@@ -0,0 +1,16 @@
+package Radar.pipeline;
+
+/** What a {@link SinkBuffer} does when its sink has fallen behind by its capacity. */
+public enum OverflowPolicy {
+    /** The source waits for the sink. Nothing is lost, but a stalled sink stalls the source. */
+    BLOCK,
+    /** Skip the oldest waiting samples; the sink sees the latest data. */
+    DROP_OLDEST,
+    /**
+     * Once the sink is half its capacity behind keep only every
+     * {@link SinkBuffer#SAMPLE_EVERY}th sample, and skip the oldest while it is
+     * a full capacity behind; the sink sees a thinned-out but evenly spread
+     * stream that catches up quickly.
+     */
+    SAMPLE
+}
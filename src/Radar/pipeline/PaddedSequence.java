@@ -0,0 +1,47 @@
+package Radar.pipeline;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Padding before and after the value keeps it on its own cache line, so a
+// producer and several consumers updating neighbouring counters do not
+// invalidate each other's lines. HotSpot lays out superclass fields first,
+// which is why the padding lives in separate classes.
+abstract class SequenceLeftPad {
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SequenceValue extends SequenceLeftPad {
+    volatile long value;
+}
+
+/**
+ * A long counter padded against false sharing, used for the cursors of
+ * {@link SampleBroadcast}. Writes are release stores: cheaper than a volatile
+ * write, and still enough to publish everything written before them.
+ */
+final class PaddedSequence extends SequenceValue {
+    long p11, p12, p13, p14, p15, p16, p17;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    PaddedSequence(long initial) {
+        value = initial;
+    }
+
+    long get() {
+        return value;
+    }
+
+    void setRelease(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+}
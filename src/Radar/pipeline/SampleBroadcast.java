@@ -0,0 +1,223 @@
+package Radar.pipeline;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Bounded lock-free ring for one producer thread and any number of readers,
+ * each of which sees every entry. {@link SamplePipeline} publishes each sample
+ * once, carrying both its raw and its filtered distance, and every
+ * {@link SinkBuffer} reads the ring at its own pace through a {@link Reader}.
+ *
+ * Entries are copied into preallocated primitive slots, so publishing and
+ * reading never allocate or lock. The tail and the reader cursors are
+ * {@link PaddedSequence}s, each on its own cache line. Gating readers (the
+ * {@link OverflowPolicy#BLOCK} sinks) hold the producer back: it only reuses a
+ * slot once every one of them has moved past it, idling with the
+ * {@link WaitStrategy} meanwhile. Other readers never hold it back; one that
+ * falls a full ring behind is overwritten, and finds out when it reads.
+ */
+final class SampleBroadcast {
+
+    static final byte DETECTED = 1;
+    static final byte GAP = 2;
+    static final byte FILTERED = 4; // dropped by the filter; only raw sinks take it
+
+    private final int[] sensors;
+    private final long[] timestamps;
+    private final long[] gapEnds; // end of a gap; its start is in timestamps
+    private final int[] degrees;
+    private final int[] rawDistances;
+    private final int[] distances;
+    private final byte[] flags;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    private final PaddedSequence tail = new PaddedSequence(0); // next slot to write
+    private volatile Reader[] readers = new Reader[0];          // copy-on-write, guarded by this
+    private long cachedGate = 0;                                // producer's last view of the slowest gating reader
+    private volatile long droppedCount = 0;                     // written by producer only
+
+    /** Capacity is rounded up to a power of two. */
+    SampleBroadcast(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.sensors = new int[size];
+        this.timestamps = new long[size];
+        this.gapEnds = new long[size];
+        this.degrees = new int[size];
+        this.rawDistances = new int[size];
+        this.distances = new int[size];
+        this.flags = new byte[size];
+        this.mask = size - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Adds a reader that sees every entry published from now on. A gating
+     * reader is never overwritten; the producer waits for it instead.
+     */
+    synchronized Reader newReader(boolean gating) {
+        Reader reader = new Reader(tail.get(), gating);
+        Reader[] grown = Arrays.copyOf(readers, readers.length + 1);
+        grown[readers.length] = reader;
+        readers = grown;
+        return reader;
+    }
+
+    /**
+     * Producer side. Waits while a gating reader is a full ring behind; returns
+     * false (and counts a drop) if the producer is interrupted meanwhile.
+     */
+    boolean publish(int sensorId, long timestamp, long gapEnd, int degree, int rawDistance, int distance, byte flag) {
+        long t = tail.get();
+        long wrapPoint = t - (mask + 1);
+        if (wrapPoint >= cachedGate) {
+            cachedGate = slowestGatingReader(t);
+            while (wrapPoint >= cachedGate) {
+                if (Thread.currentThread().isInterrupted()) {
+                    droppedCount++;
+                    return false;
+                }
+                waitStrategy.idle();
+                cachedGate = slowestGatingReader(t);
+            }
+        }
+        // A reader that sees any of the new slot contents also sees the tail
+        // that came before them, which is how it detects being overwritten
+        VarHandle.storeStoreFence();
+        int slot = (int) t & mask;
+        sensors[slot] = sensorId;
+        timestamps[slot] = timestamp;
+        gapEnds[slot] = gapEnd;
+        degrees[slot] = degree;
+        rawDistances[slot] = rawDistance;
+        distances[slot] = distance;
+        flags[slot] = flag;
+        tail.setRelease(t + 1); // publishes the slot contents
+        return true;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /** Entries the producer gave up on while waiting; no reader saw them. */
+    long getDroppedCount() {
+        return droppedCount;
+    }
+
+    private long slowestGatingReader(long t) {
+        long min = t;
+        for (Reader reader : readers) {
+            if (reader.gating) {
+                min = Math.min(min, reader.cursor.get());
+            }
+        }
+        return min;
+    }
+
+    private synchronized void remove(Reader reader) {
+        Reader[] current = readers;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == reader) {
+                Reader[] shrunk = new Reader[current.length - 1];
+                System.arraycopy(current, 0, shrunk, 0, i);
+                System.arraycopy(current, i + 1, shrunk, i, current.length - i - 1);
+                readers = shrunk;
+                return;
+            }
+        }
+    }
+
+    /** Entries copied out of the ring, valid from {@link #start} to {@link #end}. */
+    static final class Batch {
+        final int[] sensors;
+        final long[] timestamps;
+        final long[] gapEnds;
+        final int[] degrees;
+        final int[] rawDistances;
+        final int[] distances;
+        final byte[] flags;
+        int start;
+        int end;
+
+        Batch(int capacity) {
+            sensors = new int[capacity];
+            timestamps = new long[capacity];
+            gapEnds = new long[capacity];
+            degrees = new int[capacity];
+            rawDistances = new int[capacity];
+            distances = new int[capacity];
+            flags = new byte[capacity];
+        }
+    }
+
+    /** One consumer's view of the broadcast. Each reader must be used by a single thread. */
+    final class Reader {
+        private final PaddedSequence cursor; // next slot to read
+        private final boolean gating;
+
+        private Reader(long start, boolean gating) {
+            this.cursor = new PaddedSequence(start);
+            this.gating = gating;
+        }
+
+        /** Entries published but not yet read. */
+        long lag() {
+            return tail.get() - cursor.get();
+        }
+
+        /** Moves past the oldest {@code n} entries without reading them. */
+        void skip(long n) {
+            cursor.setRelease(cursor.get() + n);
+        }
+
+        /**
+         * Copies up to a batch of entries, oldest first, and moves past them.
+         * Returns how many were lost because the producer overwrote them first,
+         * which can only happen to a reader that is not gating.
+         */
+        long read(Batch out) {
+            long c = cursor.get();
+            long t = tail.get();
+            long lost = 0;
+            if (t - c > mask + 1) {
+                lost = t - c - (mask + 1);
+                c = t - (mask + 1);
+            }
+            int n = (int) Math.min(t - c, out.flags.length);
+            for (int i = 0; i < n; i++) {
+                int slot = (int) (c + i) & mask;
+                out.sensors[i] = sensors[slot];
+                out.timestamps[i] = timestamps[slot];
+                out.gapEnds[i] = gapEnds[slot];
+                out.degrees[i] = degrees[slot];
+                out.rawDistances[i] = rawDistances[slot];
+                out.distances[i] = distances[slot];
+                out.flags[i] = flags[slot];
+            }
+            // Entry c + i may have been overwritten once the producer reached c + i + capacity
+            VarHandle.acquireFence();
+            long overwritten = gating ? 0 : Math.max(0, Math.min(n, tail.get() - (mask + 1) - c + 1));
+            out.start = (int) overwritten;
+            out.end = n;
+            cursor.setRelease(c + n); // frees the slots for the producer
+            return lost + overwritten;
+        }
+
+        /** Detaches the reader so it no longer holds the producer back. */
+        void close() {
+            remove(this);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package Radar.pipeline;
+
+/**
+ * Stage between parsing and detection. Returns the distance to pass on, which
+ * may differ from the raw one (smoothing), or {@link #DROP} to discard the
+ * sample. Called from the source thread only.
+ *
+ * Implementations keep their state per sensor and degree in primitive arrays
+ * indexed by {@link #slot}, so filtering a sample does not allocate. Keying by
+ * degree matters for a sweeping sensor: consecutive readings then point in
+ * different directions, and only readings at the same angle describe the same
+ * target.
+ */
+public interface SampleFilter {
+
+    int DROP = -1;
+
+    /** Degrees 0 to 180 inclusive; readings outside are filed under the nearest. */
+    int DEGREES = 181;
+
+    SampleFilter PASS_THROUGH = (sensorId, timestamp, degree, distance) -> distance;
+
+    int filter(int sensorId, long timestamp, int degree, int distance);
+
+    /** Index of the filter state for {@code sensorId} at {@code degree}. */
+    static int slot(int sensorId, int degree) {
+        return sensorId * DEGREES + Math.max(0, Math.min(DEGREES - 1, degree));
+    }
+
+    /** Runs {@code next} on this filter's output; a dropped sample stops here. */
+    default SampleFilter andThen(SampleFilter next) {
+        return (sensorId, timestamp, degree, distance) -> {
+            int filtered = filter(sensorId, timestamp, degree, distance);
+            return filtered == DROP ? DROP : next.filter(sensorId, timestamp, degree, filtered);
+        };
+    }
+
+    /** Looks a filter up by name, for command lines: raw, median, ema or kalman. */
+    static SampleFilter named(String name) {
+        switch (name.toLowerCase()) {
+            case "raw":
+                return PASS_THROUGH;
+            case "median":
+                return new MedianFilter(MedianFilter.DEFAULT_WINDOW);
+            case "ema":
+                return new EmaFilter(EmaFilter.DEFAULT_ALPHA);
+            case "kalman":
+                return new KalmanFilter(KalmanFilter.DEFAULT_PROCESS_NOISE, KalmanFilter.DEFAULT_MEASUREMENT_NOISE);
+            default:
+                throw new IllegalArgumentException("Unknown filter: " + name);
+        }
+    }
+}
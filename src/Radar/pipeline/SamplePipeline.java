@@ -0,0 +1,144 @@
+package Radar.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Staged path from a sample source to any number of sinks:
+ * source &rarr; parse &rarr; {@link SampleFilter} &rarr; {@link DetectionRule} &rarr; sinks.
+ *
+ * The source (a serial ingest, the multi-sensor merger, a simulator) calls
+ * {@link #publish} with parsed readings. Filtering and detection run inline on
+ * that thread, which then writes the sample once into a lock-free
+ * {@link SampleBroadcast} ring. Each sink reads the ring through its own
+ * {@link SinkBuffer} and thread. A slow disk or a busy UI therefore only falls
+ * behind on its own, and its {@link OverflowPolicy} decides whether the source
+ * waits or that sink loses samples; serial reads are never held up by a lossy
+ * sink. Idle sink threads, and a source held back by a BLOCK sink, wait with
+ * the pipeline's {@link WaitStrategy}.
+ *
+ * Sinks added with {@link #addRawSink} (the log, a recording) get the distance
+ * as read, and also the samples the filter drops, so a saved session keeps the
+ * raw data; the detection flag they see is still the one judged on the
+ * filtered value, and false for dropped samples.
+ *
+ * {@link #publish} and {@link #markGap} must be called from one thread at a time.
+ */
+public class SamplePipeline {
+
+    private final SampleFilter filter;
+    private final DetectionRule detectionRule;
+    private final WaitStrategy waitStrategy;
+    private final List<SinkBuffer> sinks = new ArrayList<>();
+    private final List<SinkBuffer> rawSinks = new ArrayList<>();
+    private volatile SampleBroadcast broadcast; // set while started
+    private boolean started = false;
+    private long filteredCount = 0;
+
+    public SamplePipeline(SampleFilter filter, DetectionRule detectionRule) {
+        this(filter, detectionRule, WaitStrategy.PARK);
+    }
+
+    public SamplePipeline(SampleFilter filter, DetectionRule detectionRule, WaitStrategy waitStrategy) {
+        this.filter = filter;
+        this.detectionRule = detectionRule;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public SinkBuffer addSink(String name, SampleSink sink, int capacity, OverflowPolicy policy) {
+        return addSink(name, sink, capacity, policy, 0);
+    }
+
+    /**
+     * Adds a sink; must be called before {@link #start}.
+     *
+     * @param batchIntervalMs pause after each delivered batch, so a sink that is
+     *                        expensive per call (a repaint) gets fewer, larger batches
+     */
+    public synchronized SinkBuffer addSink(String name, SampleSink sink, int capacity,
+                                           OverflowPolicy policy, long batchIntervalMs) {
+        SinkBuffer buffer = newSink(name, sink, capacity, policy, batchIntervalMs, false);
+        sinks.add(buffer);
+        return buffer;
+    }
+
+    /** Adds a sink that receives unfiltered distances; must be called before {@link #start}. */
+    public synchronized SinkBuffer addRawSink(String name, SampleSink sink, int capacity, OverflowPolicy policy) {
+        SinkBuffer buffer = newSink(name, sink, capacity, policy, 0, true);
+        rawSinks.add(buffer);
+        return buffer;
+    }
+
+    /** All sinks, raw ones first. */
+    public synchronized List<SinkBuffer> getSinks() {
+        List<SinkBuffer> all = new ArrayList<>(rawSinks);
+        all.addAll(sinks);
+        return Collections.unmodifiableList(all);
+    }
+
+    /** Starts the sinks, with a ring as large as the largest sink capacity. */
+    public synchronized void start() {
+        started = true;
+        int capacity = 1;
+        for (SinkBuffer sink : getSinks()) {
+            capacity = Math.max(capacity, sink.getCapacity());
+        }
+        SampleBroadcast ring = new SampleBroadcast(capacity, waitStrategy);
+        for (SinkBuffer sink : getSinks()) {
+            sink.start(ring);
+        }
+        broadcast = ring;
+    }
+
+    /**
+     * Source side: filters the reading, applies the detection rule and hands it
+     * to every sink, raw sinks getting {@code distance} as read.
+     */
+    public void publish(int sensorId, long timestamp, int degree, int distance) {
+        int filtered = filter.filter(sensorId, timestamp, degree, distance);
+        boolean detected = filtered != SampleFilter.DROP
+                && detectionRule.isDetected(sensorId, timestamp, degree, filtered);
+        if (filtered == SampleFilter.DROP) {
+            filteredCount++;
+        }
+        SampleBroadcast ring = broadcast;
+        if (ring != null) {
+            byte flag = filtered == SampleFilter.DROP ? SampleBroadcast.FILTERED
+                    : detected ? SampleBroadcast.DETECTED : 0;
+            ring.publish(sensorId, timestamp, 0, degree, distance, filtered, flag);
+        }
+    }
+
+    /** Source side: tells every sink that {@code sensorId} has no data between {@code start} and {@code end}. */
+    public void markGap(int sensorId, long start, long end) {
+        SampleBroadcast ring = broadcast;
+        if (ring != null) {
+            ring.publish(sensorId, start, end, 0, 0, 0, SampleBroadcast.GAP);
+        }
+    }
+
+    /** Samples discarded by the filter; read from the source thread. */
+    public long getFilteredCount() {
+        return filteredCount;
+    }
+
+    /** Stops accepting samples and waits for the sinks to finish (see {@link SinkBuffer}). */
+    public synchronized void stop() {
+        broadcast = null;
+        if (started) {
+            started = false;
+            for (SinkBuffer sink : getSinks()) {
+                sink.stop();
+            }
+        }
+    }
+
+    private SinkBuffer newSink(String name, SampleSink sink, int capacity, OverflowPolicy policy,
+                               long batchIntervalMs, boolean raw) {
+        if (started) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        return new SinkBuffer(name, sink, capacity, policy, batchIntervalMs, raw);
+    }
+}
@@ -0,0 +1,23 @@
+package Radar.pipeline;
+
+/**
+ * End of a {@link SamplePipeline}: the chart, the log, the console. Each sink
+ * is called from its own {@link SinkBuffer} thread, so it needs no locking of
+ * its own and a slow sink only holds up itself.
+ */
+public interface SampleSink {
+
+    void accept(int sensorId, long timestamp, int degree, int distance, boolean detected);
+
+    /** Sensor {@code sensorId} captured no data between {@code start} and {@code end} (host time). */
+    default void gap(int sensorId, long start, long end) {
+    }
+
+    /** Called after each batch of samples, e.g. to repaint once. */
+    default void flush() {
+    }
+
+    /** Called once when the pipeline stops, after the last batch. */
+    default void close() {
+    }
+}
@@ -0,0 +1,117 @@
+package Radar.pipeline;
+
+import Radar.ingest.MultiSensorEngine;
+import Radar.ingest.SensorSource;
+
+import java.util.List;
+
+/**
+ * The sensor runtime shared by the dashboards: sources &rarr; merge &rarr;
+ * {@link SamplePipeline} &rarr; sinks.
+ *
+ * Any mix of {@link SensorSource}s (serial ports, simulators, replays of saved
+ * sessions) is merged into one time-ordered stream by a
+ * {@link MultiSensorEngine}, filtered and judged by the pipeline, and delivered
+ * to the {@link SampleSink}s a dashboard registers. A dashboard is then just
+ * the sinks it draws with; acquisition, detection and buffering are the same
+ * code everywhere. Outages a source reports reach the sinks as gaps.
+ *
+ * Register sources and sinks, then {@link #start}. Sinks can only be added
+ * before the first start; sources at any time. {@link #pause} stops the
+ * sources but keeps the sinks, so a dashboard can stop and resume collecting;
+ * {@link #stop} shuts everything down for good.
+ */
+public class SensorCore {
+
+    private final SamplePipeline pipeline;
+    private final MultiSensorEngine engine;
+    private boolean sinksStarted = false;
+    private boolean stopped = false;
+
+    public SensorCore(SampleFilter filter, DetectionRule detectionRule) {
+        this(filter, detectionRule, WaitStrategy.PARK);
+    }
+
+    /** {@code waitStrategy} is how idle sink threads, and a source held back by a BLOCK sink, wait. */
+    public SensorCore(SampleFilter filter, DetectionRule detectionRule, WaitStrategy waitStrategy) {
+        this.pipeline = new SamplePipeline(filter, detectionRule, waitStrategy);
+        this.engine = new MultiSensorEngine(new MultiSensorEngine.SampleListener() {
+            @Override
+            public void onSample(int sensorId, long timestamp, int degree, int distance) {
+                pipeline.publish(sensorId, timestamp, degree, distance);
+            }
+
+            @Override
+            public void onGap(int sensorId, long start, long end) {
+                pipeline.markGap(sensorId, start, end);
+            }
+        });
+    }
+
+    /** Returns the sensor id the source's samples will carry. */
+    public int addSource(SensorSource source) {
+        return engine.addSensor(source);
+    }
+
+    public SinkBuffer addSink(String name, SampleSink sink, int capacity, OverflowPolicy policy) {
+        return pipeline.addSink(name, sink, capacity, policy);
+    }
+
+    public SinkBuffer addSink(String name, SampleSink sink, int capacity, OverflowPolicy policy, long batchIntervalMs) {
+        return pipeline.addSink(name, sink, capacity, policy, batchIntervalMs);
+    }
+
+    /** A sink for the readings as they arrived, before the filter (see {@link SamplePipeline#addRawSink}). */
+    public SinkBuffer addRawSink(String name, SampleSink sink, int capacity, OverflowPolicy policy) {
+        return pipeline.addRawSink(name, sink, capacity, policy);
+    }
+
+    /** Starts (or resumes) the sources; the sinks are started the first time. */
+    public synchronized void start() {
+        if (stopped) {
+            throw new IllegalStateException("Sensor core already stopped");
+        }
+        if (!sinksStarted) {
+            sinksStarted = true;
+            pipeline.start(); // sinks first, so no early sample is lost
+        }
+        engine.start();
+    }
+
+    /** Stops the sources; samples already read still reach the sinks. */
+    public synchronized void pause() {
+        engine.stop();
+    }
+
+    /** Stops the sources, delivers what is still buffered and stops the sinks. */
+    public synchronized void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        engine.stop();
+        pipeline.stop();
+    }
+
+    /** True while the sources are running. */
+    public boolean isRunning() {
+        return engine.isRunning();
+    }
+
+    public int getSourceCount() {
+        return engine.getSensorCount();
+    }
+
+    public String getSourceName(int sensorId) {
+        return engine.getSensorName(sensorId);
+    }
+
+    public List<SinkBuffer> getSinks() {
+        return pipeline.getSinks();
+    }
+
+    /** Readings lost because the merge buffer was full. */
+    public long getDroppedCount() {
+        return engine.getDroppedCount();
+    }
+}
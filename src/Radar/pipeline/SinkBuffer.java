@@ -0,0 +1,171 @@
+package Radar.pipeline;
+
+/**
+ * One {@link SampleSink}'s place in the pipeline: a reader of the pipeline's
+ * {@link SampleBroadcast} ring with a thread that drains it in batches. The
+ * sink may fall up to {@code capacity} samples behind the source; past that
+ * the {@link OverflowPolicy} decides between holding the source back, skipping
+ * the oldest samples and thinning the stream; drops are counted.
+ *
+ * Gap markers travel through the ring in order with the samples, so a sink
+ * sees each gap between the last sample before the outage and the first after
+ * it. They are never thinned out.
+ */
+public class SinkBuffer {
+
+    public static final int SAMPLE_EVERY = 4;
+
+    private static final int BATCH = 512;
+
+    private final String name;
+    private final SampleSink sink;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final long batchIntervalMs;
+    private final boolean raw;
+
+    private volatile boolean stopping = false;
+    private volatile long droppedCount = 0; // written by the drain thread only
+
+    // Drain thread only
+    private final SampleBroadcast.Batch batch = new SampleBroadcast.Batch(BATCH);
+    private boolean thin = false;
+    private int sampleCounter = 0;
+
+    private SampleBroadcast broadcast;
+    private SampleBroadcast.Reader reader;
+    private Thread thread;
+
+    SinkBuffer(String name, SampleSink sink, int capacity, OverflowPolicy policy, long batchIntervalMs, boolean raw) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.name = name;
+        this.sink = sink;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.batchIntervalMs = batchIntervalMs;
+        this.raw = raw;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Samples this sink lost, including any the source gave up on while blocked. */
+    public long getDroppedCount() {
+        SampleBroadcast current = broadcast;
+        return droppedCount + (current != null ? current.getDroppedCount() : 0);
+    }
+
+    /** Samples waiting for this sink. */
+    public int size() {
+        SampleBroadcast.Reader current = reader;
+        return current != null ? (int) Math.min(current.lag(), Integer.MAX_VALUE) : 0;
+    }
+
+    void start(SampleBroadcast broadcast) {
+        this.broadcast = broadcast;
+        this.reader = broadcast.newReader(policy == OverflowPolicy.BLOCK);
+        thread = new Thread(this::drainLoop, "sink-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Lets the thread finish. A BLOCK sink gets everything still queued; lossy
+     * sinks are interrupted, so a sink stuck on a busy UI cannot hold up shutdown.
+     */
+    void stop() {
+        stopping = true;
+        if (thread == null) {
+            return;
+        }
+        if (policy != OverflowPolicy.BLOCK) {
+            thread.interrupt();
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        try {
+            while (awaitEntries()) {
+                take();
+                deliver();
+                if (batchIntervalMs > 0) {
+                    Thread.sleep(batchIntervalMs); // lets the next batch build up
+                }
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        } finally {
+            reader.close(); // no longer holds the source back
+            sink.close();
+        }
+    }
+
+    // False once stopped and caught up; a lossy sink does not catch up
+    private boolean awaitEntries() throws InterruptedException {
+        if (stopping && policy != OverflowPolicy.BLOCK) {
+            return false;
+        }
+        WaitStrategy waitStrategy = broadcast.getWaitStrategy();
+        while (reader.lag() == 0) {
+            if (stopping) {
+                return false;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            waitStrategy.idle();
+        }
+        return true;
+    }
+
+    // Copies up to one batch out of the ring, applying the overflow policy
+    private void take() {
+        long lag = reader.lag();
+        if (policy != OverflowPolicy.BLOCK && lag > capacity) {
+            reader.skip(lag - capacity);
+            droppedCount += lag - capacity;
+            lag = capacity;
+        }
+        thin = policy == OverflowPolicy.SAMPLE && lag >= capacity / 2;
+        droppedCount += reader.read(batch);
+    }
+
+    private void deliver() {
+        try {
+            for (int i = batch.start; i < batch.end; i++) {
+                byte flag = batch.flags[i];
+                if ((flag & SampleBroadcast.GAP) != 0) {
+                    sink.gap(batch.sensors[i], batch.timestamps[i], batch.gapEnds[i]);
+                } else if (!raw && (flag & SampleBroadcast.FILTERED) != 0) {
+                    // dropped by the filter; only raw sinks see it
+                } else if (thin && ++sampleCounter % SAMPLE_EVERY != 0) {
+                    droppedCount++;
+                } else {
+                    sink.accept(batch.sensors[i], batch.timestamps[i], batch.degrees[i],
+                            raw ? batch.rawDistances[i] : batch.distances[i],
+                            (flag & SampleBroadcast.DETECTED) != 0);
+                }
+            }
+            sink.flush();
+        } catch (RuntimeException e) {
+            // Keep draining; a dead drain thread would wedge a BLOCK source
+            System.err.println("Sink " + name + " failed: " + e);
+        }
+    }
+}
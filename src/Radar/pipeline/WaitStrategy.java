@@ -0,0 +1,36 @@
+package Radar.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the threads around a {@link SamplePipeline} wait: a sink thread with
+ * nothing to read, and the source when a {@link OverflowPolicy#BLOCK} sink is
+ * a full buffer behind.
+ */
+public enum WaitStrategy {
+    /** Lowest latency; keeps a core busy while waiting. */
+    BUSY_SPIN {
+        @Override
+        void idle() {
+            Thread.onSpinWait();
+        }
+    },
+    /** Gives the core to other runnable threads between checks. */
+    YIELD {
+        @Override
+        void idle() {
+            Thread.yield();
+        }
+    },
+    /** Parks for 100 us between checks; near-zero CPU at sensor rates. */
+    PARK {
+        @Override
+        void idle() {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    };
+
+    static final long PARK_NANOS = 100_000;
+
+    abstract void idle();
+}
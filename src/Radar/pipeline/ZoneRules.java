@@ -0,0 +1,293 @@
+package Radar.pipeline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detection by configurable zones: each {@link DetectionZone} covers a range of
+ * degrees with its own distance band, dwell time before it is entered and
+ * margin before it is left. Zones are compiled into a table with one entry per
+ * degree, so finding the zone for a sample is a single array access; where
+ * zones overlap the one listed last wins, and degrees in no zone never detect.
+ *
+ * Zones are read from a plain text file, one per line:
+ * <pre>
+ * # zone &lt;name&gt; &lt;from&gt;-&lt;to&gt; &lt;min&gt;-&lt;max&gt; [dwell=&lt;ms&gt;] [hold=&lt;ms&gt;] [margin=&lt;cm&gt;]
+ * zone door   0-45   0-80  dwell=500
+ * zone desk  46-180  0-50
+ * </pre>
+ * {@link #watch} polls the file and swaps in the new table when it changes,
+ * without a restart; a file that fails to parse is reported and the previous
+ * zones stay in force. Per-zone state is reset whenever the table changes.
+ *
+ * {@link #isDetected} keeps per-sensor state and is called from the source
+ * thread only, like any {@link DetectionRule}; the listener runs there too.
+ */
+public class ZoneRules implements DetectionRule {
+
+    public interface Listener {
+        void onEnter(DetectionZone zone, int sensorId, long timestamp, int degree, int distance);
+
+        void onExit(DetectionZone zone, int sensorId, long timestamp);
+    }
+
+    /** Prints entries and exits to the console. */
+    public static final Listener CONSOLE = new Listener() {
+        @Override
+        public void onEnter(DetectionZone zone, int sensorId, long timestamp, int degree, int distance) {
+            System.out.println("Zone " + zone.getName() + ": object entered at " + degree + "° - " + distance + "cm"
+                    + (sensorId > 0 ? " (sensor " + sensorId + ")" : ""));
+        }
+
+        @Override
+        public void onExit(DetectionZone zone, int sensorId, long timestamp) {
+            System.out.println("Zone " + zone.getName() + ": clear" + (sensorId > 0 ? " (sensor " + sensorId + ")" : ""));
+        }
+    };
+
+    public static final String DEFAULT_FILE = "radar-zones.conf";
+    public static final int DEFAULT_THRESHOLD = 50; // cm, the single zone used when no file exists
+    public static final long DEFAULT_DWELL_MS = 200; // its entry debounce: three readings 100 ms apart
+    public static final long DEFAULT_POLL_MS = 1000;
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    // Immutable once built; replaced as a whole on reload
+    private static final class Table {
+        final List<DetectionZone> zones;
+        final DetectionZone[] byDegree = new DetectionZone[181];
+        final int[] indexByDegree = new int[181]; // position in zones, for the state arrays
+
+        Table(List<DetectionZone> zones) {
+            this.zones = Collections.unmodifiableList(new ArrayList<>(zones));
+            for (int i = 0; i < zones.size(); i++) {
+                DetectionZone zone = zones.get(i);
+                for (int d = zone.getFromDegree(); d <= zone.getToDegree(); d++) {
+                    byDegree[d] = zone;
+                    indexByDegree[d] = i;
+                }
+            }
+        }
+    }
+
+    private volatile Table table;
+    private final Listener listener;
+    private ScheduledExecutorService watcher;
+
+    // Source thread only: per sensor, per zone of the table they were built for
+    private Table stateTable;
+    private boolean[][] active = new boolean[0][];
+    private long[][] insideSince = new long[0][];
+    private long[][] lastInside = new long[0][];
+
+    /** @param listener told about zone entries and exits; may be null */
+    public ZoneRules(List<DetectionZone> zones, Listener listener) {
+        this.table = new Table(zones);
+        this.listener = listener;
+    }
+
+    /**
+     * A single zone over the whole sweep that detects anything closer than
+     * {@code threshold} cm once it has stayed there for {@link #DEFAULT_DWELL_MS}.
+     */
+    public static List<DetectionZone> defaultZones(int threshold) {
+        return Collections.singletonList(new DetectionZone("all", 0, 180, 0, threshold, DEFAULT_DWELL_MS, 0, DetectionZone.DEFAULT_MARGIN));
+    }
+
+    /**
+     * Zones from {@code file}, or {@link #defaultZones} with {@link #DEFAULT_THRESHOLD}
+     * if it does not exist or cannot be parsed, and starts watching it for changes.
+     */
+    public static ZoneRules loadAndWatch(File file, Listener listener) {
+        List<DetectionZone> zones = defaultZones(DEFAULT_THRESHOLD);
+        if (file.exists()) {
+            try {
+                zones = parse(Files.readAllLines(file.toPath()));
+                System.out.println("Loaded " + zones.size() + " detection zone(s) from " + file);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error reading " + file + ", using the default zone: " + e.getMessage());
+            }
+        }
+        ZoneRules rules = new ZoneRules(zones, listener);
+        rules.watch(file, DEFAULT_POLL_MS);
+        return rules;
+    }
+
+    /** Parses the zone file format described above; throws with the line number on errors. */
+    public static List<DetectionZone> parse(List<String> lines) {
+        List<DetectionZone> zones = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                zones.add(parseZone(line.split("\\s+")));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        return zones;
+    }
+
+    private static DetectionZone parseZone(String[] fields) {
+        if (fields.length < 4 || !fields[0].equals("zone")) {
+            throw new IllegalArgumentException("expected: zone <name> <from>-<to> <min>-<max> [dwell=ms] [hold=ms] [margin=cm]");
+        }
+        int[] degrees = parseRange(fields[2]);
+        int[] band = parseRange(fields[3]);
+        long dwell = 0;
+        long hold = 0;
+        int margin = DetectionZone.DEFAULT_MARGIN;
+        for (int f = 4; f < fields.length; f++) {
+            String[] option = fields[f].split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("bad option " + fields[f]);
+            }
+            switch (option[0]) {
+                case "dwell":
+                    dwell = Long.parseLong(option[1]);
+                    break;
+                case "hold":
+                    hold = Long.parseLong(option[1]);
+                    break;
+                case "margin":
+                    margin = Integer.parseInt(option[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + option[0]);
+            }
+        }
+        return new DetectionZone(fields[1], degrees[0], degrees[1], band[0], band[1], dwell, hold, margin);
+    }
+
+    private static int[] parseRange(String field) {
+        String[] ends = field.split("-", 2);
+        if (ends.length != 2) {
+            throw new IllegalArgumentException("bad range " + field + ", expected <from>-<to>");
+        }
+        return new int[] { Integer.parseInt(ends[0]), Integer.parseInt(ends[1]) };
+    }
+
+    /** Replaces the zones; takes effect from the next sample. */
+    public void setZones(List<DetectionZone> zones) {
+        table = new Table(zones);
+    }
+
+    public List<DetectionZone> getZones() {
+        return table.zones;
+    }
+
+    /** The zone covering {@code degree}, or null. */
+    public DetectionZone zoneAt(int degree) {
+        return degree >= 0 && degree <= 180 ? table.byDegree[degree] : null;
+    }
+
+    /** Polls {@code file} every {@code pollMs} on a daemon thread and reloads it when it changes. */
+    public synchronized void watch(File file, long pollMs) {
+        stopWatching();
+        watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "zone-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long[] seen = { file.lastModified(), file.length() };
+        watcher.scheduleWithFixedDelay(() -> {
+            long modified = file.lastModified();
+            long length = file.length();
+            if (modified == seen[0] && length == seen[1]) {
+                return;
+            }
+            seen[0] = modified;
+            seen[1] = length;
+            if (modified == 0) {
+                return; // deleted; keep the zones we have
+            }
+            try {
+                List<DetectionZone> zones = parse(Files.readAllLines(file.toPath()));
+                setZones(zones);
+                System.out.println("Reloaded " + zones.size() + " detection zone(s) from " + file);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Error reloading " + file + ", keeping the current zones: " + e.getMessage());
+            }
+        }, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+
+    @Override
+    public boolean isDetected(int sensorId, long timestamp, int degree, int distance) {
+        Table current = table;
+        DetectionZone zone = degree >= 0 && degree <= 180 ? current.byDegree[degree] : null;
+        if (zone == null) {
+            return false;
+        }
+        if (current != stateTable || sensorId >= active.length) {
+            resetState(current, sensorId);
+        }
+        int z = current.indexByDegree[degree];
+        boolean[] sensorActive = active[sensorId];
+        long[] since = insideSince[sensorId];
+        long[] last = lastInside[sensorId];
+
+        if (zone.isInside(distance)) {
+            last[z] = timestamp;
+            if (since[z] == NEVER) {
+                since[z] = timestamp;
+            }
+            if (!sensorActive[z] && timestamp - since[z] >= zone.getDwellMs()) {
+                sensorActive[z] = true;
+                if (listener != null) {
+                    listener.onEnter(zone, sensorId, timestamp, degree, distance);
+                }
+            }
+        } else if (last[z] == NEVER || timestamp - last[z] > zone.getHoldMs()) {
+            since[z] = NEVER;
+            if (sensorActive[z] && !zone.isNear(distance)) {
+                sensorActive[z] = false;
+                if (listener != null) {
+                    listener.onExit(zone, sensorId, timestamp);
+                }
+            }
+        }
+        // Readings well away from the object do not count, even while the zone is entered
+        return sensorActive[z] && zone.isNear(distance);
+    }
+
+    private void resetState(Table current, int sensorId) {
+        int sensors = Math.max(active.length, sensorId + 1);
+        int zones = current.zones.size();
+        if (current != stateTable) {
+            active = new boolean[sensors][];
+            insideSince = new long[sensors][];
+            lastInside = new long[sensors][];
+        } else {
+            active = Arrays.copyOf(active, sensors);
+            insideSince = Arrays.copyOf(insideSince, sensors);
+            lastInside = Arrays.copyOf(lastInside, sensors);
+        }
+        for (int s = 0; s < sensors; s++) {
+            if (active[s] == null) {
+                active[s] = new boolean[zones];
+                insideSince[s] = new long[zones];
+                lastInside[s] = new long[zones];
+                Arrays.fill(insideSince[s], NEVER);
+                Arrays.fill(lastInside[s], NEVER);
+            }
+        }
+        stateTable = current;
+    }
+}
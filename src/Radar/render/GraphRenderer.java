@@ -0,0 +1,272 @@
+package Radar.render;
+
+import Radar.core.SampleView;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Two-layer renderer for the distance-over-samples graphs.
+ *
+ * The static layer (background, grid, axes, titles) is painted once into an
+ * opaque image and rebuilt only when the panel is resized. The data trace lives
+ * in a second, transparent image: once the history is full, each new batch
+ * scrolls the existing pixels left and draws only the segments that entered on
+ * the right, so repaint cost no longer depends on history length.
+ *
+ * Trace geometry is computed in device pixels so the cached images stay sharp
+ * on scaled (HiDPI) displays, and histories denser than the screen are drawn
+ * through a {@link MinMaxDecimator}. Gaps in the data (see
+ * {@link SampleView#isGapBefore}) break the line and get a dashed marker.
+ */
+public class GraphRenderer {
+
+    public static final int MAX_DISTANCE = 400; // cm, top of the Y axis
+
+    /** Paints the parts of the graph that do not depend on the data. */
+    public interface StaticLayer {
+        void paint(Graphics2D g2d, int width, int height);
+    }
+
+    private static final Color CLEAR = new Color(0, 0, 0, 0);
+    private static final Color GAP_COLOR = new Color(160, 160, 160);
+
+    private final StaticLayer staticLayer;
+    private final int padding;
+    private final Color lineColor;
+    private final float lineWidth;
+    private final int dotRadius;
+    private final MinMaxDecimator decimator = new MinMaxDecimator();
+
+    // Static layer cache
+    private BufferedImage staticImage;
+
+    // Trace cache
+    private BufferedImage traceImage;
+    private boolean traceValid = false;
+    private int renderedSize = 0;
+    private long renderedAppended = 0;
+    private long originIndex = 0;   // global index drawn at the left edge after the last full redraw
+    private long scrollOffset = 0;  // device pixels scrolled since the last full redraw
+
+    // Geometry of the current images, in device pixels
+    private double scale = 1.0;
+    private int deviceWidth;
+    private int deviceHeight;
+    private double left;
+    private double top;
+    private double graphWidth;
+    private double graphHeight;
+
+    public GraphRenderer(StaticLayer staticLayer, int padding, Color lineColor, float lineWidth, int dotRadius) {
+        this.staticLayer = staticLayer;
+        this.padding = padding;
+        this.lineColor = lineColor;
+        this.lineWidth = lineWidth;
+        this.dotRadius = dotRadius;
+    }
+
+    /** Forces a full redraw of the trace, e.g. after the data was cleared or reloaded. */
+    public void invalidate() {
+        traceValid = false;
+    }
+
+    public void paint(Graphics2D g2d, int width, int height, SampleView data) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        double deviceScale = g2d.getTransform().getScaleX();
+        if (deviceScale <= 0) {
+            deviceScale = 1.0;
+        }
+        if (staticImage == null || deviceScale != scale
+                || deviceWidth != (int) Math.ceil(width * deviceScale)
+                || deviceHeight != (int) Math.ceil(height * deviceScale)) {
+            rebuildStaticLayer(g2d.getDeviceConfiguration(), width, height, deviceScale);
+        }
+
+        updateTrace(data);
+
+        g2d.drawImage(staticImage, 0, 0, width, height, null);
+        g2d.drawImage(traceImage, 0, 0, width, height, null);
+    }
+
+    private void rebuildStaticLayer(GraphicsConfiguration config, int width, int height, double deviceScale) {
+        scale = deviceScale;
+        deviceWidth = (int) Math.ceil(width * deviceScale);
+        deviceHeight = (int) Math.ceil(height * deviceScale);
+        left = padding * scale;
+        top = padding * scale;
+        graphWidth = (width - 2 * padding) * scale;
+        graphHeight = (height - 2 * padding) * scale;
+
+        staticImage = config.createCompatibleImage(deviceWidth, deviceHeight, Transparency.OPAQUE);
+        Graphics2D g = staticImage.createGraphics();
+        g.scale(scale, scale);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        staticLayer.paint(g, width, height);
+        g.dispose();
+
+        traceImage = config.createCompatibleImage(deviceWidth, deviceHeight, Transparency.TRANSLUCENT);
+        traceValid = false;
+    }
+
+    private void updateTrace(SampleView data) {
+        int size = data.size();
+        long appended = data.totalAppended();
+        if (traceValid && size == renderedSize && appended == renderedAppended) {
+            return; // nothing new
+        }
+
+        // Same size but more appended means the history is full and the oldest
+        // samples were overwritten: scroll instead of redrawing everything.
+        long added = appended - renderedAppended;
+        if (traceValid && size == renderedSize && size > 2 && added > 0 && added < size - 1) {
+            scrollTrace(data, size, appended);
+        } else {
+            redrawTrace(data, size, appended);
+        }
+        renderedSize = size;
+        renderedAppended = appended;
+        traceValid = true;
+    }
+
+    private void redrawTrace(SampleView data, int size, long appended) {
+        originIndex = appended - size;
+        scrollOffset = 0;
+
+        Graphics2D g = createTraceGraphics();
+        clear(g, 0, deviceWidth);
+        drawSamples(g, data, 0, size);
+        g.dispose();
+    }
+
+    private void scrollTrace(SampleView data, int size, long appended) {
+        double step = stepFor(size);
+        long firstIndex = appended - size; // global index of the oldest retained sample
+        long newOffset = (long) Math.floor((firstIndex - originIndex) * step);
+        int dx = (int) (newOffset - scrollOffset);
+        scrollOffset = newOffset;
+
+        Graphics2D g = createTraceGraphics();
+        if (dx > 0) {
+            // Src so transparent pixels replace the old trace instead of blending over it
+            g.setComposite(AlphaComposite.Src);
+            g.copyArea(dx, 0, deviceWidth - dx, deviceHeight, -dx, 0);
+            g.setComposite(AlphaComposite.SrcOver);
+        }
+
+        double margin = (dotRadius + lineWidth) * scale + 2;
+
+        // Left edge: remove what scrolled past the oldest sample, then restore
+        // the left half of its dot and the start of its segment
+        int leftEdge = (int) Math.floor(xFor(firstIndex, step));
+        clear(g, 0, leftEdge);
+        g.setClip(0, 0, Math.max(0, leftEdge), deviceHeight);
+        drawSamples(g, data, 0, 2);
+        g.setClip(null);
+
+        // Right edge: clear from just before the first new sample and draw the new tail
+        int firstNew = size - (int) (appended - renderedAppended);
+        int rightEdge = (int) Math.floor(xFor(firstIndex + firstNew - 1, step) - margin);
+        clear(g, rightEdge, deviceWidth);
+        g.setClip(rightEdge, 0, deviceWidth - rightEdge, deviceHeight);
+        int from = firstNew;
+        while (from > 1 && xFor(firstIndex + from - 1, step) > rightEdge - margin) {
+            from--;
+        }
+        drawSamples(g, data, from, size);
+        g.dispose();
+    }
+
+    /**
+     * Draws detection dots for samples {@code from..to-1} and the segments ending
+     * at them. Ranges denser than two samples per pixel are min/max decimated first.
+     */
+    private void drawSamples(Graphics2D g, SampleView data, int from, int to) {
+        int size = data.size();
+        to = Math.min(to, size);
+        if (to <= from) {
+            return;
+        }
+        double step = stepFor(size);
+        long firstIndex = data.totalAppended() - size;
+        int start = Math.max(0, from - 1);
+        int columns = (int) Math.ceil((to - start) * step);
+        int count = decimator.decimate(data, start, to, columns);
+
+        Line2D.Double line = new Line2D.Double();
+        boolean hasGaps = false;
+        g.setColor(lineColor);
+        g.setStroke(new BasicStroke((float) (lineWidth * scale)));
+        for (int k = 1; k < count; k++) {
+            int i0 = decimator.indexAt(k - 1);
+            int i1 = decimator.indexAt(k);
+            if (data.isGapBefore(i1)) {
+                hasGaps = true;
+                continue; // no line across missing data
+            }
+            line.setLine(xFor(firstIndex + i0, step), yFor(data.distanceAt(i0)),
+                    xFor(firstIndex + i1, step), yFor(data.distanceAt(i1)));
+            g.draw(line);
+        }
+
+        if (hasGaps) {
+            g.setColor(GAP_COLOR);
+            g.setStroke(new BasicStroke((float) scale, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f,
+                    new float[] {(float) (4 * scale), (float) (4 * scale)}, 0f));
+            for (int k = 1; k < count; k++) {
+                int i1 = decimator.indexAt(k);
+                if (data.isGapBefore(i1)) {
+                    double x = (xFor(firstIndex + decimator.indexAt(k - 1), step) + xFor(firstIndex + i1, step)) / 2;
+                    line.setLine(x, top, x, top + graphHeight);
+                    g.draw(line);
+                }
+            }
+        }
+
+        g.setColor(Color.RED);
+        double r = dotRadius * scale;
+        Ellipse2D.Double dot = new Ellipse2D.Double();
+        for (int k = 0; k < count; k++) {
+            int i = decimator.indexAt(k);
+            if (i >= from && data.isDetected(i)) {
+                dot.setFrame(xFor(firstIndex + i, step) - r, yFor(data.distanceAt(i)) - r, 2 * r, 2 * r);
+                g.fill(dot);
+            }
+        }
+    }
+
+    private double stepFor(int size) {
+        return graphWidth / Math.max(1, size - 1);
+    }
+
+    private double xFor(long globalIndex, double step) {
+        return left + (globalIndex - originIndex) * step - scrollOffset;
+    }
+
+    private double yFor(int distance) {
+        return top + graphHeight - (distance * graphHeight) / MAX_DISTANCE;
+    }
+
+    private Graphics2D createTraceGraphics() {
+        Graphics2D g = traceImage.createGraphics();
+        g.setTransform(new AffineTransform());
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        return g;
+    }
+
+    private void clear(Graphics2D g, int fromX, int toX) {
+        if (toX <= fromX) {
+            return;
+        }
+        Composite composite = g.getComposite();
+        g.setComposite(AlphaComposite.Src);
+        g.setColor(CLEAR);
+        g.fillRect(fromX, 0, toX - fromX, deviceHeight);
+        g.setComposite(composite);
+    }
+}
@@ -0,0 +1,120 @@
+package Radar.render;
+
+import Radar.core.SampleView;
+
+import javax.swing.*;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * The dashboards' distance-over-time graph: a white plot with grid, distance
+ * axis, time labels and legend, and the samples of a {@link SampleView} drawn
+ * through a {@link GraphRenderer}.
+ *
+ * Background, grid, axes and title are cached; only new trace segments are
+ * drawn per frame. Call {@link #reset()} after clearing the history. Use it on
+ * the EDT only, with a view that is only changed there.
+ */
+public class HistoryPanel extends JPanel {
+
+    private static final int PADDING = 60;
+    private static final Color LINE_COLOR = new Color(30, 144, 255);
+
+    private final String title;
+    private final SampleView data;
+    private final GraphRenderer renderer = new GraphRenderer(this::paintStaticLayer, PADDING, LINE_COLOR, 3f, 4);
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+
+    public HistoryPanel(String title, SampleView data) {
+        this.title = title;
+        this.data = data;
+    }
+
+    /** Forgets the cached trace, e.g. after the history was cleared, and repaints. */
+    public void reset() {
+        renderer.invalidate();
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int width = getWidth();
+        int height = getHeight();
+        int graphWidth = width - 2 * PADDING;
+
+        // Static layer and data trace
+        renderer.paint(g2d, width, height, data);
+        if (data.size() < 2) {
+            return;
+        }
+
+        // X-axis labels (Time)
+        g2d.setFont(new Font("Arial", Font.BOLD, 12));
+        g2d.setColor(Color.BLACK);
+        long minTime = data.timestampAt(0);
+        long maxTime = data.timestampAt(data.size() - 1);
+        for (int i = 0; i <= 6; i++) {
+            int x = PADDING + (i * graphWidth) / 6;
+            long time = minTime + (i * (maxTime - minTime)) / 6;
+            g2d.drawString(timeFormat.format(new Date(time)), x - 20, height - PADDING + 20);
+        }
+
+        // Legend
+        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
+        g2d.setColor(LINE_COLOR);
+        g2d.drawString("Distance Line", width - 120, PADDING + 20);
+        g2d.setColor(Color.RED);
+        g2d.drawString("Object Detection (zones)", width - 120, PADDING + 35);
+    }
+
+    // Everything that only changes when the panel is resized
+    private void paintStaticLayer(Graphics2D g2d, int width, int height) {
+        int graphWidth = width - 2 * PADDING;
+        int graphHeight = height - 2 * PADDING;
+
+        // Background
+        g2d.setColor(Color.WHITE);
+        g2d.fillRect(0, 0, width, height);
+
+        // Grid
+        g2d.setColor(new Color(230, 230, 230));
+        g2d.setStroke(new BasicStroke(1));
+        for (int i = 0; i <= 10; i++) {
+            int x = PADDING + (i * graphWidth) / 10;
+            g2d.drawLine(x, PADDING, x, height - PADDING);
+
+            int y = PADDING + (i * graphHeight) / 10;
+            g2d.drawLine(PADDING, y, width - PADDING, y);
+        }
+
+        // Axes
+        g2d.setColor(Color.BLACK);
+        g2d.setStroke(new BasicStroke(2));
+        g2d.drawLine(PADDING, PADDING, PADDING, height - PADDING); // Y-axis
+        g2d.drawLine(PADDING, height - PADDING, width - PADDING, height - PADDING); // X-axis
+
+        // Y-axis labels (Distance)
+        g2d.setFont(new Font("Arial", Font.BOLD, 12));
+        for (int i = 0; i <= 8; i++) {
+            int y = PADDING + (i * graphHeight) / 8;
+            int distance = GraphRenderer.MAX_DISTANCE - (i * GraphRenderer.MAX_DISTANCE) / 8;
+            g2d.drawString(distance + "cm", 5, y + 5);
+        }
+
+        // Title, centred
+        g2d.setFont(new Font("Arial", Font.BOLD, 16));
+        g2d.setColor(new Color(70, 70, 70));
+        int titleWidth = g2d.getFontMetrics().stringWidth(title);
+        g2d.drawString(title, (width - titleWidth) / 2, PADDING - 10);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(1100, 400);
+    }
+}
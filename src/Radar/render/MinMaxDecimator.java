@@ -0,0 +1,128 @@
+package Radar.render;
+
+import Radar.core.SampleView;
+
+/**
+ * Reduces a run of samples to at most a few points per pixel column for plotting.
+ *
+ * Each column keeps its minimum and maximum distance, so peaks survive, plus
+ * its first detected sample if neither extreme was a detection, and its first
+ * sample after a gap so the trace still breaks there. The first and last
+ * sample of the range are always kept so the line joins up with its
+ * neighbours. The result is a list of sample indices in ascending order,
+ * written into a reused array; nothing is allocated once the array has grown
+ * to the widest panel seen.
+ *
+ * Usable by the custom graph panels (via {@link GraphRenderer}) and by chart
+ * code that wants to feed JFreeChart a screen-sized subset of a long history.
+ */
+public class MinMaxDecimator {
+
+    private int[] indices = new int[0];
+    private int count = 0;
+    private final int[] picks = new int[4];
+
+    /**
+     * Selects samples {@code from..to-1} of {@code data} for {@code columns} pixel
+     * columns. Returns the number of selected indices. Ranges that already fit in
+     * two points per column are passed through unchanged.
+     */
+    public int decimate(SampleView data, int from, int to, int columns) {
+        int length = to - from;
+        count = 0;
+        if (length <= 0) {
+            return 0;
+        }
+        columns = Math.max(1, columns);
+        ensureCapacity(Math.min(length, 4 * columns + 2));
+
+        if (length <= 2 * columns) {
+            for (int i = from; i < to; i++) {
+                indices[count++] = i;
+            }
+            return count;
+        }
+
+        add(from);
+        for (int c = 0; c < columns; c++) {
+            int start = from + (int) ((long) length * c / columns);
+            int end = from + (int) ((long) length * (c + 1) / columns);
+            if (start >= end) {
+                continue;
+            }
+
+            int minIndex = start;
+            int maxIndex = start;
+            int minValue = data.distanceAt(start);
+            int maxValue = minValue;
+            int detectedIndex = -1;
+            int gapIndex = -1;
+            for (int i = start; i < end; i++) {
+                int value = data.distanceAt(i);
+                if (value < minValue) {
+                    minValue = value;
+                    minIndex = i;
+                } else if (value > maxValue) {
+                    maxValue = value;
+                    maxIndex = i;
+                }
+                if (detectedIndex < 0 && data.isDetected(i)) {
+                    detectedIndex = i;
+                }
+                if (gapIndex < 0 && data.isGapBefore(i)) {
+                    gapIndex = i;
+                }
+            }
+            if (detectedIndex >= 0 && (data.isDetected(minIndex) || data.isDetected(maxIndex))) {
+                detectedIndex = -1; // already represented
+            }
+
+            // Emit in index order so the polyline stays monotonic in x
+            int n = 0;
+            picks[n++] = minIndex;
+            picks[n++] = maxIndex;
+            if (detectedIndex >= 0) {
+                picks[n++] = detectedIndex;
+            }
+            if (gapIndex >= 0) {
+                picks[n++] = gapIndex;
+            }
+            for (int p = 1; p < n; p++) {
+                int value = picks[p];
+                int q = p - 1;
+                while (q >= 0 && picks[q] > value) {
+                    picks[q + 1] = picks[q];
+                    q--;
+                }
+                picks[q + 1] = value;
+            }
+            for (int p = 0; p < n; p++) {
+                add(picks[p]);
+            }
+        }
+        add(to - 1);
+        return count;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Index into the source view of the {@code i}-th selected sample. */
+    public int indexAt(int i) {
+        return indices[i];
+    }
+
+    private void add(int index) {
+        // Skips duplicates (e.g. min == max, or the range ends)
+        if (count == 0 || indices[count - 1] != index) {
+            indices[count++] = index;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (indices.length < capacity) {
+            indices = new int[capacity];
+        }
+    }
+}
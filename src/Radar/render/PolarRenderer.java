@@ -0,0 +1,216 @@
+package Radar.render;
+
+import Radar.core.SweepBuffer;
+
+import java.awt.*;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Renders a {@link SweepBuffer} as a classic semicircular radar scope, with
+ * 0 degrees on the right and 180 on the left.
+ *
+ * The scope (background, range rings, angle spokes, labels) is painted once
+ * into an opaque image and rebuilt only on resize. Echoes live in a second,
+ * transparent image with one wedge per degree. A wedge is repainted only when
+ * its degree gets a new reading or its phosphor fade steps down one of
+ * {@link #FADE_LEVELS} levels, so a frame costs O(changed degrees) rather than
+ * a full redraw, and each reading is repainted at most FADE_LEVELS + 1 times
+ * over its lifetime. Readings older than the fade time disappear.
+ *
+ * Geometry is computed in device pixels, as in {@link GraphRenderer}, so the
+ * cached images stay sharp on scaled displays. Use it on the EDT only.
+ */
+public class PolarRenderer {
+
+    public static final int FADE_LEVELS = 8;
+
+    private static final int DEGREES = SweepBuffer.DEGREES;
+    private static final int MARGIN = 30;
+    private static final Color BACKGROUND = new Color(0, 20, 0);
+    private static final Color GRID = new Color(0, 110, 0);
+    private static final Color LABEL = new Color(0, 190, 0);
+    private static final Color SWEEP = new Color(120, 255, 120);
+
+    private final int maxRange;
+    private final long fadeMs;
+
+    // Palettes per fade level, built once
+    private final Color[] fieldColors = new Color[FADE_LEVELS];
+    private final Color[] echoColors = new Color[FADE_LEVELS];
+    private final Color[] detectionColors = new Color[FADE_LEVELS];
+
+    // Latest copy of the sweep, and what the echo image currently shows
+    private final int[] distances = new int[DEGREES];
+    private final long[] timestamps = new long[DEGREES];
+    private final boolean[] detections = new boolean[DEGREES];
+    private final boolean[] changed = new boolean[DEGREES];
+    private final int[] drawnLevels = new int[DEGREES];
+
+    private final Arc2D.Double wedge = new Arc2D.Double();
+    private final Line2D.Double line = new Line2D.Double();
+    private BufferedImage staticImage;
+    private BufferedImage echoImage;
+    private double scale = 1.0;
+    private int deviceWidth;
+    private int deviceHeight;
+    private double centerX;
+    private double centerY;
+    private double radius;
+
+    /**
+     * @param maxRange distance at the outer ring, in cm
+     * @param fadeMs   how long an echo stays visible without a new reading at its angle
+     */
+    public PolarRenderer(int maxRange, long fadeMs) {
+        this.maxRange = maxRange;
+        this.fadeMs = fadeMs;
+        for (int level = 0; level < FADE_LEVELS; level++) {
+            int alpha = 255 * (FADE_LEVELS - level) / FADE_LEVELS;
+            fieldColors[level] = new Color(0, 200, 0, alpha * 2 / 5);
+            echoColors[level] = new Color(180, 255, 0, alpha);
+            detectionColors[level] = new Color(255, 40, 40, alpha);
+        }
+        java.util.Arrays.fill(drawnLevels, FADE_LEVELS); // nothing drawn yet
+    }
+
+    /**
+     * Paints the scope with the sweep's current state at time {@code now}.
+     * Returns true while echoes are still fading, i.e. another frame is needed
+     * even if no new readings arrive.
+     */
+    public boolean paint(Graphics2D g2d, int width, int height, SweepBuffer sweep, long now) {
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        double deviceScale = g2d.getTransform().getScaleX();
+        if (deviceScale <= 0) {
+            deviceScale = 1.0;
+        }
+        if (staticImage == null || deviceScale != scale
+                || deviceWidth != (int) Math.ceil(width * deviceScale)
+                || deviceHeight != (int) Math.ceil(height * deviceScale)) {
+            rebuild(g2d.getDeviceConfiguration(), width, height, deviceScale);
+        }
+
+        sweep.copyChanges(distances, timestamps, detections, changed);
+        boolean fading = updateEchoes(now);
+
+        g2d.drawImage(staticImage, 0, 0, width, height, null);
+        g2d.drawImage(echoImage, 0, 0, width, height, null);
+
+        // The sweep line moves every reading, so it is drawn live
+        int degree = sweep.getLastDegree();
+        if (degree >= 0) {
+            double angle = Math.toRadians(degree);
+            line.setLine(centerX / scale, centerY / scale,
+                    (centerX + radius * Math.cos(angle)) / scale, (centerY - radius * Math.sin(angle)) / scale);
+            Stroke oldStroke = g2d.getStroke();
+            g2d.setColor(SWEEP);
+            g2d.setStroke(new BasicStroke(2f));
+            g2d.draw(line);
+            g2d.setStroke(oldStroke);
+        }
+        return fading;
+    }
+
+    private boolean updateEchoes(long now) {
+        Graphics2D g = null;
+        boolean fading = false;
+        for (int d = 0; d < DEGREES; d++) {
+            int level = FADE_LEVELS;
+            if (timestamps[d] != 0) {
+                long age = Math.max(0, now - timestamps[d]);
+                level = (int) Math.min(FADE_LEVELS, age * FADE_LEVELS / fadeMs);
+            }
+            if (level < FADE_LEVELS) {
+                fading = true;
+            }
+            if (!changed[d] && level == drawnLevels[d]) {
+                continue;
+            }
+            if (g == null) {
+                g = echoImage.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+            }
+            drawWedge(g, d, level);
+            drawnLevels[d] = level;
+            changed[d] = false;
+        }
+        if (g != null) {
+            g.dispose();
+        }
+        return fading;
+    }
+
+    // Clears the degree's wedge and, unless it has faded out, paints its echo.
+    // Wedges are filled without antialiasing so neighbours meet without seams.
+    private void drawWedge(Graphics2D g, int degree, int level) {
+        g.setComposite(AlphaComposite.Clear);
+        setWedge(degree, radius + 2, Arc2D.PIE);
+        g.fill(wedge);
+        g.setComposite(AlphaComposite.SrcOver);
+        if (level >= FADE_LEVELS) {
+            return;
+        }
+        double hit = Math.min(distances[degree], maxRange) * radius / maxRange;
+        g.setColor(fieldColors[level]);
+        setWedge(degree, hit, Arc2D.PIE);
+        g.fill(wedge);
+
+        g.setColor(detections[degree] ? detectionColors[level] : echoColors[level]);
+        g.setStroke(new BasicStroke((float) (3 * scale), BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+        setWedge(degree, hit, Arc2D.OPEN);
+        g.draw(wedge);
+    }
+
+    private void setWedge(int degree, double r, int type) {
+        wedge.setArc(centerX - r, centerY - r, 2 * r, 2 * r, degree - 0.5, 1, type);
+    }
+
+    private void rebuild(GraphicsConfiguration config, int width, int height, double deviceScale) {
+        scale = deviceScale;
+        deviceWidth = (int) Math.ceil(width * deviceScale);
+        deviceHeight = (int) Math.ceil(height * deviceScale);
+        double margin = MARGIN * scale;
+        radius = Math.max(1, Math.min(deviceWidth / 2.0 - margin, deviceHeight - 2 * margin));
+        centerX = deviceWidth / 2.0;
+        centerY = deviceHeight - margin;
+
+        staticImage = config.createCompatibleImage(deviceWidth, deviceHeight, Transparency.OPAQUE);
+        Graphics2D g = staticImage.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        paintScope(g);
+        g.dispose();
+
+        echoImage = config.createCompatibleImage(deviceWidth, deviceHeight, Transparency.TRANSLUCENT);
+        java.util.Arrays.fill(changed, true); // repaint every echo at the new size
+    }
+
+    private void paintScope(Graphics2D g) {
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, deviceWidth, deviceHeight);
+
+        g.setStroke(new BasicStroke((float) scale));
+        g.setFont(new Font("Arial", Font.PLAIN, (int) Math.round(11 * scale)));
+        int rings = 4;
+        for (int i = 1; i <= rings; i++) {
+            double r = radius * i / rings;
+            g.setColor(GRID);
+            g.draw(new Arc2D.Double(centerX - r, centerY - r, 2 * r, 2 * r, 0, 180, Arc2D.OPEN));
+            g.setColor(LABEL);
+            g.drawString(String.valueOf(maxRange * i / rings), (float) (centerX + r - 10 * scale), (float) (centerY + 14 * scale));
+        }
+        g.drawString("cm", (float) (centerX - 8 * scale), (float) (centerY + 14 * scale));
+        for (int degree = 0; degree <= 180; degree += 30) {
+            double angle = Math.toRadians(degree);
+            double x = centerX + radius * Math.cos(angle);
+            double y = centerY - radius * Math.sin(angle);
+            g.setColor(GRID);
+            g.draw(new Line2D.Double(centerX, centerY, x, y));
+            g.setColor(LABEL);
+            g.drawString(degree + "°", (float) (x + (Math.cos(angle) * 8 - 8) * scale), (float) (y - 6 * scale));
+        }
+    }
+}
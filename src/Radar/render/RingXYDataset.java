@@ -0,0 +1,263 @@
+package Radar.render;
+
+import Radar.core.SampleView;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.xy.AbstractXYDataset;
+
+import javax.swing.JComponent;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.util.Arrays;
+
+/**
+ * XYDataset over fixed-size primitive rings, one per series, for charts fed at
+ * a sustained rate. {@link #append} is O(1) and allocation-free: no item or key
+ * objects, and once a series is full its oldest point is overwritten. X values
+ * must be appended in ascending order per series, which lets the domain bounds
+ * come from the ring ends instead of a scan.
+ *
+ * Appends do not notify listeners; call {@link #publishChanges()} once per batch
+ * so the chart redraws once per frame. Like JFreeChart's own datasets, use it on
+ * the EDT only.
+ *
+ * With {@link #setDisplayColumns} (or {@link #fitToWidthOf}) set, a series
+ * holding more than two points per pixel column is shown to the chart through
+ * a {@link MinMaxDecimator}: the renderer then draws at most a few points per
+ * column, however long the window, and peaks and dips still show. The full
+ * series is kept; the displayed subset is rebuilt by each publishChanges().
+ */
+public class RingXYDataset extends AbstractXYDataset implements DomainInfo {
+
+    private final Comparable<?>[] seriesKeys;
+    private final double[][] xs;
+    private final double[][] ys;
+    private final int[] starts;
+    private final int[] counts;
+    private boolean changed = false;
+
+    // Decimated display, rebuilt by publishChanges(); shown[s] is null while series s is shown in full
+    private final MinMaxDecimator decimator = new MinMaxDecimator();
+    private final SeriesView seriesView = new SeriesView();
+    private final int[][] shown;
+    private final int[] shownCounts;
+    private int displayColumns = 0;
+
+    public RingXYDataset(int capacity, Comparable<?>... seriesKeys) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.seriesKeys = seriesKeys.clone();
+        this.xs = new double[seriesKeys.length][capacity];
+        this.ys = new double[seriesKeys.length][capacity];
+        this.starts = new int[seriesKeys.length];
+        this.counts = new int[seriesKeys.length];
+        this.shown = new int[seriesKeys.length][];
+        this.shownCounts = new int[seriesKeys.length];
+    }
+
+    /** Adds a point to {@code series}, evicting its oldest point once the ring is full. */
+    public void append(int series, double x, double y) {
+        double[] xRing = xs[series];
+        int capacity = xRing.length;
+        int slot;
+        if (counts[series] < capacity) {
+            slot = starts[series] + counts[series];
+            if (slot >= capacity) {
+                slot -= capacity;
+            }
+            counts[series]++;
+        } else {
+            slot = starts[series];
+            starts[series] = slot + 1 == capacity ? 0 : slot + 1;
+        }
+        xRing[slot] = x;
+        ys[series][slot] = y;
+        changed = true;
+    }
+
+    /** Drops the points of every series whose x is below {@code minX}, e.g. to keep a time window. */
+    public void evictBefore(double minX) {
+        for (int s = 0; s < seriesKeys.length; s++) {
+            double[] xRing = xs[s];
+            while (counts[s] > 0 && xRing[starts[s]] < minX) {
+                starts[s] = starts[s] + 1 == xRing.length ? 0 : starts[s] + 1;
+                counts[s]--;
+                changed = true;
+            }
+        }
+    }
+
+    /** Sends one change event for everything changed since the last call, if anything was. */
+    public void publishChanges() {
+        if (changed) {
+            changed = false;
+            updateDisplay();
+            fireDatasetChanged();
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(starts, 0);
+        Arrays.fill(counts, 0);
+        changed = true;
+    }
+
+    /**
+     * Shows series with more than two points per column decimated to about
+     * {@code columns} pixel columns; 0 shows every point. Takes effect with the
+     * next {@link #publishChanges()}.
+     */
+    public void setDisplayColumns(int columns) {
+        if (columns != displayColumns) {
+            displayColumns = Math.max(0, columns);
+            changed = true;
+        }
+    }
+
+    /** Keeps the display columns equal to the width of {@code component}, normally the ChartPanel. */
+    public void fitToWidthOf(JComponent component) {
+        component.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                setDisplayColumns(component.getWidth());
+                publishChanges();
+            }
+        });
+    }
+
+    public int getCapacity() {
+        return xs.length == 0 ? 0 : xs[0].length;
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return seriesKeys.length;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Comparable getSeriesKey(int series) {
+        return seriesKeys[series];
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        return shown[series] == null ? counts[series] : shownCounts[series];
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        return xs[series][shownSlot(series, item)];
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        return ys[series][shownSlot(series, item)];
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getYValue(series, item);
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        double lower = Double.NaN;
+        for (int s = 0; s < seriesKeys.length; s++) {
+            if (counts[s] > 0) {
+                double first = xs[s][slot(s, 0)];
+                lower = Double.isNaN(lower) ? first : Math.min(lower, first);
+            }
+        }
+        return lower;
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        double upper = Double.NaN;
+        for (int s = 0; s < seriesKeys.length; s++) {
+            if (counts[s] > 0) {
+                double last = xs[s][slot(s, counts[s] - 1)];
+                upper = Double.isNaN(upper) ? last : Math.max(upper, last);
+            }
+        }
+        return upper;
+    }
+
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        double lower = getDomainLowerBound(includeInterval);
+        return Double.isNaN(lower) ? null : new Range(lower, getDomainUpperBound(includeInterval));
+    }
+
+    private int slot(int series, int item) {
+        int slot = starts[series] + item;
+        int capacity = xs[series].length;
+        return slot >= capacity ? slot - capacity : slot;
+    }
+
+    // Ring slot of the item-th point the chart sees
+    private int shownSlot(int series, int item) {
+        return shown[series] == null ? slot(series, item) : shown[series][item];
+    }
+
+    private void updateDisplay() {
+        for (int s = 0; s < seriesKeys.length; s++) {
+            if (displayColumns == 0 || counts[s] <= 2 * displayColumns) {
+                shown[s] = null;
+                continue;
+            }
+            seriesView.series = s;
+            int n = decimator.decimate(seriesView, 0, counts[s], displayColumns);
+            if (shown[s] == null || shown[s].length < n) {
+                shown[s] = new int[Math.max(n, 4 * displayColumns + 2)];
+            }
+            for (int i = 0; i < n; i++) {
+                shown[s][i] = slot(s, decimator.indexAt(i));
+            }
+            shownCounts[s] = n;
+        }
+    }
+
+    // One series as the decimator sees it
+    private class SeriesView implements SampleView {
+        int series;
+
+        @Override
+        public int size() {
+            return counts[series];
+        }
+
+        @Override
+        public long timestampAt(int index) {
+            return (long) xs[series][slot(series, index)];
+        }
+
+        @Override
+        public int distanceAt(int index) {
+            return (int) Math.round(ys[series][slot(series, index)]);
+        }
+
+        @Override
+        public boolean isDetected(int index) {
+            return false;
+        }
+
+        @Override
+        public long totalAppended() {
+            return counts[series];
+        }
+    }
+}
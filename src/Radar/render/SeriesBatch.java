@@ -0,0 +1,44 @@
+package Radar.render;
+
+import org.jfree.data.general.Series;
+
+/**
+ * Groups updates to JFreeChart series into one change event per series.
+ *
+ * Every add to a series normally fires a change event, and each event makes
+ * the plot rescan the dataset for its axis ranges and redraw the chart. Between
+ * {@link #begin()} and {@link #end()} the series stay silent; {@link #end()}
+ * then fires a single event each, so a frame costs one rescan however many
+ * samples it brings. Must be used on the EDT, like the series themselves.
+ */
+public class SeriesBatch {
+
+    private final Series[] series;
+    private boolean open = false;
+
+    public SeriesBatch(Series... series) {
+        this.series = series.clone();
+    }
+
+    /** Starts a batch; does nothing if one is already open. */
+    public void begin() {
+        if (open) {
+            return;
+        }
+        open = true;
+        for (Series s : series) {
+            s.setNotify(false);
+        }
+    }
+
+    /** Ends the batch and notifies listeners once per series; does nothing if none is open. */
+    public void end() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        for (Series s : series) {
+            s.setNotify(true); // fires the deferred change event
+        }
+    }
+}
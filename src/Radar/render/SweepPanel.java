@@ -0,0 +1,75 @@
+package Radar.render;
+
+import Radar.core.SweepBuffer;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Panel showing a {@link SweepBuffer} through a {@link PolarRenderer}.
+ *
+ * A Swing timer checks the buffer once per frame and repaints only if it has
+ * new readings or echoes are still fading, so an idle sensor costs nothing.
+ * The timer runs while the panel is displayable.
+ */
+public class SweepPanel extends JPanel {
+
+    public static final int DEFAULT_MAX_RANGE = 400; // cm
+    public static final long DEFAULT_FADE_MS = 3000;
+    private static final int FRAME_MS = 33;
+
+    private final SweepBuffer sweep;
+    private final PolarRenderer renderer;
+    private Timer timer; // created in addNotify, so the constructor does not hand out this
+    private boolean fading = false;
+
+    public SweepPanel(SweepBuffer sweep) {
+        this(sweep, DEFAULT_MAX_RANGE, DEFAULT_FADE_MS);
+    }
+
+    public SweepPanel(SweepBuffer sweep, int maxRange, long fadeMs) {
+        this.sweep = sweep;
+        this.renderer = new PolarRenderer(maxRange, fadeMs);
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (timer == null) {
+            timer = new Timer(FRAME_MS, e -> {
+                if (fading || sweep.hasChanges()) {
+                    repaint();
+                }
+            });
+        }
+        timer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        if (timer != null) {
+            timer.stop();
+        }
+        super.removeNotify();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return isPreferredSizeSet() ? super.getPreferredSize() : new Dimension(420, 260);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Insets insets = getInsets();
+        Graphics2D g2d = (Graphics2D) g.create();
+        try {
+            g2d.translate(insets.left, insets.top);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            fading = renderer.paint(g2d, getWidth() - insets.left - insets.right,
+                    getHeight() - insets.top - insets.bottom, sweep, System.currentTimeMillis());
+        } finally {
+            g2d.dispose();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package Radar.serial;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff for reconnect attempts: the delay doubles after every
+ * failure up to a cap, with +/-20% jitter so several dashboards restarting
+ * together do not retry in lockstep. Not thread-safe.
+ */
+public class Backoff {
+
+    private final long initialMs;
+    private final long maxMs;
+    private long nextMs;
+    private int attempts = 0;
+
+    public Backoff(long initialMs, long maxMs) {
+        this.initialMs = initialMs;
+        this.maxMs = maxMs;
+        this.nextMs = initialMs;
+    }
+
+    /** Delay before the next attempt; each call doubles the one after it. */
+    public long nextDelay() {
+        long delay = nextMs;
+        nextMs = Math.min(maxMs, nextMs * 2);
+        attempts++;
+        double jitter = 0.8 + 0.4 * ThreadLocalRandom.current().nextDouble();
+        return Math.max(1, (long) (delay * jitter));
+    }
+
+    /** Called after a successful connect. */
+    public void reset() {
+        nextMs = initialMs;
+        attempts = 0;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+}
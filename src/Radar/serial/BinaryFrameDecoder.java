@@ -0,0 +1,119 @@
+package Radar.serial;
+
+/**
+ * Decodes the compact binary frames sent by arduino_sketch_binary.ino.
+ *
+ * Frame layout (10 bytes, little-endian):
+ * <pre>
+ *   0      sync byte 0xA5
+ *   1-2    angle in degrees       (uint16)
+ *   3-4    distance in cm         (uint16)
+ *   5-8    Arduino millis()       (uint32)
+ *   9      CRC-8 of bytes 1-8     (poly 0x07, init 0x00)
+ * </pre>
+ * A frame that fails its CRC is dropped and the decoder resynchronises on the
+ * next sync byte inside the bytes already received, so a single corrupted or
+ * lost byte costs at most one frame.
+ */
+public class BinaryFrameDecoder extends FrameDecoder {
+
+    public static final int SYNC = 0xA5;
+    public static final int FRAME_SIZE = 10;
+
+    private static final byte[] CRC_TABLE = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80) != 0 ? (crc << 1) ^ 0x07 : crc << 1;
+            }
+            CRC_TABLE[i] = (byte) crc;
+        }
+    }
+
+    private final byte[] frame = new byte[FRAME_SIZE];
+    private int frameLength = 0;
+    private long skippedBytes = 0;
+
+    public BinaryFrameDecoder(FrameListener listener) {
+        this(listener, 4096);
+    }
+
+    public BinaryFrameDecoder(FrameListener listener, int bufferSize) {
+        super(listener, bufferSize);
+    }
+
+    @Override
+    public void feed(byte[] data, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            byte b = data[i];
+            if (frameLength == 0) {
+                if ((b & 0xFF) != SYNC) {
+                    skippedBytes++;
+                    continue;
+                }
+            }
+            frame[frameLength++] = b;
+            if (frameLength == FRAME_SIZE) {
+                decodeFrame();
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        frameLength = 0;
+    }
+
+    /** Bytes discarded while hunting for a sync byte. */
+    public long getSkippedBytes() {
+        return skippedBytes;
+    }
+
+    public static int crc8(byte[] data, int offset, int length) {
+        int crc = 0;
+        for (int i = offset; i < offset + length; i++) {
+            crc = CRC_TABLE[(crc ^ data[i]) & 0xFF] & 0xFF;
+        }
+        return crc;
+    }
+
+    /** Writes one frame into {@code out} at {@code offset}, laid out as the binary sketch sends it. */
+    public static void encode(int degree, int distance, long millis, byte[] out, int offset) {
+        out[offset] = (byte) SYNC;
+        out[offset + 1] = (byte) degree;
+        out[offset + 2] = (byte) (degree >>> 8);
+        out[offset + 3] = (byte) distance;
+        out[offset + 4] = (byte) (distance >>> 8);
+        out[offset + 5] = (byte) millis;
+        out[offset + 6] = (byte) (millis >>> 8);
+        out[offset + 7] = (byte) (millis >>> 16);
+        out[offset + 8] = (byte) (millis >>> 24);
+        out[offset + 9] = (byte) crc8(out, offset + 1, 8);
+    }
+
+    private void decodeFrame() {
+        if (crc8(frame, 1, 8) == (frame[9] & 0xFF)) {
+            int degree = (frame[1] & 0xFF) | (frame[2] & 0xFF) << 8;
+            int distance = (frame[3] & 0xFF) | (frame[4] & 0xFF) << 8;
+            long millis = (frame[5] & 0xFFL) | (frame[6] & 0xFFL) << 8
+                    | (frame[7] & 0xFFL) << 16 | (frame[8] & 0xFFL) << 24;
+            frameLength = 0;
+            frameCount++;
+            listener.onFrame(degree, distance, millis);
+            return;
+        }
+
+        // Bad CRC: the real frame may start at a later sync byte we already buffered
+        malformedCount++;
+        int next = 1;
+        while (next < FRAME_SIZE && (frame[next] & 0xFF) != SYNC) {
+            next++;
+        }
+        skippedBytes += next;
+        frameLength = FRAME_SIZE - next;
+        System.arraycopy(frame, next, frame, 0, frameLength);
+    }
+}
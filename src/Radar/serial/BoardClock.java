@@ -0,0 +1,52 @@
+package Radar.serial;
+
+/**
+ * Maps the timestamps a board puts in its frames (its own {@code millis()},
+ * which starts at zero on every reset) onto the host clock.
+ *
+ * The first frame anchors the board clock to the host clock; later frames keep
+ * the board's own spacing, which is steadier than the host's arrival times. If
+ * the mapped time drifts more than {@code resyncMs} from the host clock (the
+ * board reset, or its clock ran off) the clock is anchored again. Results never
+ * go backwards, so a re-anchor cannot reorder samples. Frames without a
+ * timestamp get the host time. Not thread-safe; use one per connection.
+ */
+public class BoardClock {
+
+    public static final long DEFAULT_RESYNC_MS = 5000;
+
+    private final long resyncMs;
+    private long offset; // host time minus board time
+    private boolean anchored = false;
+    private long last = Long.MIN_VALUE;
+
+    public BoardClock() {
+        this(DEFAULT_RESYNC_MS);
+    }
+
+    public BoardClock(long resyncMs) {
+        this.resyncMs = resyncMs;
+    }
+
+    /**
+     * Host time of a frame stamped {@code boardMillis} (or
+     * {@link SerialFrameParser#NO_TIMESTAMP}) that arrived at {@code hostMillis}.
+     */
+    public long toHost(long boardMillis, long hostMillis) {
+        long time = hostMillis;
+        if (boardMillis != SerialFrameParser.NO_TIMESTAMP) {
+            if (!anchored || Math.abs(hostMillis - (boardMillis + offset)) > resyncMs) {
+                offset = hostMillis - boardMillis;
+                anchored = true;
+            }
+            time = boardMillis + offset;
+        }
+        last = Math.max(last, time);
+        return last;
+    }
+
+    /** Anchors again on the next frame, e.g. after the port was reopened and the board reset. */
+    public void reset() {
+        anchored = false;
+    }
+}
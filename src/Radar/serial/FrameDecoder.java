@@ -0,0 +1,63 @@
+package Radar.serial;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Base class for the serial frame decoders. Owns the reusable read buffer and
+ * the frame counters; subclasses decode bytes handed to {@link #feed}.
+ */
+public abstract class FrameDecoder {
+
+    public interface FrameListener {
+        void onFrame(int degree, int distance, long timestamp);
+    }
+
+    protected final FrameListener listener;
+    private final byte[] buffer;
+
+    protected long frameCount = 0;
+    protected long malformedCount = 0;
+
+    protected FrameDecoder(FrameListener listener, int bufferSize) {
+        this.listener = listener;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Reads whatever the port has (subject to its configured timeouts) and decodes it.
+     * Returns the number of bytes read, 0 on timeout, or -1 if the port failed.
+     */
+    public int readFrom(SerialPort port) {
+        int n = port.readBytes(buffer, buffer.length);
+        if (n > 0) {
+            feed(buffer, 0, n);
+        }
+        return n;
+    }
+
+    /** Reads one chunk from the stream and decodes it; returns -1 at end of stream. */
+    public int readFrom(InputStream in) throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n > 0) {
+            feed(buffer, 0, n);
+        }
+        return n;
+    }
+
+    public abstract void feed(byte[] data, int offset, int length);
+
+    /** Drops any partially received frame, e.g. after reconnecting. */
+    public abstract void reset();
+
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /** Frames rejected by the decoder (bad text line or failed CRC). */
+    public long getMalformedCount() {
+        return malformedCount;
+    }
+}
@@ -0,0 +1,152 @@
+package Radar.serial;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the serial port the radar sensor is attached to.
+ *
+ * Every port reported by {@link SerialPort#getCommPorts()} (COMx on Windows,
+ * /dev/ttyUSB* and /dev/ttyACM* on Linux, ...) is opened and probed on its own
+ * thread. A port only counts as found once it delivers a valid frame in the
+ * requested {@link WireFormat} before the deadline; the first such port wins
+ * and the other probes close their ports and stop.
+ *
+ * The winning port name is cached. The next {@link #discover} probes it alone
+ * first, so a reconnect returns as soon as the sensor sends its next frame and
+ * only falls back to a full scan if the sensor has moved.
+ *
+ * Listener methods run on a discovery thread, never on the EDT.
+ */
+public class PortDiscovery {
+
+    public interface Listener {
+        /** {@code port} is open and configured; the caller owns it from now on. */
+        void onFound(SerialPort port);
+
+        void onNotFound(List<String> probedPorts);
+    }
+
+    public static final long DEFAULT_DEADLINE_MS = 3000; // most boards reset on open and boot for ~2 s
+    private static final int PROBE_TIMEOUT_MS = 100;
+
+    private final int baudRate;
+    private final long deadlineMs;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "port-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile String cachedPortName;
+
+    public PortDiscovery(int baudRate) {
+        this(baudRate, DEFAULT_DEADLINE_MS);
+    }
+
+    public PortDiscovery(int baudRate, long deadlineMs) {
+        this.baudRate = baudRate;
+        this.deadlineMs = deadlineMs;
+    }
+
+    /** Starts looking for the sensor in the background and reports to {@code listener}. */
+    public void discover(WireFormat format, Listener listener) {
+        executor.execute(() -> {
+            String cached = cachedPortName;
+            if (cached != null) {
+                SerialPort port = probe(SerialPort.getCommPort(cached), format, new AtomicBoolean());
+                if (port != null) {
+                    listener.onFound(port);
+                    return;
+                }
+                cachedPortName = null;
+            }
+            scan(format, listener);
+        });
+    }
+
+    /** Name of the port the sensor was last found on, or null. */
+    public String getCachedPortName() {
+        return cachedPortName;
+    }
+
+    /** Makes {@code portName} the first port tried, e.g. one the user opened by hand. */
+    public void rememberPort(String portName) {
+        cachedPortName = portName;
+    }
+
+    public void forgetCachedPort() {
+        cachedPortName = null;
+    }
+
+    public int getBaudRate() {
+        return baudRate;
+    }
+
+    private void scan(WireFormat format, Listener listener) {
+        SerialPort[] candidates = SerialPort.getCommPorts();
+        List<String> names = new ArrayList<>();
+        for (SerialPort candidate : candidates) {
+            names.add(candidate.getSystemPortName());
+        }
+        if (candidates.length == 0) {
+            listener.onNotFound(names);
+            return;
+        }
+
+        AtomicBoolean found = new AtomicBoolean();
+        AtomicInteger remaining = new AtomicInteger(candidates.length);
+        for (SerialPort candidate : candidates) {
+            executor.execute(() -> {
+                SerialPort port = probe(candidate, format, found);
+                if (port != null && found.compareAndSet(false, true)) {
+                    cachedPortName = port.getSystemPortName();
+                    listener.onFound(port);
+                } else if (port != null) {
+                    port.closePort(); // lost the race to another port
+                }
+                if (remaining.decrementAndGet() == 0 && !found.get()) {
+                    listener.onNotFound(names);
+                }
+            });
+        }
+    }
+
+    /**
+     * Opens {@code port} and waits for one valid frame. Returns the still-open
+     * port on success, or null after closing it.
+     */
+    private SerialPort probe(SerialPort port, WireFormat format, AtomicBoolean stop) {
+        String name = port.getSystemPortName();
+        port.setBaudRate(baudRate);
+        port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, PROBE_TIMEOUT_MS, 0);
+        if (!port.openPort()) {
+            System.out.println("Probe " + name + ": could not open");
+            return null;
+        }
+
+        FrameDecoder decoder = format.newDecoder((degree, distance, timestamp) -> { });
+        long deadline = System.currentTimeMillis() + deadlineMs;
+        while (!stop.get() && System.currentTimeMillis() < deadline) {
+            if (decoder.readFrom(port) < 0) {
+                break;
+            }
+            if (decoder.getFrameCount() > 0) {
+                // Switch back to the timeout the readers expect
+                port.setComPortTimeouts(SerialPort.TIMEOUT_READ_SEMI_BLOCKING, 1000, 0);
+                System.out.println("Probe " + name + ": radar frames found");
+                return port;
+            }
+        }
+        port.closePort();
+        if (!stop.get()) {
+            System.out.println("Probe " + name + ": no valid frame within " + deadlineMs + " ms");
+        }
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+package Radar.serial;
+
+import com.fazecast.jSerialComm.SerialPort;
+import com.fazecast.jSerialComm.SerialPortDataListener;
+import com.fazecast.jSerialComm.SerialPortEvent;
+
+/**
+ * Event-driven serial ingest: bytes are decoded when jSerialComm reports them
+ * available instead of by a reader thread blocking in the port's read timeout.
+ *
+ * {@link #start()} switches the port to non-blocking reads and registers a
+ * data listener. Each DATA_AVAILABLE event drains what the port has into the
+ * {@link FrameDecoder}, so frames reach its listener on jSerialComm's event
+ * thread. {@link #stop()} takes effect immediately: the listener is removed and
+ * any event still being handled stops feeding the decoder.
+ *
+ * A failed read or jSerialComm's PORT_DISCONNECTED event (cable pulled, board
+ * reset) deactivates the ingest and runs {@code onFailure} once.
+ */
+public class SerialEventIngest implements SerialPortDataListener {
+
+    private final SerialPort port;
+    private final FrameDecoder decoder;
+    private final Runnable onFailure;
+    private volatile boolean active = false;
+
+    /** @param onFailure run on the event thread if a read fails or the port disappears; may be null */
+    public SerialEventIngest(SerialPort port, FrameDecoder decoder, Runnable onFailure) {
+        this.port = port;
+        this.decoder = decoder;
+        this.onFailure = onFailure;
+    }
+
+    /** Returns false if the listener could not be registered (e.g. the port is closed). */
+    public boolean start() {
+        port.setComPortTimeouts(SerialPort.TIMEOUT_NONBLOCKING, 0, 0);
+        active = true;
+        if (!port.addDataListener(this)) {
+            active = false;
+            return false;
+        }
+        return true;
+    }
+
+    public void stop() {
+        active = false;
+        port.removeDataListener();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public FrameDecoder getDecoder() {
+        return decoder;
+    }
+
+    @Override
+    public int getListeningEvents() {
+        return SerialPort.LISTENING_EVENT_DATA_AVAILABLE | SerialPort.LISTENING_EVENT_PORT_DISCONNECTED;
+    }
+
+    @Override
+    public void serialEvent(SerialPortEvent event) {
+        if ((event.getEventType() & SerialPort.LISTENING_EVENT_PORT_DISCONNECTED) != 0) {
+            fail();
+            return;
+        }
+        // Drain everything buffered so one event can cover several frames
+        while (active && port.bytesAvailable() > 0) {
+            if (decoder.readFrom(port) < 0) {
+                fail();
+                return;
+            }
+        }
+    }
+
+    private synchronized void fail() {
+        if (!active) {
+            return; // stopped, or already reported
+        }
+        active = false;
+        if (onFailure != null) {
+            onFailure.run();
+        }
+    }
+}
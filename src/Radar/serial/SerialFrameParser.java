@@ -0,0 +1,155 @@
+package Radar.serial;
+
+/**
+ * Parses "degree,distance[,timestamp]" text frames straight from serial bytes.
+ *
+ * Digits are accumulated into primitive fields as they arrive, so frames may be
+ * split across reads and no Strings or arrays are created per sample. Lines
+ * that do not match the format are counted and skipped instead of throwing.
+ *
+ * As with the original split-based reader, only degree and distance are
+ * required: a third field that is not a number only loses the timestamp, and
+ * any further fields (e.g. a detection flag added by a sketch) are ignored.
+ */
+public class SerialFrameParser extends FrameDecoder {
+
+    /** Passed to {@link FrameListener#onFrame} when the frame carried no timestamp. */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final int MAX_FIELDS = 3;
+    private static final int MAX_DIGITS = 18; // keeps the accumulator inside a long
+
+    // Per-line state
+    private final long[] fields = new long[MAX_FIELDS];
+    private int fieldIndex = 0;
+    private int digits = 0;
+    private boolean negative = false;
+    private boolean trailingSpace = false; // whitespace seen after the digits of a field
+    private boolean lineStarted = false;
+    private boolean malformed = false;
+    private boolean ignoreRest = false; // past the timestamp field
+    private boolean timestampInvalid = false;
+
+    public SerialFrameParser(FrameListener listener) {
+        this(listener, 4096);
+    }
+
+    public SerialFrameParser(FrameListener listener, int bufferSize) {
+        super(listener, bufferSize);
+    }
+
+    @Override
+    public void feed(byte[] data, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            int b = data[i];
+            if (b == '\n') {
+                endLine();
+            } else if (malformed || ignoreRest) {
+                // Skip the rest of a bad line, or the fields after the timestamp
+            } else if (b >= '0' && b <= '9') {
+                if (trailingSpace || digits == MAX_DIGITS) {
+                    fieldError();
+                } else {
+                    fields[fieldIndex] = fields[fieldIndex] * 10 + (b - '0');
+                    digits++;
+                }
+                lineStarted = true;
+            } else if (b == ',') {
+                if (fieldIndex == MAX_FIELDS - 1) {
+                    ignoreRest = true;
+                } else if (digits == 0) {
+                    malformed = true;
+                } else {
+                    closeField();
+                    fieldIndex++;
+                }
+                lineStarted = true;
+            } else if (b == '-') {
+                if (digits != 0 || negative) {
+                    fieldError();
+                }
+                negative = true;
+                lineStarted = true;
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                if (digits != 0) {
+                    trailingSpace = true;
+                }
+            } else {
+                fieldError();
+                lineStarted = true;
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        resetLine();
+    }
+
+    // A bad degree or distance spoils the line; a bad timestamp is just dropped
+    private void fieldError() {
+        if (fieldIndex == MAX_FIELDS - 1) {
+            timestampInvalid = true;
+            ignoreRest = true;
+        } else {
+            malformed = true;
+        }
+    }
+
+    private void closeField() {
+        if (negative) {
+            fields[fieldIndex] = -fields[fieldIndex];
+        }
+        digits = 0;
+        negative = false;
+        trailingSpace = false;
+    }
+
+    private void endLine() {
+        if (!lineStarted) {
+            resetLine(); // blank line
+            return;
+        }
+        if (malformed || (fieldIndex < MAX_FIELDS - 1 && digits == 0)) {
+            malformedCount++;
+            resetLine();
+            return;
+        }
+        long timestamp = NO_TIMESTAMP;
+        if (fieldIndex < MAX_FIELDS - 1) {
+            closeField();
+        } else if (digits > 0 && !timestampInvalid) {
+            closeField();
+            timestamp = fields[MAX_FIELDS - 1];
+        }
+        if (fieldIndex == 0 || !fitsInt(fields[0]) || !fitsInt(fields[1])) {
+            malformedCount++;
+            resetLine();
+            return;
+        }
+        frameCount++;
+        int degree = (int) fields[0];
+        int distance = (int) fields[1];
+        resetLine();
+        listener.onFrame(degree, distance, timestamp);
+    }
+
+    private void resetLine() {
+        fields[0] = 0;
+        fields[1] = 0;
+        fields[2] = 0;
+        fieldIndex = 0;
+        digits = 0;
+        negative = false;
+        trailingSpace = false;
+        lineStarted = false;
+        malformed = false;
+        ignoreRest = false;
+        timestampInvalid = false;
+    }
+
+    private static boolean fitsInt(long value) {
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+}
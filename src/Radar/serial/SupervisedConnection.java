@@ -0,0 +1,225 @@
+package Radar.serial;
+
+import com.fazecast.jSerialComm.SerialPort;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the serial link to the sensor alive for unattended runs.
+ *
+ * Frames are read with a {@link SerialEventIngest}. The link counts as lost
+ * when jSerialComm reports the port disconnected, a read fails, or no frame has
+ * arrived for {@code stallTimeoutMs} (a hung USB adapter can stay "open"). The
+ * port is then closed and reopened through {@link PortDiscovery}, which tries
+ * the last known port first and falls back to a full scan in case the device
+ * came back under another name. Attempts are spaced by exponential
+ * {@link Backoff}, and the outage is reported as one gap from the moment the
+ * link was lost to the moment frames flowed again.
+ *
+ * Listener methods run on background threads. {@link Listener#onReconnected}
+ * runs on the serial event thread just before the first frame after the
+ * outage is delivered, so anything it records is ordered with the frames.
+ */
+public class SupervisedConnection {
+
+    public interface Listener {
+        void onDisconnected(long atMillis);
+
+        void onRetryScheduled(int attempt, long delayMs);
+
+        /** Frames are flowing again on {@code port}; no data exists between the two times. */
+        void onReconnected(SerialPort port, long gapStartMillis, long gapEndMillis);
+    }
+
+    public static final long DEFAULT_INITIAL_BACKOFF_MS = 250;
+    public static final long DEFAULT_MAX_BACKOFF_MS = 30_000;
+    public static final long DEFAULT_STALL_TIMEOUT_MS = 5_000;
+
+    private static final long WATCHDOG_PERIOD_MS = 1000;
+
+    private final PortDiscovery discovery;
+    private final WireFormat format;
+    private final FrameDecoder decoder;
+    private final Listener listener;
+    private final long stallTimeoutMs;
+    private final Backoff backoff = new Backoff(DEFAULT_INITIAL_BACKOFF_MS, DEFAULT_MAX_BACKOFF_MS);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "serial-supervisor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long framesSeen = 0; // written by the serial event thread only
+    private volatile SerialPort reopenedPort; // set from reopening until the first frame arrives
+    private volatile long gapStart;
+
+    // Guarded by this
+    private SerialPort port;
+    private SerialEventIngest ingest;
+    private boolean stopped = false;
+    private long lastFramesSeen;
+    private long lastProgress;
+    private ScheduledFuture<?> watchdog;
+
+    public SupervisedConnection(PortDiscovery discovery, WireFormat format,
+                                FrameDecoder.FrameListener frames, Listener listener) {
+        this(discovery, format, frames, listener, DEFAULT_STALL_TIMEOUT_MS);
+    }
+
+    /** @param stallTimeoutMs silence after which the link is treated as lost; 0 disables the check */
+    public SupervisedConnection(PortDiscovery discovery, WireFormat format, FrameDecoder.FrameListener frames,
+                                Listener listener, long stallTimeoutMs) {
+        this.discovery = discovery;
+        this.format = format;
+        this.listener = listener;
+        this.stallTimeoutMs = stallTimeoutMs;
+        this.decoder = format.newDecoder((degree, distance, timestamp) -> {
+            framesSeen++;
+            SerialPort reopened = reopenedPort;
+            if (reopened != null) {
+                reopenedPort = null;
+                reportRestored(reopened);
+            }
+            frames.onFrame(degree, distance, timestamp);
+        });
+    }
+
+    /** Starts reading from an already opened port and supervising it. */
+    public synchronized void start(SerialPort openPort) {
+        discovery.rememberPort(openPort.getSystemPortName());
+        if (!attach(openPort)) {
+            linkLost(null);
+        }
+        if (stallTimeoutMs > 0) {
+            watchdog = scheduler.scheduleWithFixedDelay(this::checkStall,
+                    WATCHDOG_PERIOD_MS, WATCHDOG_PERIOD_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Stops reading, cancels any pending reconnect and closes the port. */
+    public synchronized void stop() {
+        stopped = true;
+        if (watchdog != null) {
+            watchdog.cancel(false);
+        }
+        scheduler.shutdownNow();
+        detach();
+    }
+
+    public synchronized boolean isConnected() {
+        return port != null;
+    }
+
+    public synchronized SerialPort getPort() {
+        return port;
+    }
+
+    public FrameDecoder getDecoder() {
+        return decoder;
+    }
+
+    private boolean attach(SerialPort newPort) {
+        decoder.reset(); // drop a frame cut off by the outage
+        SerialEventIngest newIngest = new SerialEventIngest(newPort, decoder,
+                () -> scheduler.execute(() -> linkLost(newPort)));
+        if (!newIngest.start()) {
+            newPort.closePort();
+            return false;
+        }
+        port = newPort;
+        ingest = newIngest;
+        lastFramesSeen = framesSeen;
+        lastProgress = System.currentTimeMillis();
+        return true;
+    }
+
+    private void detach() {
+        if (ingest != null) {
+            ingest.stop();
+            ingest = null;
+        }
+        if (port != null) {
+            port.closePort();
+            port = null;
+        }
+    }
+
+    // lostPort is the port that failed, or null if none was attached
+    private synchronized void linkLost(SerialPort lostPort) {
+        if (stopped || lostPort != port) {
+            return; // stale report for a port already replaced
+        }
+        detach();
+        System.out.println("Serial link lost" + (lostPort != null ? " on " + lostPort.getSystemPortName() : ""));
+        if (reopenedPort == null) {
+            gapStart = System.currentTimeMillis();
+            listener.onDisconnected(gapStart);
+        } else {
+            reopenedPort = null; // lost again before any frame: still the same outage
+        }
+        scheduleRetry();
+    }
+
+    private void scheduleRetry() {
+        long delay = backoff.nextDelay();
+        listener.onRetryScheduled(backoff.getAttempts(), delay);
+        scheduler.schedule(this::retry, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void retry() {
+        discovery.discover(format, new PortDiscovery.Listener() {
+            @Override
+            public void onFound(SerialPort found) {
+                reconnected(found);
+            }
+
+            @Override
+            public void onNotFound(java.util.List<String> probedPorts) {
+                synchronized (SupervisedConnection.this) {
+                    if (!stopped) {
+                        scheduleRetry();
+                    }
+                }
+            }
+        });
+    }
+
+    private synchronized void reconnected(SerialPort found) {
+        if (stopped) {
+            found.closePort();
+            return;
+        }
+        reopenedPort = found; // before attaching, so the first frame cannot miss it
+        if (!attach(found)) {
+            reopenedPort = null;
+            scheduleRetry();
+            return;
+        }
+        System.out.println("Serial port reopened: " + found.getSystemPortName() + " (" + backoff.getAttempts() + " attempts)");
+        backoff.reset();
+    }
+
+    // On the serial event thread, before the first frame after an outage
+    private void reportRestored(SerialPort reopened) {
+        long now = System.currentTimeMillis();
+        System.out.println("Serial link restored on " + reopened.getSystemPortName() + " after " + (now - gapStart) + " ms");
+        listener.onReconnected(reopened, gapStart, now);
+    }
+
+    private synchronized void checkStall() {
+        if (port == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long frames = framesSeen;
+        if (frames != lastFramesSeen) {
+            lastFramesSeen = frames;
+            lastProgress = now;
+        } else if (now - lastProgress > stallTimeoutMs) {
+            System.out.println("No frames for " + (now - lastProgress) + " ms, reconnecting");
+            linkLost(port);
+        }
+    }
+}
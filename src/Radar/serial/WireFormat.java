@@ -0,0 +1,36 @@
+package Radar.serial;
+
+/**
+ * Serial framing spoken by the Arduino. TEXT is the original
+ * "degree,distance,timestamp" line format; BINARY is the 10-byte framed
+ * format from arduino_sketch_binary.ino (see {@link BinaryFrameDecoder}).
+ */
+public enum WireFormat {
+    TEXT("Text (CSV lines)"),
+    BINARY("Binary (framed)");
+
+    private final String displayName;
+
+    WireFormat(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public FrameDecoder newDecoder(FrameDecoder.FrameListener listener) {
+        return this == BINARY ? new BinaryFrameDecoder(listener) : new SerialFrameParser(listener);
+    }
+
+    /** Parses a command-line style name such as "text" or "binary". */
+    public static WireFormat fromName(String name) {
+        for (WireFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown wire format: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,331 @@
+package Radar.tracking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Turns a stream of (degree, distance) readings into tracked objects.
+ *
+ * Every reading updates an {@link OccupancyGrid}, which maps what the sensor
+ * has seen over time, and only echoes that land in an occupied cell are used:
+ * a stray echo in space the sensor has repeatedly seen empty is ignored.
+ * Within a sweep, consecutive such echoes closer than
+ * {@code joinDistance} to each other are merged into one cluster, whose
+ * centroid is the object's measured position; clusters of a single echo are
+ * treated as glitches. A sweep ends when the servo reverses direction, after
+ * {@code maxSweepMs}, or after {@link #FIXED_SWEEP_MS} if the angle has not
+ * changed (a sensor fixed at one angle). At that point clusters are matched to
+ * the existing tracks by nearest neighbour, closest pairs first, within
+ * {@code gateDistance} of each track's predicted position. Matched tracks
+ * update their position and smoothed velocity; unmatched clusters start new
+ * tracks; tracks missing for more than {@link #MAX_MISSES} sweeps are dropped.
+ * A track is reported once it has been seen in {@link #CONFIRM_SWEEPS} sweeps.
+ *
+ * Everything is incremental and preallocated: a reading is O(beam length),
+ * a sweep end O(tracks x clusters), and the cluster and track tables are
+ * bounded ({@link #MAX_CLUSTERS}, {@link #MAX_TRACKS}). Extra clusters in a
+ * sweep, or new objects while the track table is full, are counted and dropped.
+ *
+ * Not thread-safe; the listener runs on the thread calling {@link #accept}.
+ */
+public class ObjectTracker {
+
+    public interface Listener {
+        /** Called at the end of every sweep with the confirmed tracks, oldest first. */
+        void onSweep(List<TrackedObject> objects, long timestamp);
+    }
+
+    public static final int DEFAULT_JOIN_DISTANCE = 15; // cm between neighbouring hits of one object
+    public static final int DEFAULT_GATE_DISTANCE = 50; // cm an object may move between sweeps
+    public static final long DEFAULT_MAX_SWEEP_MS = 5000;
+    public static final long FIXED_SWEEP_MS = 500;
+    public static final int MIN_CLUSTER_HITS = 2;
+    public static final int CONFIRM_SWEEPS = 2;
+    public static final int MAX_MISSES = 3;
+    public static final int MAX_CLUSTERS = 64;
+    public static final int MAX_TRACKS = 32;
+
+    private static final double VELOCITY_SMOOTHING = 0.5;
+
+    private final OccupancyGrid grid;
+    private final Listener listener;
+    private final double joinDistance;
+    private final double gateDistance;
+    private final long maxSweepMs;
+
+    // Sweep state
+    private int lastDegree = -1;
+    private int direction = 0;
+    private long sweepStart = Long.MIN_VALUE;
+    private boolean sweepMoved = false;
+
+    // Cluster being built from consecutive hits
+    private double openSumX;
+    private double openSumY;
+    private double openLastX;
+    private double openLastY;
+    private long openFirstTime;
+    private long openLastTime;
+    private int openHits = 0;
+
+    // Clusters closed during the current sweep
+    private final double[] clusterX = new double[MAX_CLUSTERS];
+    private final double[] clusterY = new double[MAX_CLUSTERS];
+    private final long[] clusterTime = new long[MAX_CLUSTERS];
+    private final boolean[] clusterMatched = new boolean[MAX_CLUSTERS];
+    private int clusterCount = 0;
+
+    // Live tracks
+    private final int[] trackIds = new int[MAX_TRACKS];
+    private final double[] trackX = new double[MAX_TRACKS];
+    private final double[] trackY = new double[MAX_TRACKS];
+    private final double[] trackVelocityX = new double[MAX_TRACKS];
+    private final double[] trackVelocityY = new double[MAX_TRACKS];
+    private final long[] trackFirstSeen = new long[MAX_TRACKS];
+    private final long[] trackLastSeen = new long[MAX_TRACKS];
+    private final int[] trackSweeps = new int[MAX_TRACKS];
+    private final int[] trackMisses = new int[MAX_TRACKS];
+    private final boolean[] trackMatched = new boolean[MAX_TRACKS];
+    private int trackCount = 0;
+    private int nextId = 1;
+
+    private long droppedCount = 0;
+    private List<TrackedObject> objects = Collections.emptyList();
+
+    public ObjectTracker(int maxRange, Listener listener) {
+        this(new OccupancyGrid(maxRange), listener, DEFAULT_JOIN_DISTANCE, DEFAULT_GATE_DISTANCE, DEFAULT_MAX_SWEEP_MS);
+    }
+
+    /** @param listener called once per sweep; may be null */
+    public ObjectTracker(OccupancyGrid grid, Listener listener, double joinDistance, double gateDistance, long maxSweepMs) {
+        this.grid = grid;
+        this.listener = listener;
+        this.joinDistance = joinDistance;
+        this.gateDistance = gateDistance;
+        this.maxSweepMs = maxSweepMs;
+    }
+
+    /** Feeds one reading; degrees outside 0-180 are ignored. */
+    public void accept(long timestamp, int degree, int distance) {
+        if (degree < 0 || degree > 180) {
+            return;
+        }
+        if (sweepStart == Long.MIN_VALUE) {
+            sweepStart = timestamp;
+        }
+        if (lastDegree >= 0) {
+            int step = Integer.signum(degree - lastDegree);
+            if (step != 0 && direction != 0 && step != direction) {
+                endSweep(timestamp);
+            }
+            if (step != 0) {
+                direction = step;
+                sweepMoved = true;
+            }
+        }
+        if (timestamp - sweepStart >= (sweepMoved ? maxSweepMs : FIXED_SWEEP_MS)) {
+            endSweep(timestamp);
+        }
+        lastDegree = degree;
+
+        boolean occupied = grid.update(degree, distance);
+        if (distance <= 0 || distance >= grid.getMaxRange()) {
+            closeCluster(); // no echo
+            return;
+        }
+        if (!occupied) {
+            return; // not enough evidence yet; neither joins nor splits the open cluster
+        }
+        double angle = Math.toRadians(degree);
+        double x = distance * Math.cos(angle);
+        double y = distance * Math.sin(angle);
+        if (openHits > 0 && Math.hypot(x - openLastX, y - openLastY) > joinDistance) {
+            closeCluster();
+        }
+        if (openHits == 0) {
+            openSumX = 0;
+            openSumY = 0;
+            openFirstTime = timestamp;
+        }
+        openSumX += x;
+        openSumY += y;
+        openLastX = x;
+        openLastY = y;
+        openLastTime = timestamp;
+        openHits++;
+    }
+
+    /** Confirmed tracks as of the end of the last sweep. */
+    public List<TrackedObject> getObjects() {
+        return objects;
+    }
+
+    public OccupancyGrid getGrid() {
+        return grid;
+    }
+
+    /** Clusters and new objects dropped because a table was full. */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    public void clear() {
+        grid.clear();
+        openHits = 0;
+        clusterCount = 0;
+        trackCount = 0;
+        lastDegree = -1;
+        direction = 0;
+        sweepStart = Long.MIN_VALUE;
+        sweepMoved = false;
+        objects = Collections.emptyList();
+    }
+
+    private void closeCluster() {
+        if (openHits < MIN_CLUSTER_HITS) {
+            openHits = 0;
+            return;
+        }
+        if (clusterCount < MAX_CLUSTERS) {
+            clusterX[clusterCount] = openSumX / openHits;
+            clusterY[clusterCount] = openSumY / openHits;
+            clusterTime[clusterCount] = openFirstTime + (openLastTime - openFirstTime) / 2;
+            clusterCount++;
+        } else {
+            droppedCount++;
+        }
+        openHits = 0;
+    }
+
+    private void endSweep(long timestamp) {
+        closeCluster();
+        associate();
+        objects = snapshot();
+        clusterCount = 0;
+        sweepStart = timestamp;
+        sweepMoved = false;
+        if (listener != null) {
+            listener.onSweep(objects, timestamp);
+        }
+    }
+
+    private void associate() {
+        for (int c = 0; c < clusterCount; c++) {
+            clusterMatched[c] = false;
+        }
+        for (int t = 0; t < trackCount; t++) {
+            trackMatched[t] = false;
+        }
+
+        // Greedy nearest neighbour: repeatedly take the closest free pair inside the gate
+        while (true) {
+            int bestTrack = -1;
+            int bestCluster = -1;
+            double best = gateDistance;
+            for (int t = 0; t < trackCount; t++) {
+                if (trackMatched[t]) {
+                    continue;
+                }
+                for (int c = 0; c < clusterCount; c++) {
+                    if (clusterMatched[c]) {
+                        continue;
+                    }
+                    double dt = (clusterTime[c] - trackLastSeen[t]) / 1000.0;
+                    double dx = clusterX[c] - (trackX[t] + trackVelocityX[t] * dt);
+                    double dy = clusterY[c] - (trackY[t] + trackVelocityY[t] * dt);
+                    double distance = Math.hypot(dx, dy);
+                    if (distance <= best) {
+                        best = distance;
+                        bestTrack = t;
+                        bestCluster = c;
+                    }
+                }
+            }
+            if (bestTrack < 0) {
+                break;
+            }
+            trackMatched[bestTrack] = true;
+            clusterMatched[bestCluster] = true;
+            updateTrack(bestTrack, bestCluster);
+        }
+
+        // Age out unmatched tracks, keeping the table compact and in creation order
+        int kept = 0;
+        for (int t = 0; t < trackCount; t++) {
+            if (!trackMatched[t] && ++trackMisses[t] > MAX_MISSES) {
+                continue;
+            }
+            if (kept != t) {
+                moveTrack(t, kept);
+            }
+            kept++;
+        }
+        trackCount = kept;
+
+        for (int c = 0; c < clusterCount; c++) {
+            if (clusterMatched[c]) {
+                continue;
+            }
+            if (trackCount == MAX_TRACKS) {
+                droppedCount++;
+                continue;
+            }
+            int t = trackCount++;
+            trackIds[t] = nextId++;
+            trackX[t] = clusterX[c];
+            trackY[t] = clusterY[c];
+            trackVelocityX[t] = 0;
+            trackVelocityY[t] = 0;
+            trackFirstSeen[t] = clusterTime[c];
+            trackLastSeen[t] = clusterTime[c];
+            trackSweeps[t] = 1;
+            trackMisses[t] = 0;
+        }
+    }
+
+    private void updateTrack(int t, int c) {
+        double dt = (clusterTime[c] - trackLastSeen[t]) / 1000.0;
+        if (dt > 0) {
+            double velocityX = (clusterX[c] - trackX[t]) / dt;
+            double velocityY = (clusterY[c] - trackY[t]) / dt;
+            if (trackSweeps[t] == 1) {
+                trackVelocityX[t] = velocityX;
+                trackVelocityY[t] = velocityY;
+            } else {
+                trackVelocityX[t] += VELOCITY_SMOOTHING * (velocityX - trackVelocityX[t]);
+                trackVelocityY[t] += VELOCITY_SMOOTHING * (velocityY - trackVelocityY[t]);
+            }
+            trackLastSeen[t] = clusterTime[c];
+        }
+        trackX[t] = clusterX[c];
+        trackY[t] = clusterY[c];
+        trackSweeps[t]++;
+        trackMisses[t] = 0;
+    }
+
+    private void moveTrack(int from, int to) {
+        trackIds[to] = trackIds[from];
+        trackX[to] = trackX[from];
+        trackY[to] = trackY[from];
+        trackVelocityX[to] = trackVelocityX[from];
+        trackVelocityY[to] = trackVelocityY[from];
+        trackFirstSeen[to] = trackFirstSeen[from];
+        trackLastSeen[to] = trackLastSeen[from];
+        trackSweeps[to] = trackSweeps[from];
+        trackMisses[to] = trackMisses[from];
+        trackMatched[to] = trackMatched[from];
+    }
+
+    private List<TrackedObject> snapshot() {
+        List<TrackedObject> list = new ArrayList<>(trackCount);
+        for (int t = 0; t < trackCount; t++) {
+            if (trackSweeps[t] < CONFIRM_SWEEPS) {
+                continue;
+            }
+            list.add(new TrackedObject(trackIds[t], trackX[t], trackY[t], trackVelocityX[t], trackVelocityY[t],
+                    trackFirstSeen[t], trackLastSeen[t], trackSweeps[t]));
+        }
+        return Collections.unmodifiableList(list);
+    }
+}
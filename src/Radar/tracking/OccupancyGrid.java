@@ -0,0 +1,119 @@
+package Radar.tracking;
+
+/**
+ * Occupancy grid over the half plane in front of a sweeping sensor, with the
+ * sensor at the origin, x to the right (0 degrees) and y straight ahead (90).
+ *
+ * Each cell holds a small evidence score. A reading raises the score of the
+ * cell it hit and lowers the cells its beam crossed on the way. A cell never
+ * seen before is occupied after one hit, but space that is repeatedly seen
+ * empty builds up negative evidence and a lone echo there is not enough to
+ * call the cell occupied ({@link ObjectTracker} then ignores the echo); a
+ * second hit is. Scores are clamped, which keeps the grid responsive when
+ * objects move. Memory is one byte per cell, fixed at construction; an update
+ * costs one step per cell along the beam.
+ *
+ * Not thread-safe; feed it from one thread.
+ */
+public class OccupancyGrid {
+
+    public static final int DEFAULT_CELL_SIZE = 5; // cm
+
+    private static final int HIT = 6;
+    private static final int MISS = -1;
+    private static final int MIN_SCORE = -8;
+    private static final int MAX_SCORE = 16;
+    private static final int OCCUPIED = 4;
+
+    private final int cellSize;
+    private final int maxRange;
+    private final int columns;
+    private final int rows;
+    private final byte[] cells;
+
+    public OccupancyGrid(int maxRange) {
+        this(maxRange, DEFAULT_CELL_SIZE);
+    }
+
+    public OccupancyGrid(int maxRange, int cellSize) {
+        if (maxRange <= 0 || cellSize <= 0) {
+            throw new IllegalArgumentException("Range and cell size must be positive");
+        }
+        this.cellSize = cellSize;
+        this.maxRange = maxRange;
+        this.rows = (maxRange + cellSize - 1) / cellSize + 1;
+        this.columns = 2 * rows;
+        this.cells = new byte[columns * rows];
+    }
+
+    /**
+     * Applies one reading. Returns true if the hit cell is occupied afterwards;
+     * readings at or beyond the range only clear the beam and return false.
+     */
+    public boolean update(int degree, int distance) {
+        double angle = Math.toRadians(degree);
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        boolean echo = distance > 0 && distance < maxRange;
+        int free = echo ? distance - cellSize : maxRange;
+
+        int lastCell = -1;
+        for (int r = 0; r <= free; r += cellSize) {
+            int cell = indexOf(r * cos, r * sin);
+            if (cell >= 0 && cell != lastCell) {
+                add(cell, MISS);
+                lastCell = cell;
+            }
+        }
+        if (!echo) {
+            return false;
+        }
+        int cell = indexOf(distance * cos, distance * sin);
+        if (cell < 0) {
+            return false;
+        }
+        add(cell, HIT);
+        return cells[cell] >= OCCUPIED;
+    }
+
+    /** True if the cell containing (x, y), in cm, is currently occupied. */
+    public boolean isOccupied(double x, double y) {
+        int cell = indexOf(x, y);
+        return cell >= 0 && cells[cell] >= OCCUPIED;
+    }
+
+    public int getOccupiedCount() {
+        int count = 0;
+        for (byte score : cells) {
+            if (score >= OCCUPIED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int getMaxRange() {
+        return maxRange;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(cells, (byte) 0);
+    }
+
+    private void add(int cell, int delta) {
+        cells[cell] = (byte) Math.max(MIN_SCORE, Math.min(MAX_SCORE, cells[cell] + delta));
+    }
+
+    private int indexOf(double x, double y) {
+        int column = (int) Math.floor(x / cellSize) + rows;
+        int row = (int) Math.floor(y / cellSize);
+        if (column < 0 || column >= columns || row < 0 || row >= rows) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+}
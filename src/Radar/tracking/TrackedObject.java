@@ -0,0 +1,88 @@
+package Radar.tracking;
+
+/**
+ * Snapshot of one object followed by an {@link ObjectTracker}. Positions are
+ * in cm relative to the sensor (x to the right, y straight ahead), velocity in
+ * cm/s, times in the sample clock's milliseconds.
+ */
+public class TrackedObject {
+
+    private final int id;
+    private final double x;
+    private final double y;
+    private final double velocityX;
+    private final double velocityY;
+    private final long firstSeen;
+    private final long lastSeen;
+    private final int sweeps;
+
+    TrackedObject(int id, double x, double y, double velocityX, double velocityY,
+                  long firstSeen, long lastSeen, int sweeps) {
+        this.id = id;
+        this.x = x;
+        this.y = y;
+        this.velocityX = velocityX;
+        this.velocityY = velocityY;
+        this.firstSeen = firstSeen;
+        this.lastSeen = lastSeen;
+        this.sweeps = sweeps;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    /** Distance from the sensor, in cm. */
+    public double getRange() {
+        return Math.hypot(x, y);
+    }
+
+    /** Bearing in degrees, 0 to the right and 90 straight ahead. */
+    public double getBearing() {
+        return Math.toDegrees(Math.atan2(y, x));
+    }
+
+    public double getVelocityX() {
+        return velocityX;
+    }
+
+    public double getVelocityY() {
+        return velocityY;
+    }
+
+    public double getSpeed() {
+        return Math.hypot(velocityX, velocityY);
+    }
+
+    public long getFirstSeen() {
+        return firstSeen;
+    }
+
+    public long getLastSeen() {
+        return lastSeen;
+    }
+
+    /** How long the object has been tracked, in ms. */
+    public long getDwellTime() {
+        return lastSeen - firstSeen;
+    }
+
+    /** Number of sweeps the object was seen in. */
+    public int getSweeps() {
+        return sweeps;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d at %.0f° %.0fcm, %.0f cm/s, %.1fs", id, getBearing(), getRange(),
+                getSpeed(), getDwellTime() / 1000.0);
+    }
+}
@@ -2,41 +2,88 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import Radar.core.SampleRingBuffer;
+import Radar.core.SweepBuffer;
+import Radar.core.WindowedStats;
+import Radar.ingest.SensorSource;
+import Radar.ingest.SimulatedSensorSource;
+import Radar.pipeline.EdtSink;
+import Radar.pipeline.OverflowPolicy;
+import Radar.pipeline.SampleFilter;
+import Radar.pipeline.SampleSink;
+import Radar.pipeline.SensorCore;
+import Radar.pipeline.ZoneRules;
+import Radar.render.HistoryPanel;
+import Radar.render.SweepPanel;
+import Radar.serial.WireFormat;
 
 public class TimeBasedDashboard {
-    private static final int DETECTION_THRESHOLD = 50; // cm
-    private static final Random random = new Random();
+    private static final int HISTORY_SIZE = 100; // samples shown on the graph
+    private static final long SAMPLE_PERIOD_MS = 500;
+    private static final int UI_FRAME_MS = 33; // the UI takes at most ~30 batches a second
+    private static final long STATS_WINDOW_MS = 60_000; // statistics cover the last minute
     private static volatile boolean running = false;
     
-    private List<DataPoint> dataHistory = new ArrayList<>();
+    private final SampleRingBuffer dataHistory = new SampleRingBuffer(HISTORY_SIZE);
+    private final WindowedStats stats = new WindowedStats(STATS_WINDOW_MS);
+    private final SweepBuffer sweep = new SweepBuffer(); // latest reading per degree, for the polar view
+    // Sources merged into one time-ordered stream, detection from the zone file (reloaded when it changes)
+    private final SensorCore core = new SensorCore(SampleFilter.PASS_THROUGH,
+            ZoneRules.loadAndWatch(new java.io.File(ZoneRules.DEFAULT_FILE), ZoneRules.CONSOLE));
+    private final java.text.SimpleDateFormat timeFormat = new java.text.SimpleDateFormat("HH:mm:ss");
     private JLabel timeLabel;
     private JLabel distanceLabel;
     private JLabel statusLabel;
     private JLabel countLabel;
-    private GraphPanel graphPanel;
+    private JLabel meanLabel;
+    private JLabel percentileLabel;
+    private JLabel rangeLabel;
+    private HistoryPanel graphPanel;
     private JFrame frame;
     private int dataCount = 0;
     
-    private static class DataPoint {
-        long timestamp;
-        int distance;
-        boolean detected;
-        
-        DataPoint(long timestamp, int distance, boolean detected) {
-            this.timestamp = timestamp;
-            this.distance = distance;
-            this.detected = detected;
+    public static void main(String[] args) throws java.io.IOException {
+        // Arguments: a number of simulated sensors (default 1), or sources to read instead:
+        // "sim", a saved session (.csv or .rdr) to replay, or a serial port name
+        TimeBasedDashboard dashboard = new TimeBasedDashboard();
+        if (args.length > 0 && !args[0].matches("\\d+")) {
+            for (String arg : args) {
+                dashboard.core.addSource(SensorSource.forSpec(arg, WireFormat.TEXT));
+            }
+        } else {
+            int sensors = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+            for (int i = 0; i < sensors; i++) {
+                // Several sensors are spread evenly across the sweep
+                int degree = sensors > 1 ? i * 180 / (sensors - 1) : 90;
+                dashboard.core.addSource(new SimulatedSensorSource("sim-" + i, SAMPLE_PERIOD_MS, degree, System.nanoTime() + i));
+            }
         }
-    }
-
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            TimeBasedDashboard dashboard = new TimeBasedDashboard();
-            dashboard.createAndShowGUI();
-        });
+        // Samples reach the EDT in batches, at most one per UI frame, with outages as breaks in the trace
+        dashboard.core.addSink("ui", new EdtSink(new SampleSink() {
+            private boolean added = false;
+            
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                dashboard.sweep.update(degree, distance, timestamp, detected);
+                dashboard.addSample(timestamp, distance, detected);
+                added = true;
+            }
+            
+            @Override
+            public void gap(int sensorId, long start, long end) {
+                dashboard.dataHistory.markGap();
+                dashboard.graphPanel.repaint();
+            }
+            
+            @Override
+            public void flush() {
+                if (added) {
+                    added = false;
+                    dashboard.refreshDisplay();
+                }
+            }
+        }), 4096, OverflowPolicy.SAMPLE, UI_FRAME_MS);
+        SwingUtilities.invokeLater(dashboard::createAndShowGUI);
     }
 
     private void createAndShowGUI() {
@@ -77,7 +124,7 @@ public class TimeBasedDashboard {
         controlPanel.add(clearButton);
         
         // Create info panel
-        JPanel infoPanel = new JPanel(new GridLayout(2, 2, 10, 5));
+        JPanel infoPanel = new JPanel(new GridLayout(4, 2, 10, 5));
         infoPanel.setBackground(new Color(250, 250, 250));
         infoPanel.setBorder(BorderFactory.createTitledBorder("Live Information"));
         
@@ -97,19 +144,41 @@ public class TimeBasedDashboard {
         countLabel.setFont(new Font("Arial", Font.BOLD, 14));
         countLabel.setForeground(new Color(128, 0, 128));
         
+        meanLabel = new JLabel("Mean: -- cm");
+        meanLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        meanLabel.setForeground(new Color(70, 70, 70));
+        
+        percentileLabel = new JLabel("p50 / p95 / p99: -- cm");
+        percentileLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        percentileLabel.setForeground(new Color(70, 70, 70));
+        
+        rangeLabel = new JLabel("Min / Max: -- cm");
+        rangeLabel.setFont(new Font("Arial", Font.BOLD, 14));
+        rangeLabel.setForeground(new Color(70, 70, 70));
+        
         infoPanel.add(timeLabel);
         infoPanel.add(distanceLabel);
         infoPanel.add(statusLabel);
         infoPanel.add(countLabel);
+        infoPanel.add(meanLabel);
+        infoPanel.add(percentileLabel);
+        infoPanel.add(rangeLabel);
         
         // Create graph panel
-        graphPanel = new GraphPanel();
+        graphPanel = new HistoryPanel("Distance Over Time", dataHistory);
         graphPanel.setBorder(BorderFactory.createTitledBorder("Distance Over Time"));
         
+        // Polar view of the sweep, next to the graph
+        SweepPanel sweepPanel = new SweepPanel(sweep);
+        sweepPanel.setBorder(BorderFactory.createTitledBorder("Sweep"));
+        JPanel displayPanel = new JPanel(new BorderLayout(10, 10));
+        displayPanel.add(graphPanel, BorderLayout.CENTER);
+        displayPanel.add(sweepPanel, BorderLayout.EAST);
+        
         // Layout
         mainPanel.add(controlPanel, BorderLayout.NORTH);
         mainPanel.add(infoPanel, BorderLayout.CENTER);
-        mainPanel.add(graphPanel, BorderLayout.SOUTH);
+        mainPanel.add(displayPanel, BorderLayout.SOUTH);
         
         frame.add(mainPanel);
         frame.setVisible(true);
@@ -121,7 +190,7 @@ public class TimeBasedDashboard {
     private void startDataCollection() {
         if (!running) {
             running = true;
-            new Thread(this::generateData).start();
+            core.start();
             statusLabel.setText("Status: Collecting Data");
             statusLabel.setForeground(new Color(34, 139, 34));
         }
@@ -129,77 +198,49 @@ public class TimeBasedDashboard {
     
     private void stopDataCollection() {
         running = false;
+        core.pause();
         statusLabel.setText("Status: Stopped");
         statusLabel.setForeground(Color.RED);
     }
     
     private void clearData() {
         dataHistory.clear();
+        stats.clear();
+        sweep.clear();
+        updateStatsLabels();
+        graphPanel.reset();
         dataCount = 0;
         countLabel.setText("Data Points: 0");
-        graphPanel.repaint();
         statusLabel.setText("Status: Data Cleared");
         statusLabel.setForeground(Color.ORANGE);
     }
     
-    private void generateData() {
-        int baseDistance = 100;
+    // Called on the EDT for every sample of a batch
+    private void addSample(long timestamp, int distance, boolean detected) {
+        // Add to history (oldest sample is overwritten once full)
+        dataHistory.append(timestamp, distance, detected);
+        stats.add(timestamp, distance, detected);
+        dataCount++;
         
-        while (running) {
-            try {
-                // Generate realistic distance data
-                int change = random.nextInt(20) - 10; // -10 to +10
-                baseDistance += change;
-                
-                // Keep distance in reasonable range
-                if (baseDistance > 300) baseDistance = 300;
-                if (baseDistance < 20) baseDistance = 20;
-                
-                // Add some random variation
-                int distance = baseDistance + random.nextInt(15) - 7;
-                distance = Math.max(2, Math.min(400, distance));
-                
-                // Create data point
-                long timestamp = System.currentTimeMillis();
-                boolean detected = distance < DETECTION_THRESHOLD;
-                DataPoint point = new DataPoint(timestamp, distance, detected);
-                
-                // Update UI on EDT
-                SwingUtilities.invokeLater(() -> {
-                    updateUI(point);
-                });
-
-                // Update every 500ms
-                Thread.sleep(500);
-                
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception e) {
-                System.err.println("Error in data generation: " + e.getMessage());
-            }
+        if (detected) {
+            System.out.println("Object detected at distance " + distance + "cm");
         }
     }
     
-    private void updateUI(DataPoint point) {
-        // Add to history
-        dataHistory.add(point);
-        dataCount++;
-        
-        // Keep only last 100 points
-        if (dataHistory.size() > 100) {
-            dataHistory.remove(0);
-        }
+    // Called on the EDT once per batch; labels show the newest sample
+    private void refreshDisplay() {
+        int newest = dataHistory.size() - 1;
+        int distance = dataHistory.distanceAt(newest);
         
         // Update labels
-        timeLabel.setText("Time: " + new java.text.SimpleDateFormat("HH:mm:ss").format(new java.util.Date(point.timestamp)));
-        distanceLabel.setText("Distance: " + point.distance + " cm");
+        timeLabel.setText("Time: " + timeFormat.format(new java.util.Date(dataHistory.lastTimestamp())));
+        distanceLabel.setText("Distance: " + distance + " cm");
         countLabel.setText("Data Points: " + dataCount);
+        updateStatsLabels();
         
-        if (point.detected) {
+        if (dataHistory.isDetected(newest)) {
             statusLabel.setText("Status: OBJECT DETECTED!");
             statusLabel.setForeground(Color.RED);
-            System.out.println("Object detected at distance " + point.distance + "cm");
         } else {
             statusLabel.setText("Status: Collecting Data");
             statusLabel.setForeground(new Color(34, 139, 34));
@@ -209,111 +250,19 @@ public class TimeBasedDashboard {
         graphPanel.repaint();
     }
     
-    // Custom graph panel
-    private class GraphPanel extends JPanel {
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
-            int width = getWidth();
-            int height = getHeight();
-            int padding = 60;
-            int graphWidth = width - 2 * padding;
-            int graphHeight = height - 2 * padding;
-            
-            // Draw background
-            g2d.setColor(Color.WHITE);
-            g2d.fillRect(0, 0, width, height);
-            
-            // Draw grid
-            g2d.setColor(new Color(230, 230, 230));
-            g2d.setStroke(new BasicStroke(1));
-            for (int i = 0; i <= 10; i++) {
-                int x = padding + (i * graphWidth) / 10;
-                g2d.drawLine(x, padding, x, height - padding);
-                
-                int y = padding + (i * graphHeight) / 10;
-                g2d.drawLine(padding, y, width - padding, y);
-            }
-            
-            // Draw axes
-            g2d.setColor(Color.BLACK);
-            g2d.setStroke(new BasicStroke(2));
-            g2d.drawLine(padding, padding, padding, height - padding); // Y-axis
-            g2d.drawLine(padding, height - padding, width - padding, height - padding); // X-axis
-            
-            // Draw axis labels
-            g2d.setFont(new Font("Arial", Font.BOLD, 12));
-            g2d.setColor(Color.BLACK);
-            
-            // Y-axis labels (Distance)
-            for (int i = 0; i <= 8; i++) {
-                int y = padding + (i * graphHeight) / 8;
-                int distance = 400 - (i * 400) / 8;
-                g2d.drawString(distance + "cm", 5, y + 5);
-            }
-            
-            // X-axis labels (Time)
-            if (dataHistory.size() > 1) {
-                long minTime = dataHistory.get(0).timestamp;
-                long maxTime = dataHistory.get(dataHistory.size() - 1).timestamp;
-                for (int i = 0; i <= 6; i++) {
-                    int x = padding + (i * graphWidth) / 6;
-                    long time = minTime + (i * (maxTime - minTime)) / 6;
-                    String timeStr = new java.text.SimpleDateFormat("HH:mm:ss").format(new java.util.Date(time));
-                    g2d.drawString(timeStr, x - 20, height - padding + 20);
-                }
-            }
-            
-            // Draw title
-            g2d.setFont(new Font("Arial", Font.BOLD, 16));
-            g2d.setColor(new Color(70, 70, 70));
-            g2d.drawString("Distance Over Time", width/2 - 80, padding - 10);
-            
-            // Draw data
-            if (dataHistory.size() > 1) {
-                // Draw distance line
-                g2d.setColor(new Color(30, 144, 255));
-                g2d.setStroke(new BasicStroke(3));
-                
-                for (int i = 1; i < dataHistory.size(); i++) {
-                    DataPoint prev = dataHistory.get(i - 1);
-                    DataPoint curr = dataHistory.get(i);
-                    
-                    int x1 = padding + ((i - 1) * graphWidth) / Math.max(1, dataHistory.size() - 1);
-                    int y1 = padding + graphHeight - (prev.distance * graphHeight) / 400;
-                    int x2 = padding + (i * graphWidth) / Math.max(1, dataHistory.size() - 1);
-                    int y2 = padding + graphHeight - (curr.distance * graphHeight) / 400;
-                    
-                    g2d.drawLine(x1, y1, x2, y2);
-                }
-                
-                // Draw detection points
-                g2d.setColor(Color.RED);
-                g2d.setStroke(new BasicStroke(1));
-                for (int i = 0; i < dataHistory.size(); i++) {
-                    DataPoint point = dataHistory.get(i);
-                    if (point.detected) {
-                        int x = padding + (i * graphWidth) / Math.max(1, dataHistory.size() - 1);
-                        int y = padding + graphHeight - (point.distance * graphHeight) / 400;
-                        g2d.fillOval(x - 4, y - 4, 8, 8);
-                    }
-                }
-                
-                // Draw legend
-                g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-                g2d.setColor(new Color(30, 144, 255));
-                g2d.drawString("Distance Line", width - 120, padding + 20);
-                g2d.setColor(Color.RED);
-                g2d.drawString("Object Detection (<50cm)", width - 120, padding + 35);
-            }
-        }
-        
-        @Override
-        public Dimension getPreferredSize() {
-            return new Dimension(1100, 400);
+    // Window statistics are kept up to date per sample; this only formats them
+    private void updateStatsLabels() {
+        String window = "(" + stats.getWindowMs() / 1000 + " s)";
+        if (stats.count() == 0) {
+            meanLabel.setText("Mean " + window + ": -- cm");
+            percentileLabel.setText("p50 / p95 / p99: -- cm");
+            rangeLabel.setText("Min / Max: -- cm");
+            return;
         }
+        meanLabel.setText(String.format("Mean %s: %.1f ± %.1f cm", window, stats.mean(), stats.stdDev()));
+        percentileLabel.setText("p50 / p95 / p99: " + stats.percentile(0.50) + " / " + stats.percentile(0.95)
+                + " / " + stats.percentile(0.99) + " cm");
+        rangeLabel.setText(String.format("Min / Max: %d / %d cm | Detected: %.0f%%",
+                stats.min(), stats.max(), stats.detectionRate() * 100));
     }
 }
@@ -4,14 +4,23 @@ import javax.swing.*;
 import java.awt.*;
 import java.io.*;
 import java.util.*;
-import java.util.List;
+import Radar.core.SampleColumns;
+import Radar.io.CsvSampleLoader;
+import Radar.io.RecordingReader;
+import Radar.pipeline.ZoneRules;
+import Radar.render.GraphRenderer;
 
 public class FileBasedDashboard {
-    private static final int DETECTION_THRESHOLD = 50;
-    private List<Integer> distanceHistory = new ArrayList<>();
-    private List<Integer> degreeHistory = new ArrayList<>();
+    private static final long PARALLEL_MIN_BYTES = 16L << 20; // smaller files parse faster on one thread
+    // Logs and recordings carry the detection judged at capture time; the threshold
+    // only judges rows that have none (demo data, logs without a Detection column)
+    private final SampleColumns data = new SampleColumns(1024, ZoneRules.DEFAULT_THRESHOLD);
+    private final CsvSampleLoader loader = new CsvSampleLoader(ZoneRules.DEFAULT_THRESHOLD);
+    private int loadGeneration = 0; // ignores chunks from a load that was replaced
     private JLabel statusLabel;
     private JLabel fileInfoLabel;
+    private JProgressBar progressBar;
+    private JCheckBox parallelBox;
     private GraphPanel graphPanel;
     private JFrame frame;
     
@@ -55,9 +64,14 @@ public class FileBasedDashboard {
         demoButton.setForeground(Color.WHITE);
         demoButton.addActionListener(e -> loadDemoData());
         
+        parallelBox = new JCheckBox("Parallel parsing", true);
+        parallelBox.setToolTipText("Parse large files on all CPU cores");
+        parallelBox.setOpaque(false);
+        
         controlPanel.add(loadButton);
         controlPanel.add(specificFileButton);
         controlPanel.add(demoButton);
+        controlPanel.add(parallelBox);
         
         // Create info panel
         JPanel infoPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -73,6 +87,11 @@ public class FileBasedDashboard {
         statusLabel.setForeground(Color.BLUE);
         infoPanel.add(statusLabel);
         
+        progressBar = new JProgressBar(0, 100);
+        progressBar.setStringPainted(true);
+        progressBar.setVisible(false);
+        infoPanel.add(progressBar);
+        
         // Create graph panel
         graphPanel = new GraphPanel();
         graphPanel.setBorder(BorderFactory.createTitledBorder("Radar Data Visualization"));
@@ -94,7 +113,7 @@ public class FileBasedDashboard {
     
     private void loadDataFile() {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV and Excel files", "csv", "xlsx"));
+        fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Radar data (CSV, Excel, recordings)", "csv", "xlsx", "rdr"));
         fileChooser.setDialogTitle("Select Radar Data File");
         
         if (fileChooser.showOpenDialog(frame) == JFileChooser.APPROVE_OPTION) {
@@ -129,8 +148,10 @@ public class FileBasedDashboard {
     
     private void loadDemoData() {
         // Generate realistic demo data
-        distanceHistory.clear();
-        degreeHistory.clear();
+        loader.cancel();
+        loadGeneration++;
+        progressBar.setVisible(false);
+        data.clear();
         
         Random random = new Random();
         int baseDistance = 100;
@@ -149,8 +170,7 @@ public class FileBasedDashboard {
             int distance = baseDistance + random.nextInt(15) - 7;
             distance = Math.max(2, Math.min(400, distance));
             
-            degreeHistory.add(degree);
-            distanceHistory.add(distance);
+            data.add(degree, distance, 0);
         }
         
         // Generate return sweep data (165 to 15)
@@ -164,97 +184,184 @@ public class FileBasedDashboard {
             int distance = baseDistance + random.nextInt(15) - 7;
             distance = Math.max(2, Math.min(400, distance));
             
-            degreeHistory.add(degree);
-            distanceHistory.add(distance);
+            data.add(degree, distance, 0);
         }
         
-        fileInfoLabel.setText("Demo Data: " + distanceHistory.size() + " points generated");
+        fileInfoLabel.setText("Demo Data: " + data.size() + " points generated");
         statusLabel.setText("Status: Demo data loaded successfully");
         statusLabel.setForeground(new Color(34, 139, 34));
-        graphPanel.repaint();
+        dataChanged();
         
-        System.out.println("Demo data loaded: " + distanceHistory.size() + " data points");
+        System.out.println("Demo data loaded: " + data.size() + " data points");
     }
     
     private void loadDataFromFile(File file) {
-        try {
-            distanceHistory.clear();
-            degreeHistory.clear();
-            
-            String fileName = file.getName().toLowerCase();
-            
-            if (fileName.endsWith(".xlsx")) {
-                loadExcelFile(file);
-            } else {
-                loadCsvFile(file);
+        loader.cancel();
+        int generation = ++loadGeneration;
+        data.clear();
+        dataChanged();
+        
+        if (RecordingReader.isRecording(file)) {
+            loadRecording(file, generation);
+            return;
+        }
+        
+        String fileName = file.getName().toLowerCase();
+        if (fileName.endsWith(".xlsx")) {
+            // For Excel files, we'll show a message that Excel support needs additional libraries
+            // and then try to read it as a CSV in case it's actually a CSV file with .xlsx extension
+            JOptionPane.showMessageDialog(frame, 
+                "Excel (.xlsx) files require additional libraries (Apache POI).\n" +
+                "Please save your file as CSV format or use the file chooser to select a CSV file.", 
+                "Excel Support", 
+                JOptionPane.INFORMATION_MESSAGE);
+        }
+        
+        statusLabel.setText("Status: Loading " + file.getName() + "...");
+        statusLabel.setForeground(Color.BLUE);
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        
+        // Parsed off the EDT; each chunk is plotted as soon as it arrives
+        boolean parallel = parallelBox.isSelected() && file.length() >= PARALLEL_MIN_BYTES;
+        loader.load(file, new CsvSampleLoader.Listener() {
+            @Override
+            public void onChunk(SampleColumns chunk, long bytesDone, long totalBytes) {
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    data.addAll(chunk);
+                    progressBar.setValue((int) (100 * bytesDone / Math.max(1, totalBytes)));
+                    fileInfoLabel.setText("File: " + file.getName() + " | " + data.size() + " data points");
+                    dataChanged();
+                });
             }
             
-            fileInfoLabel.setText("File: " + file.getName() + " | " + distanceHistory.size() + " data points");
-            statusLabel.setText("Status: Data loaded successfully from " + file.getName());
-            statusLabel.setForeground(new Color(34, 139, 34));
-            graphPanel.repaint();
-            
-            System.out.println("Data loaded from " + file.getName() + ": " + distanceHistory.size() + " data points");
+            @Override
+            public void onComplete(int rows, int skippedRows) {
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    progressBar.setVisible(false);
+                    fileInfoLabel.setText("File: " + file.getName() + " | " + data.size() + " data points");
+                    statusLabel.setText("Status: Data loaded successfully from " + file.getName());
+                    statusLabel.setForeground(new Color(34, 139, 34));
+                    
+                    System.out.println("Data loaded from " + file.getName() + ": " + rows + " data points"
+                        + (skippedRows > 0 ? " (" + skippedRows + " invalid lines skipped)" : ""));
+                });
+            }
             
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(frame, 
-                "Error loading file: " + e.getMessage(), 
-                "Error", 
-                JOptionPane.ERROR_MESSAGE);
+            @Override
+            public void onError(Exception e) {
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    progressBar.setVisible(false);
+                    JOptionPane.showMessageDialog(frame, 
+                        "Error loading file: " + e.getMessage(), 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                    statusLabel.setText("Status: Error loading file");
+                    statusLabel.setForeground(Color.RED);
+                    e.printStackTrace();
+                });
+            }
+        }, parallel);
+    }
+    
+    // Binary recordings: ask for a time range, then decode only the blocks that overlap it
+    private void loadRecording(File file, int generation) {
+        RecordingReader reader;
+        try {
+            reader = new RecordingReader(file);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(frame, "Error opening recording: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
             statusLabel.setText("Status: Error loading file");
             statusLabel.setForeground(Color.RED);
-            e.printStackTrace();
+            return;
         }
-    }
-    
-    private void loadCsvFile(File file) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean firstLine = true;
-            int lineCount = 0;
-            
-            while ((line = reader.readLine()) != null) {
-                lineCount++;
-                if (firstLine) {
-                    firstLine = false; // Skip header
-                    continue;
-                }
-                
-                String[] parts = line.split(",");
-                if (parts.length >= 2) {
-                    try {
-                        int degree = Integer.parseInt(parts[0].trim());
-                        int distance = Integer.parseInt(parts[1].trim());
-                        
-                        degreeHistory.add(degree);
-                        distanceHistory.add(distance);
-                    } catch (NumberFormatException e) {
-                        System.out.println("Skipping invalid line " + lineCount + ": " + line);
+        
+        long first = reader.getFirstTimestamp();
+        double span = (reader.getLastTimestamp() - first) / 1000.0;
+        JSpinner fromSpinner = new JSpinner(new SpinnerNumberModel(0.0, 0.0, span, 1.0));
+        JSpinner toSpinner = new JSpinner(new SpinnerNumberModel(span, 0.0, span, 1.0));
+        JPanel rangePanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        rangePanel.add(new JLabel(reader.getRowCount() + " rows in " + reader.getBlockCount() + " blocks"));
+        rangePanel.add(new JLabel(String.format("%.1f s recorded", span)));
+        rangePanel.add(new JLabel("From (s):"));
+        rangePanel.add(fromSpinner);
+        rangePanel.add(new JLabel("To (s):"));
+        rangePanel.add(toSpinner);
+        if (JOptionPane.showConfirmDialog(frame, rangePanel, "Select Time Range - " + file.getName(),
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            closeQuietly(reader);
+            statusLabel.setText("Status: Ready to load data");
+            return;
+        }
+        long from = first + Math.round((Double) fromSpinner.getValue() * 1000);
+        long to = first + Math.round((Double) toSpinner.getValue() * 1000);
+        
+        statusLabel.setText("Status: Loading " + file.getName() + "...");
+        statusLabel.setForeground(Color.BLUE);
+        Thread thread = new Thread(() -> {
+            SampleColumns range = new SampleColumns(1024, reader.getDetectionThreshold());
+            try {
+                reader.read(from, to, range);
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != loadGeneration) {
+                        return;
                     }
-                }
+                    data.addAll(range);
+                    fileInfoLabel.setText("File: " + file.getName() + " | " + data.size() + " data points");
+                    statusLabel.setText("Status: Data loaded successfully from " + file.getName());
+                    statusLabel.setForeground(new Color(34, 139, 34));
+                    dataChanged();
+                });
+                System.out.println("Recording loaded from " + file.getName() + ": " + range.size() + " data points");
+            } catch (IOException e) {
+                SwingUtilities.invokeLater(() -> {
+                    if (generation != loadGeneration) {
+                        return;
+                    }
+                    JOptionPane.showMessageDialog(frame, 
+                        "Error loading file: " + e.getMessage(), 
+                        "Error", 
+                        JOptionPane.ERROR_MESSAGE);
+                    statusLabel.setText("Status: Error loading file");
+                    statusLabel.setForeground(Color.RED);
+                    e.printStackTrace();
+                });
+            } finally {
+                closeQuietly(reader);
             }
-        }
+        }, "recording-loader");
+        thread.setDaemon(true);
+        thread.start();
     }
     
-    private void loadExcelFile(File file) throws Exception {
-        // For Excel files, we'll show a message that Excel support needs additional libraries
-        // For now, we'll try to read it as a CSV if it's actually a CSV file with .xlsx extension
-        JOptionPane.showMessageDialog(frame, 
-            "Excel (.xlsx) files require additional libraries (Apache POI).\n" +
-            "Please save your file as CSV format or use the file chooser to select a CSV file.", 
-            "Excel Support", 
-            JOptionPane.INFORMATION_MESSAGE);
-        
-        // Try to read as CSV anyway (in case it's actually a CSV with wrong extension)
+    private static void closeQuietly(RecordingReader reader) {
         try {
-            loadCsvFile(file);
-        } catch (Exception e) {
-            throw new Exception("Cannot read Excel file. Please convert to CSV format.");
+            reader.close();
+        } catch (IOException e) {
+            System.err.println("Error closing recording: " + e.getMessage());
         }
     }
     
+    // Redraw the cached trace after the data set changed
+    private void dataChanged() {
+        graphPanel.renderer.invalidate();
+        graphPanel.repaint();
+    }
+    
     // Enhanced graph panel with better visualization
     private class GraphPanel extends JPanel {
+        // Background, grid, axes and title are cached; only new trace segments are drawn per frame
+        private final GraphRenderer renderer = new GraphRenderer(this::paintStaticLayer, 60, new Color(30, 144, 255), 3f, 4);
+        
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
@@ -265,6 +372,38 @@ public class FileBasedDashboard {
             int height = getHeight();
             int padding = 60;
             int graphWidth = width - 2 * padding;
+            
+            // Static layer and data trace
+            renderer.paint(g2d, width, height, data);
+            
+            g2d.setFont(new Font("Arial", Font.BOLD, 12));
+            g2d.setColor(Color.BLACK);
+            
+            // X-axis labels (Degree)
+            if (!data.isEmpty()) {
+                int minDegree = data.minDegree();
+                int maxDegree = data.maxDegree();
+                for (int i = 0; i <= 6; i++) {
+                    int x = padding + (i * graphWidth) / 6;
+                    int degree = minDegree + (i * (maxDegree - minDegree)) / 6;
+                    g2d.drawString(degree + "°", x - 10, height - padding + 20);
+                }
+            }
+            
+            if (data.size() > 1) {
+                // Draw legend
+                g2d.setFont(new Font("Arial", Font.PLAIN, 12));
+                g2d.setColor(new Color(30, 144, 255));
+                g2d.drawString("Distance Line", width - 120, padding + 20);
+                g2d.setColor(Color.RED);
+                g2d.drawString("Object Detection", width - 120, padding + 35);
+            }
+        }
+        
+        // Everything that only changes when the panel is resized
+        private void paintStaticLayer(Graphics2D g2d, int width, int height) {
+            int padding = 60;
+            int graphWidth = width - 2 * padding;
             int graphHeight = height - 2 * padding;
             
             // Draw background
@@ -299,56 +438,10 @@ public class FileBasedDashboard {
                 g2d.drawString(distance + "cm", 5, y + 5);
             }
             
-            // X-axis labels (Degree)
-            if (degreeHistory.size() > 0) {
-                int minDegree = Collections.min(degreeHistory);
-                int maxDegree = Collections.max(degreeHistory);
-                for (int i = 0; i <= 6; i++) {
-                    int x = padding + (i * graphWidth) / 6;
-                    int degree = minDegree + (i * (maxDegree - minDegree)) / 6;
-                    g2d.drawString(degree + "°", x - 10, height - padding + 20);
-                }
-            }
-            
             // Draw title
             g2d.setFont(new Font("Arial", Font.BOLD, 16));
             g2d.setColor(new Color(70, 70, 70));
             g2d.drawString("Radar Distance vs Angle", width/2 - 80, padding - 10);
-            
-            // Draw data
-            if (distanceHistory.size() > 1) {
-                // Draw distance line
-                g2d.setColor(new Color(30, 144, 255));
-                g2d.setStroke(new BasicStroke(3));
-                
-                for (int i = 1; i < distanceHistory.size(); i++) {
-                    int x1 = padding + ((i - 1) * graphWidth) / Math.max(1, distanceHistory.size() - 1);
-                    int y1 = padding + graphHeight - (distanceHistory.get(i - 1) * graphHeight) / 400;
-                    int x2 = padding + (i * graphWidth) / Math.max(1, distanceHistory.size() - 1);
-                    int y2 = padding + graphHeight - (distanceHistory.get(i) * graphHeight) / 400;
-                    
-                    g2d.drawLine(x1, y1, x2, y2);
-                }
-                
-                // Draw detection points
-                g2d.setColor(Color.RED);
-                g2d.setStroke(new BasicStroke(1));
-                for (int i = 0; i < distanceHistory.size(); i++) {
-                    int distance = distanceHistory.get(i);
-                    if (distance < DETECTION_THRESHOLD) {
-                        int x = padding + (i * graphWidth) / Math.max(1, distanceHistory.size() - 1);
-                        int y = padding + graphHeight - (distance * graphHeight) / 400;
-                        g2d.fillOval(x - 4, y - 4, 8, 8);
-                    }
-                }
-                
-                // Draw legend
-                g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-                g2d.setColor(new Color(30, 144, 255));
-                g2d.drawString("Distance Line", width - 120, padding + 20);
-                g2d.setColor(Color.RED);
-                g2d.drawString("Object Detection (<50cm)", width - 120, padding + 35);
-            }
         }
         
         @Override
@@ -1,56 +1,112 @@
 package org.jfree.chart;
 
+import Radar.core.SweepBuffer;
+import Radar.ingest.SerialSensorSource;
+import Radar.ingest.SupervisedSerialSource;
+import Radar.io.AsyncCsvWriter;
+import Radar.io.RecordingWriter;
+import Radar.pipeline.EdtSink;
+import Radar.pipeline.OverflowPolicy;
+import Radar.pipeline.SampleFilter;
+import Radar.pipeline.SampleSink;
+import Radar.pipeline.SensorCore;
+import Radar.pipeline.SinkBuffer;
+import Radar.pipeline.ZoneRules;
+import Radar.render.RingXYDataset;
+import Radar.render.SweepPanel;
+import Radar.tracking.ObjectTracker;
+import Radar.tracking.TrackedObject;
+import Radar.serial.PortDiscovery;
+import Radar.serial.SupervisedConnection;
+import Radar.serial.WireFormat;
 import com.fazecast.jSerialComm.SerialPort;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
-import org.jfree.data.time.Millisecond;
-import org.jfree.data.time.TimeSeries;
-import org.jfree.data.time.TimeSeriesCollection;
 
 import javax.swing.*;
-import java.io.FileWriter;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.PrintWriter;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.Scanner;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 public class FixedRadarDashboard {
-    private static final int DETECTION_THRESHOLD = 50; // cm
+    private static final int CHART_FRAME_MS = 33; // chart takes at most ~30 batches a second
+    private static final long WINDOW_MS = 10 * 60 * 1000; // the chart shows the last 10 minutes
+    private static final int MAX_ITEMS = 20000; // per series, in case the sample rate goes up
+    private static final int TRACKING_RANGE = 400; // cm; farther readings count as "no echo"
 
     public static void main(String[] args) {
-        // Replace "COM3" with your Arduino port
-        SerialPort port = SerialPort.getCommPort("COM3"); // Try COM4, COM5, etc.
-        port.setBaudRate(9600);
-        if (!port.openPort()) {
-            System.out.println("Error: Could not open port.");
-            return;
+        // Arguments, in any order: "binary" to read the framed output of arduino_sketch_binary.ino,
+        // "fsync" to force the log to disk on every flush, a noise filter ("median" by default,
+        // "ema", "kalman" or "raw"), a detection zone file ending in .conf, and one or more port names
+        WireFormat wireFormat = WireFormat.TEXT;
+        boolean fsync = false;
+        SampleFilter filter = SampleFilter.named("median");
+        File zoneFile = new File(ZoneRules.DEFAULT_FILE);
+        List<String> portNames = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("fsync")) {
+                fsync = true;
+            } else if (arg.equalsIgnoreCase("text") || arg.equalsIgnoreCase("binary")) {
+                wireFormat = WireFormat.fromName(arg);
+            } else if (arg.matches("(?i)raw|median|ema|kalman")) {
+                filter = SampleFilter.named(arg);
+            } else if (arg.endsWith(".conf")) {
+                zoneFile = new File(arg);
+            } else {
+                portNames.add(arg);
+            }
+        }
+        if (portNames.isEmpty()) {
+            portNames.add("COM3"); // Replace "COM3" with your Arduino port, or pass it as an argument
+        }
+        
+        // Several ports are read together by the multi-sensor engine and logged with a Sensor column
+        boolean multiSensor = portNames.size() > 1;
+        SerialPort port = SerialPort.getCommPort(portNames.get(0));
+        if (!multiSensor) {
+            port.setBaudRate(9600);
+            if (!port.openPort()) {
+                System.out.println("Error: Could not open port.");
+                return;
+            }
         }
 
         // Create auto-save file with timestamp
         String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
         String filename = "radar_data_" + timestamp + ".csv";
-        PrintWriter dataLogger = null;
+        String recordingName = "radar_data_" + timestamp + ".rdr"; // compact binary copy for archiving
+        AsyncCsvWriter dataLogger = null;
         
         try {
-            dataLogger = new PrintWriter(new FileWriter(filename));
-            dataLogger.println("Degree,Distance,Timestamp,Detection");
-            System.out.println("Auto-saving data to: " + filename);
+            // Rows are formatted and written on the logger's own thread
+            dataLogger = new AsyncCsvWriter(new File(filename),
+                    "Degree,Distance,Timestamp,Detection" + (multiSensor ? ",Sensor" : ""),
+                    AsyncCsvWriter.DEFAULT_CAPACITY, AsyncCsvWriter.DEFAULT_FLUSH_RECORDS,
+                    AsyncCsvWriter.DEFAULT_FLUSH_MILLIS, fsync,
+                    new RecordingWriter(new File(recordingName)));
+            System.out.println("Auto-saving data to: " + filename + " and " + recordingName);
             
         } catch (IOException e) {
             System.err.println("Error creating log file: " + e.getMessage());
             return;
         }
 
-        // Create time series for plotting
-        TimeSeries distanceSeries = new TimeSeries("Distance (cm)");
-        TimeSeries detectionSeries = new TimeSeries("Detected Objects");
-
-        TimeSeriesCollection dataset = new TimeSeriesCollection();
-        dataset.addSeries(distanceSeries);
-        dataset.addSeries(detectionSeries);
+        // Plotted series, one distance series per sensor plus detections, in fixed-size rings
+        // of primitive points with x in host milliseconds. Points older than the window are
+        // evicted as new ones arrive, so memory and redraw cost stay flat however long the
+        // dashboard runs
+        String[] seriesKeys = new String[portNames.size() + 1];
+        for (int i = 0; i < portNames.size(); i++) {
+            seriesKeys[i] = multiSensor ? "Distance " + portNames.get(i) + " (cm)" : "Distance (cm)";
+        }
+        int detectionSeries = portNames.size();
+        seriesKeys[detectionSeries] = "Detected Objects";
+        RingXYDataset dataset = new RingXYDataset(MAX_ITEMS, seriesKeys);
 
         // Create chart
         JFreeChart chart = ChartFactory.createTimeSeriesChart(
@@ -66,8 +122,15 @@ public class FixedRadarDashboard {
         // Setup UI
         JFrame frame = new JFrame("Radar Dashboard - Auto-Saving");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        frame.setSize(1000, 700);
-        frame.add(new ChartPanel(chart));
+        frame.setSize(1400, 700);
+        // Long windows are drawn min/max decimated, a few points per pixel column
+        ChartPanel chartPanel = new ChartPanel(chart);
+        dataset.fitToWidthOf(chartPanel);
+        frame.add(chartPanel);
+        
+        // Polar view of the sweep, fed by its own sink below
+        SweepBuffer sweep = new SweepBuffer();
+        frame.add(new SweepPanel(sweep), java.awt.BorderLayout.EAST);
         
         // Add status label
         JLabel statusLabel = new JLabel("Status: Connected to Arduino - Auto-saving to " + filename);
@@ -76,59 +139,161 @@ public class FixedRadarDashboard {
         
         frame.setVisible(true);
 
-        // Read serial data in background
-        final PrintWriter finalDataLogger = dataLogger;
-        new Thread(() -> {
-            InputStream in = port.getInputStream();
-            Scanner scanner = new Scanner(in);
-
-            while (scanner.hasNextLine()) {
-                try {
-                    String line = scanner.nextLine().trim();
-                    System.out.println("Received: '" + line + "'"); // Debug output
-                    if (!line.isEmpty()) {
-                        // Parse Arduino output format: "degree,distance,timestamp"
-                        if (line.contains(",") && line.split(",").length >= 2) {
-                            String[] parts = line.split(",");
-                            if (parts.length >= 2) {
-                                int degree = Integer.parseInt(parts[0]);
-                                int distance = Integer.parseInt(parts[1]);
-                                String dataTimestamp = parts.length >= 3 ? parts[2] : String.valueOf(System.currentTimeMillis());
-                                
-                                // Auto-save to CSV file
-                                boolean detected = distance < DETECTION_THRESHOLD;
-                                finalDataLogger.println(degree + "," + distance + "," + dataTimestamp + "," + (detected ? "YES" : "NO"));
-                                finalDataLogger.flush(); // Ensure data is written immediately
-                                
-                                // Add distance data to chart
-                                distanceSeries.addOrUpdate(new Millisecond(), distance);
-
-                                // Mark detections
-                                if (detected) {
-                                    detectionSeries.addOrUpdate(new Millisecond(), distance);
-                                    System.out.println("Object detected at " + degree + "° - distance " + distance + "cm");
-                                    statusLabel.setText("Status: OBJECT DETECTED at " + degree + "° - " + distance + "cm | Auto-saving to " + filename);
-                                } else {
-                                    statusLabel.setText("Status: Scanning... Distance: " + distance + "cm | Auto-saving to " + filename);
-                                }
-                            }
-                        }
+        final AsyncCsvWriter finalDataLogger = dataLogger;
+        
+        // One tracker per sensor, each with its own occupancy grid; the console reports
+        // whenever the set of objects changes and the status label shows the count
+        AtomicIntegerArray objectCounts = new AtomicIntegerArray(portNames.size());
+        ObjectTracker[] trackers = new ObjectTracker[portNames.size()];
+        for (int i = 0; i < trackers.length; i++) {
+            int sensorId = i;
+            trackers[i] = new ObjectTracker(TRACKING_RANGE, new ObjectTracker.Listener() {
+                private String lastIds = "";
+                
+                @Override
+                public void onSweep(List<TrackedObject> objects, long sweepTime) {
+                    objectCounts.set(sensorId, objects.size());
+                    StringBuilder ids = new StringBuilder();
+                    for (TrackedObject object : objects) {
+                        ids.append(object.getId()).append(',');
                     }
-                } catch (Exception e) {
-                    // ignore parse errors
+                    if (!ids.toString().equals(lastIds)) {
+                        lastIds = ids.toString();
+                        String sensor = multiSensor ? " [" + portNames.get(sensorId) + "]" : "";
+                        System.out.println("Tracking " + objects.size() + " object(s)" + sensor + (objects.isEmpty() ? "" : ": " + objects));
+                    }
+                }
+            });
+        }
+        
+        // Reader -> detection -> log, chart and console, each behind its own bounded buffer.
+        // The log must not lose rows, so it may hold the reader up, and it waits for the CSV
+        // writer in turn when the writer's batch is full; the chart and console shed load
+        // instead of stalling serial reads.
+        // Echo glitches are filtered out before detection, display and tracking; the log and
+        // recording keep the raw distances. Detection follows the zones in the zone file
+        // (per-sector distance bands, dwell and exit margin), reloaded when it changes
+        SensorCore core = new SensorCore(filter, ZoneRules.loadAndWatch(zoneFile, ZoneRules.CONSOLE));
+        core.addRawSink("log", new SampleSink() {
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                finalDataLogger.appendBlocking(degree, distance, timestamp, detected, multiSensor ? sensorId : AsyncCsvWriter.NO_SENSOR);
+            }
+            
+            @Override
+            public void gap(int sensorId, long start, long end) {
+                finalDataLogger.appendGapBlocking(start, end);
+            }
+        }, 65536, OverflowPolicy.BLOCK);
+        core.addSink("chart", new EdtSink(new SampleSink() {
+            private long lastTime = Long.MIN_VALUE;
+            private int lastSensor;
+            private int lastDegree;
+            private int lastDistance;
+            private boolean lastDetected;
+            
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                // A batch arrives all at once, so plot each sample at its own time rather than "now";
+                // sample times are host time, board clocks having been anchored by the sources
+                lastTime = timestamp;
+                
+                // One change event for the whole batch, sent by flush()
+                dataset.append(sensorId, lastTime, distance);
+                if (detected) {
+                    dataset.append(detectionSeries, lastTime, distance);
                 }
+                lastSensor = sensorId;
+                lastDegree = degree;
+                lastDistance = distance;
+                lastDetected = detected;
+            }
+            
+            @Override
+            public void flush() {
+                dataset.evictBefore(lastTime - WINDOW_MS);
+                dataset.publishChanges();
+                
+                // The label shows the newest sample of the batch
+                String sensor = multiSensor ? " [" + portNames.get(lastSensor) + "]" : "";
+                String objects = " | Objects: " + objectCounts.get(lastSensor);
+                if (lastDetected) {
+                    statusLabel.setText("Status: OBJECT DETECTED" + sensor + " at " + lastDegree + "° - " + lastDistance + "cm" + objects + " | Auto-saving to " + filename);
+                } else {
+                    statusLabel.setText("Status: Scanning..." + sensor + " Distance: " + lastDistance + "cm" + objects + " | Auto-saving to " + filename);
+                }
+            }
+        }), 4096, OverflowPolicy.SAMPLE, CHART_FRAME_MS);
+        core.addSink("console", (sensorId, sampleTime, degree, distance, detected) -> {
+            if (detected) {
+                String sensor = multiSensor ? " [" + portNames.get(sensorId) + "]" : "";
+                System.out.println("Object detected" + sensor + " at " + degree + "° - distance " + distance + "cm");
+            }
+        }, 1024, OverflowPolicy.DROP_OLDEST);
+        core.addSink("sweep", (sensorId, sampleTime, degree, distance, detected) ->
+                sweep.update(degree, distance, sampleTime, detected), 1024, OverflowPolicy.DROP_OLDEST);
+        core.addSink("tracker", new SampleSink() {
+            @Override
+            public void accept(int sensorId, long sampleTime, int degree, int distance, boolean detected) {
+                trackers[sensorId].accept(sampleTime, degree, distance);
+            }
+            
+            @Override
+            public void gap(int sensorId, long start, long end) {
+                // Tracks from before a sensor's outage cannot be associated with what it sees after;
+                // the other sensors kept reading, so their tracks stand
+                trackers[sensorId].clear();
+            }
+        }, 4096, OverflowPolicy.DROP_OLDEST);
+        
+        SupervisedSerialSource supervisedSource = null;
+        if (multiSensor) {
+            // One virtual thread per port, merged into a single time-ordered stream
+            for (String portName : portNames) {
+                core.addSource(new SerialSensorSource(portName, 9600, wireFormat));
             }
-            scanner.close();
-        }).start();
+        } else {
+            // Decode frames as the port reports data available; if the link drops it is
+            // reopened with backoff (trying this port first) and the outage is logged as a gap
+            supervisedSource = new SupervisedSerialSource(port, new PortDiscovery(9600), wireFormat,
+                    new SupervisedConnection.Listener() {
+                        @Override
+                        public void onDisconnected(long atMillis) {
+                            SwingUtilities.invokeLater(() -> statusLabel.setText("Status: Connection lost - reconnecting | Auto-saving to " + filename));
+                        }
+
+                        @Override
+                        public void onRetryScheduled(int attempt, long delayMs) {
+                            System.out.println("Reconnect attempt " + attempt + " in " + delayMs + " ms");
+                        }
+
+                        @Override
+                        public void onReconnected(SerialPort newPort, long gapStartMillis, long gapEndMillis) {
+                            SwingUtilities.invokeLater(() -> statusLabel.setText("Status: Reconnected to " + newPort.getSystemPortName() + " | Auto-saving to " + filename));
+                        }
+                    });
+            core.addSource(supervisedSource);
+        }
+        core.start();
+        final SupervisedSerialSource finalSupervisedSource = supervisedSource;
 
         // Add shutdown hook to close file properly
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            if (finalDataLogger != null) {
-                finalDataLogger.close();
-                System.out.println("Data saved to: " + filename);
+            core.stop(); // Closes the ports; the log sink gets every queued sample first
+            if (finalSupervisedSource != null) {
+                System.out.println("Serial read ended. Frames: " + finalSupervisedSource.getFrameCount() + ", malformed: " + finalSupervisedSource.getMalformedCount());
+            } else {
+                System.out.println("Serial read ended. Dropped samples: " + core.getDroppedCount());
             }
-            if (port.isOpen()) {
-                port.closePort();
+            for (SinkBuffer sink : core.getSinks()) {
+                if (sink.getDroppedCount() > 0) {
+                    System.out.println("Sink " + sink.getName() + " dropped " + sink.getDroppedCount() + " samples (" + sink.getPolicy() + ")");
+                }
+            }
+            if (finalDataLogger != null) {
+                finalDataLogger.close(); // Drains queued rows before closing the file
+                System.out.println("Data saved to: " + filename + " and " + recordingName + " (" + finalDataLogger.getWrittenCount() + " rows"
+                        + (finalDataLogger.getDroppedCount() > 0 ? ", " + finalDataLogger.getDroppedCount() + " dropped" : "") + ")");
             }
         }));
         
@@ -1,5 +1,14 @@
 package org.jfree.chart;
 
+import Radar.ingest.SensorSource;
+import Radar.ingest.SimulatedSensorSource;
+import Radar.pipeline.EdtSink;
+import Radar.pipeline.OverflowPolicy;
+import Radar.pipeline.SampleFilter;
+import Radar.pipeline.SampleSink;
+import Radar.pipeline.SensorCore;
+import Radar.pipeline.ZoneRules;
+import Radar.render.SeriesBatch;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -8,12 +17,11 @@ import org.jfree.data.xy.XYSeriesCollection;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Random;
 
 public class SimpleRadarDashboard {
-    private static final int DETECTION_THRESHOLD = 50; // cm
-    private static final Random random = new Random();
-    private static volatile boolean running = true;
+    private static final int SENSOR_DEGREE = 90; // the simulated sensor looks straight ahead
+    private static final int CHART_FRAME_MS = 33; // chart updates at most ~30 times a second
+    private static final int WINDOW_SAMPLES = 3000; // the chart shows the last 10 minutes at 5 samples/s
 
     public static void main(String[] args) {
         System.out.println("Starting Simple Radar Dashboard...");
@@ -22,6 +30,11 @@ public class SimpleRadarDashboard {
         // Create simple XY series for plotting
         XYSeries distanceSeries = new XYSeries("Distance (cm)");
         XYSeries detectionSeries = new XYSeries("Detected Objects");
+        
+        // Sliding window: the oldest point is evicted for each new one once full,
+        // so memory and redraw cost stay flat however long the dashboard runs
+        distanceSeries.setMaximumItemCount(WINDOW_SAMPLES);
+        detectionSeries.setMaximumItemCount(WINDOW_SAMPLES);
 
         XYSeriesCollection dataset = new XYSeriesCollection();
         dataset.addSeries(distanceSeries);
@@ -49,59 +62,49 @@ public class SimpleRadarDashboard {
         // Add info panel
         JPanel infoPanel = new JPanel();
         infoPanel.setLayout(new FlowLayout());
-        JLabel infoLabel = new JLabel("Simple Chart - Basic JFreeChart | Detection Threshold: " + DETECTION_THRESHOLD + " cm");
+        JLabel infoLabel = new JLabel("Simple Chart - Basic JFreeChart | Detection zones: " + ZoneRules.DEFAULT_FILE);
         infoLabel.setForeground(Color.BLUE);
         infoPanel.add(infoLabel);
         frame.add(infoPanel, BorderLayout.SOUTH);
         
         frame.setVisible(true);
 
-        // Generate simulated data in background
-        new Thread(() -> {
-            int sampleCount = 0;
-            int baseDistance = 100;
-            
-            while (running) {
-                try {
-                    // Simulate realistic distance changes
-                    int change = random.nextInt(20) - 10; // -10 to +10
-                    baseDistance += change;
-                    
-                    // Keep distance in reasonable range
-                    if (baseDistance > 300) baseDistance = 300;
-                    if (baseDistance < 20) baseDistance = 20;
-                    
-                    // Add some random variation
-                    int distance = baseDistance + random.nextInt(15) - 7;
-                    if (distance < 2) distance = 2;
-                    if (distance > 400) distance = 400;
-
-                    // Add distance data to chart
-                    distanceSeries.add(sampleCount, distance);
+        // Simulated sensor through the shared core; detection follows the zone file and picks up edits while running
+        SensorCore core = new SensorCore(SampleFilter.PASS_THROUGH,
+                ZoneRules.loadAndWatch(new java.io.File(ZoneRules.DEFAULT_FILE), ZoneRules.CONSOLE));
+        core.addSource(new SimulatedSensorSource("sim", SensorSource.SIMULATED_PERIOD_MS, SENSOR_DEGREE, System.nanoTime()));
 
-                    // Mark detections
-                    if (distance < DETECTION_THRESHOLD) {
-                        detectionSeries.add(sampleCount, distance);
-                        System.out.println("Object detected at distance " + distance + "cm");
-                    }
+        // Series are only touched on the EDT, with one change event per series per batch;
+        // x is the sample index
+        SeriesBatch chartBatch = new SeriesBatch(distanceSeries, detectionSeries);
+        core.addSink("chart", new EdtSink(new SampleSink() {
+            private int chartCount = 0;
 
-                    sampleCount++;
-                    
-                    // Update every 200ms
-                    Thread.sleep(200);
-                    
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    System.err.println("Error in data generation: " + e.getMessage());
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                chartBatch.begin();
+                distanceSeries.add(chartCount, distance);
+                if (detected) {
+                    detectionSeries.add(chartCount, distance);
                 }
+                chartCount++;
+            }
+
+            @Override
+            public void flush() {
+                chartBatch.end();
+            }
+        }), 1024, OverflowPolicy.SAMPLE, CHART_FRAME_MS);
+        core.addSink("console", (sensorId, timestamp, degree, distance, detected) -> {
+            if (detected) {
+                System.out.println("Object detected at distance " + distance + "cm");
             }
-        }).start();
+        }, 1024, OverflowPolicy.DROP_OLDEST);
+        core.start();
 
         // Add shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            running = false;
+            core.stop();
             System.out.println("Shutting down Simple Radar Dashboard...");
         }));
         
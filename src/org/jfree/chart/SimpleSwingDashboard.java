@@ -4,26 +4,58 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import Radar.core.SampleRingBuffer;
+import Radar.ingest.SensorSource;
+import Radar.ingest.SimulatedSensorSource;
+import Radar.pipeline.EdtSink;
+import Radar.pipeline.OverflowPolicy;
+import Radar.pipeline.SampleFilter;
+import Radar.pipeline.SampleSink;
+import Radar.pipeline.SensorCore;
+import Radar.pipeline.ZoneRules;
+import Radar.render.HistoryPanel;
 
 public class SimpleSwingDashboard {
-    private static final int DETECTION_THRESHOLD = 50; // cm
-    private static final Random random = new Random();
-    private static volatile boolean running = true;
+    private static final int SENSOR_DEGREE = 90; // the simulated sensor looks straight ahead
+    private static final int HISTORY_SIZE = 100; // samples shown on the graph
+    private static final int UI_FRAME_MS = 33; // the UI takes at most ~30 batches a second
     
-    private List<Integer> distanceHistory = new ArrayList<>();
-    private List<Integer> detectionHistory = new ArrayList<>();
+    private final SampleRingBuffer dataHistory = new SampleRingBuffer(HISTORY_SIZE);
     private JLabel distanceLabel;
     private JLabel statusLabel;
-    private GraphPanel graphPanel;
+    private HistoryPanel graphPanel;
+    // Simulated sensor through the shared core; detection follows the zone file and picks up edits while running
+    private final SensorCore core = new SensorCore(SampleFilter.PASS_THROUGH,
+            ZoneRules.loadAndWatch(new java.io.File(ZoneRules.DEFAULT_FILE), ZoneRules.CONSOLE));
 
     public static void main(String[] args) {
-        SwingUtilities.invokeLater(() -> {
-            SimpleSwingDashboard dashboard = new SimpleSwingDashboard();
-            dashboard.createAndShowGUI();
-        });
+        SimpleSwingDashboard dashboard = new SimpleSwingDashboard();
+        dashboard.core.addSource(new SimulatedSensorSource("sim", SensorSource.SIMULATED_PERIOD_MS, SENSOR_DEGREE, System.nanoTime()));
+        // Samples reach the EDT in batches, at most one per UI frame, with outages as breaks in the trace
+        dashboard.core.addSink("ui", new EdtSink(new SampleSink() {
+            private boolean added = false;
+            
+            @Override
+            public void accept(int sensorId, long timestamp, int degree, int distance, boolean detected) {
+                dashboard.addSample(timestamp, distance, detected);
+                added = true;
+            }
+            
+            @Override
+            public void gap(int sensorId, long start, long end) {
+                dashboard.dataHistory.markGap();
+                dashboard.graphPanel.repaint();
+            }
+            
+            @Override
+            public void flush() {
+                if (added) {
+                    added = false;
+                    dashboard.refreshDisplay();
+                }
+            }
+        }), 1024, OverflowPolicy.SAMPLE, UI_FRAME_MS);
+        SwingUtilities.invokeLater(dashboard::createAndShowGUI);
     }
 
     private void createAndShowGUI() {
@@ -40,7 +72,7 @@ public class SimpleSwingDashboard {
         JPanel mainPanel = new JPanel(new BorderLayout());
         
         // Create graph panel
-        graphPanel = new GraphPanel();
+        graphPanel = new HistoryPanel("Distance Over Time", dataHistory);
         mainPanel.add(graphPanel, BorderLayout.CENTER);
         
         // Create control panel
@@ -73,146 +105,38 @@ public class SimpleSwingDashboard {
     }
     
     private void startSimulation() {
-        if (!running) {
-            running = true;
-            new Thread(this::simulateData).start();
-        }
+        core.start();
     }
     
     private void stopSimulation() {
-        running = false;
-    }
-    
-    private void simulateData() {
-        int baseDistance = 100;
-        
-        while (running) {
-            try {
-                // Simulate realistic distance changes
-                int change = random.nextInt(20) - 10; // -10 to +10
-                baseDistance += change;
-                
-                // Keep distance in reasonable range
-                if (baseDistance > 300) baseDistance = 300;
-                if (baseDistance < 20) baseDistance = 20;
-                
-                // Add some random variation
-                int rawDistance = baseDistance + random.nextInt(15) - 7;
-                final int distance = Math.max(2, Math.min(400, rawDistance));
-
-                // Update UI on EDT
-                SwingUtilities.invokeLater(() -> {
-                    updateDistance(distance);
-                    updateGraph(distance);
-                });
-
-                // Update every 200ms
-                Thread.sleep(200);
-                
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Exception e) {
-                System.err.println("Error in data generation: " + e.getMessage());
-            }
-        }
+        core.pause();
     }
     
-    private void updateDistance(int distance) {
+    private void updateDistance(int distance, boolean detected) {
         distanceLabel.setText("Distance: " + distance + " cm");
         
-        if (distance < DETECTION_THRESHOLD) {
+        if (detected) {
             statusLabel.setText("Status: OBJECT DETECTED at " + distance + " cm!");
             statusLabel.setForeground(Color.RED);
-            System.out.println("Object detected at distance " + distance + "cm");
         } else {
             statusLabel.setText("Status: No objects detected");
             statusLabel.setForeground(Color.BLUE);
         }
     }
     
-    private void updateGraph(int distance) {
-        distanceHistory.add(distance);
-        if (distance < DETECTION_THRESHOLD) {
-            detectionHistory.add(distance);
-        } else {
-            detectionHistory.add(null);
-        }
-        
-        // Keep only last 100 points
-        if (distanceHistory.size() > 100) {
-            distanceHistory.remove(0);
-            detectionHistory.remove(0);
+    // Called on the EDT for every sample of a batch
+    private void addSample(long timestamp, int distance, boolean detected) {
+        // Oldest sample is overwritten once the history is full
+        dataHistory.append(timestamp, distance, detected);
+        if (detected) {
+            System.out.println("Object detected at distance " + distance + "cm");
         }
-        
-        graphPanel.repaint();
     }
     
-    // Custom graph panel
-    private class GraphPanel extends JPanel {
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
-            int width = getWidth();
-            int height = getHeight();
-            int padding = 50;
-            int graphWidth = width - 2 * padding;
-            int graphHeight = height - 2 * padding;
-            
-            // Draw background
-            g2d.setColor(Color.WHITE);
-            g2d.fillRect(0, 0, width, height);
-            
-            // Draw grid
-            g2d.setColor(Color.LIGHT_GRAY);
-            for (int i = 0; i <= 10; i++) {
-                int x = padding + (i * graphWidth) / 10;
-                g2d.drawLine(x, padding, x, height - padding);
-                
-                int y = padding + (i * graphHeight) / 10;
-                g2d.drawLine(padding, y, width - padding, y);
-            }
-            
-            // Draw axes
-            g2d.setColor(Color.BLACK);
-            g2d.setStroke(new BasicStroke(2));
-            g2d.drawLine(padding, padding, padding, height - padding); // Y-axis
-            g2d.drawLine(padding, height - padding, width - padding, height - padding); // X-axis
-            
-            // Draw labels
-            g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-            g2d.drawString("Distance (cm)", 10, height / 2);
-            g2d.drawString("Time (samples)", width / 2, height - 10);
-            
-            // Draw distance line
-            if (distanceHistory.size() > 1) {
-                g2d.setColor(Color.BLUE);
-                g2d.setStroke(new BasicStroke(2));
-                
-                for (int i = 1; i < distanceHistory.size(); i++) {
-                    int x1 = padding + ((i - 1) * graphWidth) / Math.max(1, distanceHistory.size() - 1);
-                    int y1 = padding + graphHeight - (distanceHistory.get(i - 1) * graphHeight) / 400;
-                    int x2 = padding + (i * graphWidth) / Math.max(1, distanceHistory.size() - 1);
-                    int y2 = padding + graphHeight - (distanceHistory.get(i) * graphHeight) / 400;
-                    
-                    g2d.drawLine(x1, y1, x2, y2);
-                }
-            }
-            
-            // Draw detection points
-            g2d.setColor(Color.RED);
-            g2d.setStroke(new BasicStroke(1));
-            for (int i = 0; i < detectionHistory.size(); i++) {
-                Integer detection = detectionHistory.get(i);
-                if (detection != null) {
-                    int x = padding + (i * graphWidth) / Math.max(1, detectionHistory.size() - 1);
-                    int y = padding + graphHeight - (detection * graphHeight) / 400;
-                    g2d.fillOval(x - 3, y - 3, 6, 6);
-                }
-            }
-        }
+    // Called on the EDT once per batch
+    private void refreshDisplay() {
+        int newest = dataHistory.size() - 1;
+        updateDistance(dataHistory.distanceAt(newest), dataHistory.isDetected(newest));
+        graphPanel.repaint();
     }
 }